@@ -0,0 +1,99 @@
+package org.restopt.benchmark;
+
+import org.restopt.DataLoader;
+import org.restopt.RasterDataLoader;
+import org.restopt.RestoptProblem;
+import org.restopt.SyntheticLandscapeGenerator;
+import org.restopt.exception.RestoptException;
+
+import java.io.IOException;
+
+/**
+ * Landscapes shared by the benchmarks:
+ * <ul>
+ *     <li>"example": the bundled example data.</li>
+ *     <li>"kaala": the Kaala use case data.</li>
+ *     <li>"synthetic_N": a synthetic NxN landscape (see synthetic(int, int, int, int)) with patches of 10 to 1000
+ *     pixels covering ~20% of the landscape, 80% of the pixels being accessible.</li>
+ * </ul>
+ */
+class BenchmarkLandscapes {
+
+    static final String EXAMPLE = "example";
+    static final String KAALA = "kaala";
+    static final String SYNTHETIC_PREFIX = "synthetic_";
+
+    static DataLoader load(String landscape) throws IOException, RestoptException {
+        if (EXAMPLE.equals(landscape)) {
+            return rasterData("example_data/", "accessible.tif");
+        }
+        if (KAALA.equals(landscape)) {
+            return rasterData("example_data/kaala_use_case/", "available.tif");
+        }
+        if (landscape.startsWith(SYNTHETIC_PREFIX)) {
+            int side = Integer.parseInt(landscape.substring(SYNTHETIC_PREFIX.length()));
+            return synthetic(side, 10, 1000, 42);
+        }
+        throw new IllegalArgumentException("Unknown benchmark landscape: " + landscape);
+    }
+
+    /**
+     * @return A synthetic side x side landscape whose patches (log-uniform sizes between minPatchSize and
+     * maxPatchSize) cover ~20% of the pixels before merging, 80% of the pixels being accessible (blocks of 10x10),
+     * with restorable fractions between 0.5 and 1.
+     */
+    static DataLoader synthetic(int side, int minPatchSize, int maxPatchSize, long seed) throws RestoptException {
+        double meanPatchSize = minPatchSize == maxPatchSize
+                ? minPatchSize
+                : (maxPatchSize - minPatchSize) / Math.log(1.0 * maxPatchSize / minPatchSize);
+        int nbPatches = (int) Math.max(1, 0.2 * side * side / meanPatchSize);
+        return new SyntheticLandscapeGenerator(side, side, seed)
+                .setNbPatches(nbPatches)
+                .setPatchSizeRange(minPatchSize, maxPatchSize)
+                .setAccessibility(0.8, 10)
+                .setRestorableFractionRange(0.5, 1)
+                .generate();
+    }
+
+    /**
+     * @return The accessible value to use with a landscape.
+     */
+    static int accessibleValue(String landscape) {
+        if (EXAMPLE.equals(landscape)) {
+            return 2;
+        }
+        if (KAALA.equals(landscape)) {
+            return 0;
+        }
+        return 1;
+    }
+
+    /**
+     * Post the constraints of the reference problem of a landscape (as in TestSolve and TestKaalaUseCase).
+     */
+    static void postConstraints(RestoptProblem problem, String landscape) throws RestoptException {
+        problem.postNbComponentsConstraint(1, 1);
+        if (KAALA.equals(landscape)) {
+            problem.postCompactnessConstraint(11);
+        } else if (landscape.startsWith(SYNTHETIC_PREFIX)) {
+            problem.postCompactnessConstraint(60);
+            problem.postRestorableConstraint(900, 1100, 0.7);
+        } else {
+            problem.postCompactnessConstraint(6);
+            problem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+        }
+    }
+
+    private static DataLoader rasterData(String dir, String accessible) throws IOException, RestoptException {
+        return new RasterDataLoader(
+                resource(dir + "habitat.tif"),
+                resource(dir + accessible),
+                resource(dir + "restorable.tif"),
+                resource(dir + "cell_area.tif")
+        );
+    }
+
+    private static String resource(String path) {
+        return BenchmarkLandscapes.class.getClassLoader().getResource(path).getPath();
+    }
+}
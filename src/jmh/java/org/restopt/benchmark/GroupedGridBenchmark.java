@@ -0,0 +1,70 @@
+package org.restopt.benchmark;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restopt.RasterConnectivityFinder;
+import org.restopt.grid.neighborhood.Neighborhoods;
+import org.restopt.grid.regular.square.PartialRegularGroupedAggGrid;
+import org.restopt.grid.regular.square.PartialRegularGroupedGrid;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Construction time of the grouped grids and of the upper bound habitat graph built on them, on a synthetic
+ * 5000x5000 raster. Every non habitat cell is a planning unit, as in the worst case of RestoptProblem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class GroupedGridBenchmark {
+
+    @Param({"5000"})
+    public int side;
+
+    @Param({"3"})
+    public int aggregationFactor;
+
+    private RasterConnectivityFinder habGraph;
+
+    @Setup
+    public void setup() {
+        int[] values = RasterConnectivityFinderBenchmark.syntheticHabitat(side, side, 0.3, 42);
+        habGraph = new RasterConnectivityFinder(side, side, values, 1, Neighborhoods.FOUR_CONNECTED);
+    }
+
+    @Benchmark
+    public UndirectedGraph groupedGrid() {
+        PartialRegularGroupedGrid grid = new PartialRegularGroupedGrid(side, side, new int[0], habGraph);
+        int[] cells = IntStream.range(0, grid.getNbCells()).toArray();
+        return Neighborhoods.PARTIAL_GROUPED_FOUR_CONNECTED.getPartialGraph(
+                grid, new Model(), cells, SetType.BIPARTITESET, SetType.BIPARTITESET
+        );
+    }
+
+    @Benchmark
+    public UndirectedGraph groupedAggGrid() {
+        PartialRegularGroupedAggGrid grid = new PartialRegularGroupedAggGrid(
+                side, side, new int[0], habGraph, aggregationFactor
+        );
+        int[] cells = IntStream.range(0, grid.getNbCells()).toArray();
+        return Neighborhoods.PARTIAL_GROUPED_AGG_FOUR_CONNECTED.getPartialGraph(
+                grid, new Model(), cells, SetType.BIPARTITESET, SetType.BIPARTITESET
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package org.restopt.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restopt.DataLoader;
+import org.restopt.RestoptProblem;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction time of RestoptProblem (classification, grouped grid and habitat graph variable), the input data
+ * being loaded once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ProblemBuildBenchmark {
+
+    @Param({"example", "kaala", "synthetic_1000", "synthetic_3163"})
+    public String landscape;
+
+    @Param({"1", "3"})
+    public int aggregationFactor;
+
+    private DataLoader data;
+
+    @Setup
+    public void setup() throws Exception {
+        data = BenchmarkLandscapes.load(landscape);
+    }
+
+    @Benchmark
+    public RestoptProblem build() {
+        return new RestoptProblem(data, BenchmarkLandscapes.accessibleValue(landscape), aggregationFactor);
+    }
+}
@@ -0,0 +1,148 @@
+package org.restopt.benchmark;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.UndirectedGraphVar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restopt.RestoptProblem;
+import org.restopt.choco.PropEffectiveMeshSize;
+import org.restopt.choco.PropEffectiveMeshSizeIncremental;
+import org.restopt.choco.PropIIC;
+import org.restopt.choco.PropIICIncremental;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Propagation time of each propagator, alone in the model, on fixed fuzzed domains. Each invocation opens a new
+ * world, removes ~half of the planning units from the upper bound and enforces ~1% of them (one of NB_SCENARIOS
+ * scenarios generated with a fixed seed), propagates and backtracks. Contradictions are part of the measure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PropagatorBenchmark {
+
+    private static final int NB_SCENARIOS = 32;
+
+    @Param({
+            "PropEffectiveMeshSize", "PropEffectiveMeshSizeIncremental", "PropIIC", "PropIICIncremental",
+            "PropSmallestEnclosingCircleSpatialGraph", "PropNoNewCC"
+    })
+    public String propagator;
+
+    @Param({"example", "kaala"})
+    public String landscape;
+
+    private Model model;
+    private Solver solver;
+    private UndirectedGraphVar habitatGraph;
+    private int[][] removed;
+    private int[][] enforced;
+    private int scenario;
+
+    @Setup
+    public void setup() throws Exception {
+        RestoptProblem problem = new RestoptProblem(
+                BenchmarkLandscapes.load(landscape), BenchmarkLandscapes.accessibleValue(landscape)
+        );
+        model = problem.getModel();
+        solver = model.getSolver();
+        habitatGraph = problem.getHabitatGraphVar();
+        IntVar objective = model.intVar(0, IntVar.MAX_INT_BOUND);
+        switch (propagator) {
+            case "PropEffectiveMeshSize":
+                model.post(new Constraint(propagator, new PropEffectiveMeshSize(
+                        habitatGraph, objective, problem.getGrid().getSizeCells(), problem.getLandscapeArea(), 3, true
+                )));
+                break;
+            case "PropEffectiveMeshSizeIncremental":
+                model.post(new Constraint(propagator, new PropEffectiveMeshSizeIncremental(
+                        habitatGraph, objective, problem.getGrid().getSizeCells(), problem.getLandscapeArea(), 3, true
+                )));
+                break;
+            case "PropIIC":
+                model.post(new Constraint(propagator, new PropIIC(
+                        habitatGraph, objective, problem.getGrid(), problem.getLandscapeArea(), 3, 3, true
+                )));
+                break;
+            case "PropIICIncremental":
+                model.post(new Constraint(propagator, new PropIICIncremental(
+                        habitatGraph, objective, problem.getGrid(), problem.getLandscapeArea(), 3,
+                        problem.getThresholdNeighborhoodIndex(3), 3, true
+                )));
+                break;
+            case "PropSmallestEnclosingCircleSpatialGraph":
+                problem.postCompactnessConstraint(6);
+                break;
+            case "PropNoNewCC":
+                problem.postNoNewPatchConstraint();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown propagator: " + propagator);
+        }
+        // Root propagation
+        solver.propagate();
+        // Fuzzed domains
+        int[] pus = problem.getAvailablePlanningUnits();
+        Random random = new Random(42);
+        removed = new int[NB_SCENARIOS][];
+        enforced = new int[NB_SCENARIOS][];
+        for (int s = 0; s < NB_SCENARIOS; s++) {
+            int[] rem = new int[pus.length];
+            int[] enf = new int[pus.length];
+            int nbRem = 0;
+            int nbEnf = 0;
+            for (int pu : pus) {
+                double r = random.nextDouble();
+                if (r < 0.5) {
+                    rem[nbRem++] = pu;
+                } else if (r < 0.51) {
+                    enf[nbEnf++] = pu;
+                }
+            }
+            removed[s] = Arrays.copyOf(rem, nbRem);
+            enforced[s] = Arrays.copyOf(enf, nbEnf);
+        }
+    }
+
+    @Benchmark
+    public boolean propagate() {
+        int s = scenario;
+        scenario = (scenario + 1) % NB_SCENARIOS;
+        model.getEnvironment().worldPush();
+        boolean consistent = true;
+        try {
+            for (int i : removed[s]) {
+                habitatGraph.removeNode(i, Cause.Null);
+            }
+            for (int i : enforced[s]) {
+                habitatGraph.enforceNode(i, Cause.Null);
+            }
+            solver.propagate();
+        } catch (ContradictionException e) {
+            solver.getEngine().flush();
+            consistent = false;
+        }
+        model.getEnvironment().worldPop();
+        return consistent;
+    }
+}
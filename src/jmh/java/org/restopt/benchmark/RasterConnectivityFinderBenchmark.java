@@ -0,0 +1,82 @@
+package org.restopt.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restopt.RasterConnectivityFinder;
+import org.restopt.grid.neighborhood.Neighborhoods;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction time and retained heap of RasterConnectivityFinder on synthetic rasters of 1M, 10M and 50M cells.
+ * The retained heap is measured once per trial and printed on the standard output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class RasterConnectivityFinderBenchmark {
+
+    @Param({"1000", "3163", "7072"})
+    public int side;
+
+    private int[] values;
+
+    private RasterConnectivityFinder retained;
+
+    @Setup
+    public void setup() {
+        values = syntheticHabitat(side, side, 0.3, 42);
+        long before = usedMemory();
+        retained = new RasterConnectivityFinder(side, side, values, 1, Neighborhoods.FOUR_CONNECTED);
+        long after = usedMemory();
+        System.out.println("\nRetained heap (" + side * side + " cells, " + retained.getNbNodes() + " nodes, "
+                + retained.getNBCC() + " components): " + (after - before) / (1024 * 1024) + " MB");
+    }
+
+    @Benchmark
+    public RasterConnectivityFinder construct() {
+        return new RasterConnectivityFinder(side, side, values, 1, Neighborhoods.FOUR_CONNECTED);
+    }
+
+    /**
+     * @return A raster where each 4x4 block is habitat (1) with the given probability, and non-habitat (0) otherwise.
+     */
+    static int[] syntheticHabitat(int nbRows, int nbCols, double habitatProportion, long seed) {
+        Random random = new Random(seed);
+        int blockSize = 4;
+        int nbBlockRows = (nbRows + blockSize - 1) / blockSize;
+        int nbBlockCols = (nbCols + blockSize - 1) / blockSize;
+        boolean[] habitatBlocks = new boolean[nbBlockRows * nbBlockCols];
+        for (int b = 0; b < habitatBlocks.length; b++) {
+            habitatBlocks[b] = random.nextDouble() < habitatProportion;
+        }
+        int[] data = new int[nbRows * nbCols];
+        for (int row = 0; row < nbRows; row++) {
+            for (int col = 0; col < nbCols; col++) {
+                data[row * nbCols + col] = habitatBlocks[(row / blockSize) * nbBlockCols + col / blockSize] ? 1 : 0;
+            }
+        }
+        return data;
+    }
+
+    static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,105 @@
+package org.restopt.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restopt.DataLoader;
+import org.restopt.RestoptProblem;
+import org.restopt.RestoptSolution;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling curves of each objective on synthetic landscapes of increasing size and fragmentation: time of problem
+ * construction plus solving (within a time limit), retained heap of the problem and footprint of its CSR neighborhood
+ * indices against the number of grouped cells (printed once per trial, use -prof gc for allocation rates).
+ * Fragmentation levels have the same habitat proportion:
+ * <ul>
+ *     <li>low: few large patches (100 to 10000 pixels).</li>
+ *     <li>medium: patches of 10 to 1000 pixels.</li>
+ *     <li>high: many small patches (1 to 100 pixels).</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms16g", "-Xmx16g"})
+public class ScalingBenchmark {
+
+    @Param({"250", "500", "1000", "2000"})
+    public int side;
+
+    @Param({"low", "medium", "high"})
+    public String fragmentation;
+
+    @Param({"MESH", "IIC", "MIN_RESTORE"})
+    public String objective;
+
+    @Param({"30"})
+    public int timeLimit;
+
+    private DataLoader data;
+
+    @Setup
+    public void setup() throws Exception {
+        switch (fragmentation) {
+            case "low":
+                data = BenchmarkLandscapes.synthetic(side, 100, 10000, 42);
+                break;
+            case "medium":
+                data = BenchmarkLandscapes.synthetic(side, 10, 1000, 42);
+                break;
+            case "high":
+                data = BenchmarkLandscapes.synthetic(side, 1, 100, 42);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown fragmentation level: " + fragmentation);
+        }
+        long before = RasterConnectivityFinderBenchmark.usedMemory();
+        RestoptProblem problem = problem();
+        long after = RasterConnectivityFinderBenchmark.usedMemory();
+        System.out.println("\nRetained heap (" + side * side + " cells, " + problem.getGrid().getNbCells()
+                + " grouped cells): " + (after - before) / (1024 * 1024) + " MB, input layers: "
+                + data.getMemoryFootprint() / (1024 * 1024) + " MB");
+        printFootprint("Neighborhood index", problem.getNeighborhoodIndex());
+        printFootprint("IIC threshold index (k = 1)", problem.getThresholdNeighborhoodIndex(1));
+    }
+
+    private static void printFootprint(String name, NeighborhoodIndex index) {
+        long nbCells = index.getNbCells();
+        System.out.println(name + ": " + nbCells + " cells, " + index.getNbTargets() + " neighbors, CSR: "
+                + index.getMemoryFootprint() / 1024 + " KB, dense: " + 4 * nbCells * nbCells / 1024 + " KB");
+    }
+
+    private RestoptProblem problem() throws Exception {
+        RestoptProblem problem = new RestoptProblem(data, 1);
+        BenchmarkLandscapes.postConstraints(problem, BenchmarkLandscapes.SYNTHETIC_PREFIX + side);
+        return problem;
+    }
+
+    @Benchmark
+    public RestoptSolution solve() throws Exception {
+        RestoptProblem problem = problem();
+        switch (objective) {
+            case "MESH":
+                return problem.maximizeMESH(3, timeLimit, 0, false);
+            case "IIC":
+                return problem.maximizeIIC(3, 1, timeLimit, 0, false);
+            case "MIN_RESTORE":
+                return problem.maximizeMinRestore(timeLimit, 0, false);
+            default:
+                throw new IllegalArgumentException("Unknown objective: " + objective);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.restopt.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restopt.DataLoader;
+import org.restopt.RestoptProblem;
+import org.restopt.RestoptSolution;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end solving time (problem construction, constraints and optimization) of maximizeMESH and maximizeIIC on
+ * the reference problem of each landscape (see BenchmarkLandscapes), within a time limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class SolveBenchmark {
+
+    @Param({"example", "kaala", "synthetic_200", "synthetic_500"})
+    public String landscape;
+
+    @Param({"60"})
+    public int timeLimit;
+
+    private DataLoader data;
+
+    @Setup
+    public void setup() throws Exception {
+        data = BenchmarkLandscapes.load(landscape);
+    }
+
+    private RestoptProblem problem() throws Exception {
+        RestoptProblem problem = new RestoptProblem(data, BenchmarkLandscapes.accessibleValue(landscape));
+        BenchmarkLandscapes.postConstraints(problem, landscape);
+        return problem;
+    }
+
+    @Benchmark
+    public RestoptSolution maximizeMESH() throws Exception {
+        return problem().maximizeMESH(3, timeLimit, 0, false);
+    }
+
+    @Benchmark
+    public RestoptSolution maximizeIIC() throws Exception {
+        return problem().maximizeIIC(3, 1, timeLimit, 0, false);
+    }
+}
@@ -0,0 +1,176 @@
+package org.restopt;
+
+import org.restopt.constraints.IRestoptConstraintFactory.PostedConstraint;
+import org.restopt.exception.RestoptException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Run a batch of scenarios (constraints + objective) on a single preprocessed landscape. Each scenario gets its own
+ * RestoptProblem (and Choco model) built from the shared landscape, scenarios are solved in parallel on a bounded
+ * thread pool and the results are streamed to a consumer, in the calling thread, as soon as they complete.
+ * <p>
+ * Example:
+ * <pre>
+ *     BatchScenarioRunner runner = new BatchScenarioRunner(new PreprocessedLandscape(data, 1), 4);
+ *     runner.addScenario(new Scenario(
+ *         "budget_100",
+ *         p -&gt; p.postRestorableConstraint(90, 110, 0.7),
+ *         p -&gt; p.maximizeMESH(3, 60, 0, false)
+ *     ));
+ *     runner.run(result -&gt; System.out.println(result.getScenario().getName() + " done"));
+ * </pre>
+ */
+public class BatchScenarioRunner {
+
+    /**
+     * Solve a scenario problem, return null if there is no solution.
+     */
+    public interface ScenarioObjective {
+        RestoptSolution solve(RestoptProblem problem) throws Exception;
+    }
+
+    /**
+     * A named scenario: the constraints to post and the objective to optimize.
+     */
+    public static class Scenario {
+
+        private final String name;
+        private final PostedConstraint constraints;
+        private final ScenarioObjective objective;
+
+        public Scenario(String name, PostedConstraint constraints, ScenarioObjective objective) {
+            this.name = name;
+            this.constraints = constraints;
+            this.objective = objective;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Outcome of a scenario: its solution (null if there is no solution), or the exception raised while solving it.
+     */
+    public static class ScenarioResult {
+
+        private final Scenario scenario;
+        private final RestoptSolution solution;
+        private final Exception error;
+        private final long runtime;
+
+        private ScenarioResult(Scenario scenario, RestoptSolution solution, Exception error, long runtime) {
+            this.scenario = scenario;
+            this.solution = solution;
+            this.error = error;
+            this.runtime = runtime;
+        }
+
+        public Scenario getScenario() {
+            return scenario;
+        }
+
+        public RestoptSolution getSolution() {
+            return solution;
+        }
+
+        public Exception getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /**
+         * @return The time needed to build and solve the scenario problem (in ms).
+         */
+        public long getRuntime() {
+            return runtime;
+        }
+    }
+
+    private final PreprocessedLandscape landscape;
+    private final int nbThreads;
+    private final List<Scenario> scenarios;
+
+    /**
+     * @param landscape The preprocessed landscape shared by all the scenarios.
+     * @param nbThreads The maximum number of scenarios solved concurrently.
+     */
+    public BatchScenarioRunner(PreprocessedLandscape landscape, int nbThreads) throws RestoptException {
+        if (nbThreads < 1) {
+            throw new RestoptException("The number of threads must be at least 1");
+        }
+        this.landscape = landscape;
+        this.nbThreads = nbThreads;
+        this.scenarios = new ArrayList<>();
+    }
+
+    public BatchScenarioRunner addScenario(Scenario scenario) {
+        scenarios.add(scenario);
+        return this;
+    }
+
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    /**
+     * Solve all the scenarios, blocking until they are all completed.
+     *
+     * @param onResult Called (in the calling thread) for each scenario, in completion order.
+     */
+    public void run(Consumer<ScenarioResult> onResult) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(nbThreads, Math.max(1, scenarios.size())));
+        try {
+            CompletionService<ScenarioResult> completion = new ExecutorCompletionService<>(executor);
+            for (Scenario scenario : scenarios) {
+                completion.submit(() -> solve(scenario));
+            }
+            for (int i = 0; i < scenarios.size(); i++) {
+                try {
+                    onResult.accept(completion.take().get());
+                } catch (ExecutionException e) {
+                    // solve() catches the scenario exceptions, only errors can get here
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Solve all the scenarios, blocking until they are all completed.
+     *
+     * @return The results in completion order.
+     */
+    public List<ScenarioResult> run() throws InterruptedException {
+        List<ScenarioResult> results = new ArrayList<>();
+        run(results::add);
+        return results;
+    }
+
+    private ScenarioResult solve(Scenario scenario) {
+        long t = System.currentTimeMillis();
+        try {
+            RestoptProblem problem = new RestoptProblem(landscape);
+            if (scenario.constraints != null) {
+                scenario.constraints.post(problem);
+            }
+            RestoptSolution solution = scenario.objective.solve(problem);
+            return new ScenarioResult(scenario, solution, null, System.currentTimeMillis() - t);
+        } catch (Exception e) {
+            return new ScenarioResult(scenario, null, e, System.currentTimeMillis() - t);
+        }
+    }
+}
@@ -1,34 +1,53 @@
 package org.restopt;
 
 import org.restopt.exception.RestoptException;
+import org.restopt.layer.DoubleLayer;
+import org.restopt.layer.IntLayer;
+import org.restopt.layer.Layers;
 
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 
 /**
- * Class for loading and accessing problem's data.
+ * Class for loading and accessing problem's data. Input arrays are packed into narrow-typed layers (see Layers), the
+ * problem is built through the per-pixel accessors.
  */
 public class DataLoader {
 
-    protected int[] habitatData;
-    protected double[] restorableData;
-    protected int[] accessibleData;
-    protected int[] cellAreaData;
+    protected IntLayer habitatLayer;
+    protected DoubleLayer restorableLayer;
+    protected IntLayer accessibleLayer;
+    protected IntLayer cellAreaLayer;
 
     protected int width;
     protected int height;
 
     protected double noDataHabitat;
 
+    /**
+     * Constructor for subclasses that set the input layers themselves.
+     */
+    protected DataLoader(int width, int height, double noDataHabitat) {
+        this.width = width;
+        this.height = height;
+        this.noDataHabitat = noDataHabitat;
+    }
+
+    public DataLoader(IntLayer habitatLayer, IntLayer accessibleLayer, DoubleLayer restorableLayer,
+                      IntLayer cellAreaLayer, int width, int height, double noDataHabitat) throws RestoptException {
+        this(width, height, noDataHabitat);
+        setLayers(habitatLayer, accessibleLayer, restorableLayer, cellAreaLayer);
+        if (width * height != habitatLayer.size()) {
+            throw new RestoptException("Input width and height do not correspond to dataset size");
+        }
+    }
+
     public DataLoader(int[] habitatData, int[] accessibleData, double[] restorableData, int[] cellAreaData) throws RestoptException {
-        this.habitatData = habitatData;
-        this.accessibleData = accessibleData;
-        this.restorableData = restorableData;
-        this.cellAreaData = cellAreaData;
         int n = habitatData.length;
         if (accessibleData.length != n || restorableData.length != n || cellAreaData.length != n) {
             throw new RestoptException("All input datasets must have the same size");
         }
+        setLayers(Layers.pack(habitatData), Layers.pack(accessibleData), Layers.pack(restorableData), Layers.pack(cellAreaData));
     }
 
     public DataLoader(int[] habitatData, int[] accessibleData, double[] restorableData, int[] cellAreaData, int width,
@@ -50,20 +69,103 @@ public class DataLoader {
              width, height, noDataHabitat);
     }
 
+    protected void setLayers(IntLayer habitatLayer, IntLayer accessibleLayer, DoubleLayer restorableLayer,
+                             IntLayer cellAreaLayer) throws RestoptException {
+        int n = habitatLayer.size();
+        if (accessibleLayer.size() != n || restorableLayer.size() != n || cellAreaLayer.size() != n) {
+            throw new RestoptException("All input datasets must have the same size");
+        }
+        this.habitatLayer = habitatLayer;
+        this.accessibleLayer = accessibleLayer;
+        this.restorableLayer = restorableLayer;
+        this.cellAreaLayer = cellAreaLayer;
+    }
+
+    /**
+     * @return A new array containing the habitat layer (prefer getHabitat(i) for large inputs).
+     */
     public int[] getHabitatData() {
-        return habitatData;
+        return habitatLayer.toArray();
     }
 
+    /**
+     * @return A new array containing the restorable layer (prefer getRestorable(i) for large inputs).
+     */
     public double[] getRestorableData() {
-        return restorableData;
+        return restorableLayer.toArray();
     }
 
+    /**
+     * @return A new array containing the accessible layer (prefer getAccessible(i) for large inputs).
+     */
     public int[] getAccessibleData() {
-        return accessibleData;
+        return accessibleLayer.toArray();
     }
 
+    /**
+     * @return A new array containing the cell area layer (prefer getCellArea(i) for large inputs).
+     */
     public int[] getCellAreaData() {
-        return cellAreaData;
+        return cellAreaLayer.toArray();
+    }
+
+    public IntLayer getHabitatLayer() {
+        return habitatLayer;
+    }
+
+    public DoubleLayer getRestorableLayer() {
+        return restorableLayer;
+    }
+
+    public IntLayer getAccessibleLayer() {
+        return accessibleLayer;
+    }
+
+    public IntLayer getCellAreaLayer() {
+        return cellAreaLayer;
+    }
+
+    /**
+     * @return The memory footprint of the input layers, in bytes.
+     */
+    public long getMemoryFootprint() {
+        return habitatLayer.getMemoryFootprint() + accessibleLayer.getMemoryFootprint()
+                + restorableLayer.getMemoryFootprint() + cellAreaLayer.getMemoryFootprint();
+    }
+
+    /**
+     * @return The number of pixels of the input layers.
+     */
+    public int getNbPixels() {
+        return habitatLayer.size();
+    }
+
+    /**
+     * @return The habitat value of pixel i.
+     */
+    public int getHabitat(int i) {
+        return habitatLayer.get(i);
+    }
+
+    /**
+     * @return The accessible value of pixel i.
+     */
+    public int getAccessible(int i) {
+        return accessibleLayer.get(i);
+    }
+
+    /**
+     * @return The restorable area of pixel i.
+     */
+    public double getRestorable(int i) {
+        return restorableLayer.get(i);
+    }
+
+    /**
+     * @return The area of pixel i.
+     */
+    public int getCellArea(int i) {
+        return cellAreaLayer.get(i);
     }
 
     public int getWidth() {
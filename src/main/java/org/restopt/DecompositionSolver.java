@@ -0,0 +1,210 @@
+package org.restopt;
+
+import org.restopt.BatchScenarioRunner.ScenarioObjective;
+import org.restopt.LandscapeDecomposition.Region;
+import org.restopt.choco.LandscapeIndicesUtils;
+import org.restopt.constraints.IRestoptConstraintFactory.PostedConstraint;
+import org.restopt.exception.RestoptException;
+import org.restopt.grid.neighborhood.Neighborhoods;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solve a restopt problem by decomposing its landscape into independent regions (see LandscapeDecomposition): each
+ * region is solved in parallel as a separate problem, with its own constraints (e.g. its share of the budget), and
+ * the restoration areas of the regions are recombined. This is only valid for objectives that are separable over the
+ * regions, such as MESH (the sum of the squared patch areas is the sum over the regions) or min restore. When the
+ * landscape has a single region, or when a region has no solution, the monolithic problem is solved instead.
+ * <p>
+ * Example:
+ * <pre>
+ *     DecompositionSolver solver = new DecompositionSolver(new PreprocessedLandscape(data, 1), 4);
+ *     DecomposedSolution sol = solver.solve(
+ *         (p, region) -&gt; p.postRestorableConstraint(0, (int) (0.1 * region.getRestorableArea()), 0.7),
+ *         p -&gt; p.postRestorableConstraint(0, 100, 0.7),
+ *         p -&gt; p.maximizeMESH(3, 60, 0, false)
+ *     );
+ * </pre>
+ */
+public class DecompositionSolver {
+
+    /**
+     * Constraints of a region problem.
+     */
+    public interface RegionConstraint {
+        void post(RestoptProblem problem, Region region) throws RestoptException;
+    }
+
+    /**
+     * Recombined solution: either the solutions of the independent regions, or the solution of the monolithic problem.
+     */
+    public static class DecomposedSolution {
+
+        private final PreprocessedLandscape landscape;
+        private final List<RestoptSolution> regionSolutions;
+        private final RestoptSolution monolithicSolution;
+        private final int[] restoredPixels;
+
+        private DecomposedSolution(PreprocessedLandscape landscape, List<RestoptSolution> regionSolutions,
+                                   RestoptSolution monolithicSolution, int[] restoredPixels) {
+            this.landscape = landscape;
+            this.regionSolutions = regionSolutions;
+            this.monolithicSolution = monolithicSolution;
+            this.restoredPixels = restoredPixels;
+        }
+
+        /**
+         * @return True if the solution was obtained by solving the regions independently.
+         */
+        public boolean isDecomposed() {
+            return monolithicSolution == null;
+        }
+
+        /**
+         * @return The solutions of the regions (in the region order, empty if the monolithic problem was solved).
+         */
+        public List<RestoptSolution> getRegionSolutions() {
+            return Collections.unmodifiableList(regionSolutions);
+        }
+
+        /**
+         * @return The solution of the monolithic problem, null if the regions were solved independently.
+         */
+        public RestoptSolution getMonolithicSolution() {
+            return monolithicSolution;
+        }
+
+        /**
+         * @return The restored pixels (complete indices in the landscape).
+         */
+        public int[] getRestorationPlanningUnitsCompleteIndex() {
+            return restoredPixels.clone();
+        }
+
+        /**
+         * @return The sum of the minimum restoration areas of the regions.
+         */
+        public int getMinRestoreArea() {
+            if (monolithicSolution != null) {
+                return monolithicSolution.getMinRestoreArea();
+            }
+            return regionSolutions.stream().mapToInt(RestoptSolution::getMinRestoreArea).sum();
+        }
+
+        /**
+         * @return The MESH of the whole landscape once the restoration area is restored.
+         */
+        public double getEffectiveMeshSize() {
+            DataLoader data = landscape.getData();
+            BitSet restored = new BitSet(data.getNbPixels());
+            for (int i : restoredPixels) {
+                restored.set(i);
+            }
+            RasterConnectivityFinder habitat = new RasterConnectivityFinder(
+                    data.getHeight(), data.getWidth(),
+                    i -> data.getHabitat(i) == 1 || restored.get(i),
+                    Neighborhoods.FOUR_CONNECTED
+            );
+            int landscapeArea = landscape.getGrid().getNbUngroupedCells() + landscape.getNbNonHabitatNonAccessiblePixels();
+            return LandscapeIndicesUtils.effectiveMeshSize(habitat, landscapeArea);
+        }
+    }
+
+    private final LandscapeDecomposition decomposition;
+    private final int nbThreads;
+
+    /**
+     * @param landscape The landscape to decompose.
+     * @param nbThreads The maximum number of regions solved concurrently.
+     */
+    public DecompositionSolver(PreprocessedLandscape landscape, int nbThreads) throws RestoptException {
+        if (nbThreads < 1) {
+            throw new RestoptException("The number of threads must be at least 1");
+        }
+        this.decomposition = new LandscapeDecomposition(landscape);
+        this.nbThreads = nbThreads;
+    }
+
+    public LandscapeDecomposition getDecomposition() {
+        return decomposition;
+    }
+
+    /**
+     * @param regionConstraints     The constraints of each region problem (may be null).
+     * @param monolithicConstraints The constraints of the monolithic problem, used as a fallback (may be null).
+     * @param objective             The objective, which must be separable over the regions.
+     * @return The recombined solution, null if the monolithic problem has no solution.
+     */
+    public DecomposedSolution solve(RegionConstraint regionConstraints, PostedConstraint monolithicConstraints,
+                                    ScenarioObjective objective) throws Exception {
+        if (decomposition.isDecomposable()) {
+            List<RestoptSolution> solutions = solveRegions(regionConstraints, objective);
+            if (solutions != null) {
+                BitSet restored = new BitSet();
+                for (int r = 0; r < solutions.size(); r++) {
+                    Region region = decomposition.getRegions().get(r);
+                    for (int i : solutions.get(r).getRestorationPlanningUnitsCompleteIndex()) {
+                        restored.set(region.toLandscapePixel(i));
+                    }
+                }
+                return new DecomposedSolution(decomposition.getLandscape(), solutions, null, restored.stream().toArray());
+            }
+        }
+        RestoptProblem problem = new RestoptProblem(decomposition.getLandscape());
+        if (monolithicConstraints != null) {
+            monolithicConstraints.post(problem);
+        }
+        RestoptSolution solution = objective.solve(problem);
+        if (solution == null) {
+            return null;
+        }
+        return new DecomposedSolution(decomposition.getLandscape(), new ArrayList<>(), solution,
+                solution.getRestorationPlanningUnitsCompleteIndex());
+    }
+
+    /**
+     * @return The solutions of the regions, in the region order, null if a region has no solution.
+     */
+    private List<RestoptSolution> solveRegions(RegionConstraint regionConstraints, ScenarioObjective objective) throws Exception {
+        List<Region> regions = decomposition.getRegions();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(nbThreads, regions.size()));
+        try {
+            List<Future<RestoptSolution>> futures = new ArrayList<>();
+            for (Region region : regions) {
+                futures.add(executor.submit(() -> {
+                    RestoptProblem problem = new RestoptProblem(region.makeLandscape());
+                    if (regionConstraints != null) {
+                        regionConstraints.post(problem, region);
+                    }
+                    return objective.solve(problem);
+                }));
+            }
+            List<RestoptSolution> solutions = new ArrayList<>();
+            for (Future<RestoptSolution> future : futures) {
+                RestoptSolution solution;
+                try {
+                    solution = future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
+                    }
+                    throw new RuntimeException(e.getCause());
+                }
+                if (solution == null) {
+                    return null;
+                }
+                solutions.add(solution);
+            }
+            return solutions;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -18,33 +18,33 @@ public class FocalHabitatClass {
 
         this.classValue = classValue;
 
-        int[] outPixels = IntStream.range(0, data.getHabitatData().length)
-                .filter(i -> data.getHabitatData()[i] < nonHabitatValue || data.getHabitatData()[i] == data.noDataHabitat)
+        int[] outPixels = IntStream.range(0, data.getNbPixels())
+                .filter(i -> data.getHabitat(i) < nonHabitatValue || data.getHabitat(i) == data.noDataHabitat)
                 .toArray();
 
-        int[] nonHabitatNonAccessiblePixels = IntStream.range(0, data.getHabitatData().length)
-                .filter(i -> data.getHabitatData()[i] == nonHabitatValue && data.getAccessibleData()[i] != accessibleVal)
+        int[] nonHabitatNonAccessiblePixels = IntStream.range(0, data.getNbPixels())
+                .filter(i -> data.getHabitat(i) == nonHabitatValue && data.getAccessible(i) != accessibleVal)
                 .toArray();
 
-        int[] habitatPixelsComp = IntStream.range(0, data.getHabitatData().length)
-                .filter(i -> data.getHabitatData()[i] == classValue)
+        int[] habitatPixelsComp = IntStream.range(0, data.getNbPixels())
+                .filter(i -> data.getHabitat(i) == classValue)
                 .toArray();
 
         habGraph = new RasterConnectivityFinder(
                 data.getHeight(), data.getWidth(),
-                data.getHabitatData(), 1,
+                i -> data.getHabitat(i) == 1,
                 Neighborhoods.FOUR_CONNECTED
         );
         nonHabNonAcc = nonHabitatNonAccessiblePixels.length;
 
         this.grid = new PartialRegularGroupedGrid(data.getHeight(), data.getWidth(), ArrayUtils.concat(outPixels, nonHabitatNonAccessiblePixels), habGraph);
 
-        int[] nonHabitatPixels = IntStream.range(0, data.getHabitatData().length)
-                .filter(i -> data.getHabitatData()[i] == nonHabitatValue)
+        int[] nonHabitatPixels = IntStream.range(0, data.getNbPixels())
+                .filter(i -> data.getHabitat(i) == nonHabitatValue)
                 .toArray();
 
-        availablePlanningUnits = IntStream.range(0, data.getAccessibleData().length)
-                .filter(i -> data.getAccessibleData()[i] == accessibleVal && data.getHabitatData()[i] == nonHabitatValue)
+        availablePlanningUnits = IntStream.range(0, data.getNbPixels())
+                .filter(i -> data.getAccessible(i) == accessibleVal && data.getHabitat(i) == nonHabitatValue)
                 .map(i -> grid.getGroupIndexFromCompleteIndex(i))
                 .toArray();
 
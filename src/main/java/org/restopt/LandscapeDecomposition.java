@@ -0,0 +1,212 @@
+package org.restopt;
+
+import org.restopt.exception.RestoptException;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+import org.restopt.grid.regular.square.GroupedGrid;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decomposition of a preprocessed landscape into independent regions: the connected components of the grouped
+ * adjacency (habitat groups and planning units) that contain at least one planning unit. Two planning units of
+ * different regions are neither adjacent nor adjacent to a common habitat group, so that, for objectives and
+ * constraints that are separable over the regions (e.g. MESH or min restore with a budget split between the regions),
+ * each region can be solved as an independent, smaller problem built from the region's pixels only.
+ */
+public class LandscapeDecomposition {
+
+    /**
+     * An independent region of the landscape.
+     */
+    public static class Region {
+
+        private final LandscapeDecomposition decomposition;
+        private final int index;
+        private final int[] planningUnits;
+        private final BitSet pixels;
+        private final int rowOffset;
+        private final int colOffset;
+        private final int nbRows;
+        private final int nbCols;
+        private DataLoader data;
+
+        private Region(LandscapeDecomposition decomposition, int index, int[] planningUnits, BitSet pixels,
+                       int rowOffset, int colOffset, int nbRows, int nbCols) {
+            this.decomposition = decomposition;
+            this.index = index;
+            this.planningUnits = planningUnits;
+            this.pixels = pixels;
+            this.rowOffset = rowOffset;
+            this.colOffset = colOffset;
+            this.nbRows = nbRows;
+            this.nbCols = nbCols;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return The planning units of the region (grouped indices in the decomposed landscape).
+         */
+        public int[] getPlanningUnits() {
+            return planningUnits.clone();
+        }
+
+        /**
+         * @return The pixels of the region (habitat groups and planning units), as complete indices in the
+         * decomposed landscape.
+         */
+        public int[] getPixels() {
+            return pixels.stream().toArray();
+        }
+
+        /**
+         * @return The total restorable area of the planning units of the region, e.g. to split a budget.
+         */
+        public double getRestorableArea() {
+            DataLoader full = decomposition.landscape.getData();
+            double area = 0;
+            GroupedGrid grid = decomposition.landscape.getGrid();
+            for (int i : grid.getUngroupedCompleteIndices(planningUnits)) {
+                area += full.getRestorable(i);
+            }
+            return area;
+        }
+
+        /**
+         * @return The input data of the region, cropped to its bounding box (aligned on the aggregation factor of
+         * the landscape). The pixels of the bounding box that do not belong to the region are out of the landscape.
+         */
+        public synchronized DataLoader getData() throws RestoptException {
+            if (data == null) {
+                DataLoader full = decomposition.landscape.getData();
+                int n = nbRows * nbCols;
+                int[] habitat = new int[n];
+                int[] accessible = new int[n];
+                double[] restorable = new double[n];
+                int[] cellArea = new int[n];
+                for (int i = 0; i < n; i++) {
+                    int j = toLandscapePixel(i);
+                    accessible[i] = full.getAccessible(j);
+                    cellArea[i] = full.getCellArea(j);
+                    if (pixels.get(j)) {
+                        habitat[i] = full.getHabitat(j);
+                        restorable[i] = full.getRestorable(j);
+                    } else {
+                        habitat[i] = -1;
+                    }
+                }
+                data = new DataLoader(habitat, accessible, restorable, cellArea, nbCols, nbRows, full.getNoDataValue());
+            }
+            return data;
+        }
+
+        /**
+         * @return The preprocessed landscape of the region (to build an independent problem).
+         */
+        public PreprocessedLandscape makeLandscape() throws RestoptException {
+            return new PreprocessedLandscape(getData(), decomposition.landscape.getAccessibleVal(),
+                    decomposition.landscape.getAggregationFactor());
+        }
+
+        /**
+         * @param regionPixel A complete index in the region's data.
+         * @return The corresponding complete index in the decomposed landscape.
+         */
+        public int toLandscapePixel(int regionPixel) {
+            int row = rowOffset + regionPixel / nbCols;
+            int col = colOffset + regionPixel % nbCols;
+            return row * decomposition.landscape.getGrid().getNbCols() + col;
+        }
+    }
+
+    private final PreprocessedLandscape landscape;
+    private final List<Region> regions;
+
+    public LandscapeDecomposition(PreprocessedLandscape landscape) {
+        this.landscape = landscape;
+        this.regions = new ArrayList<>();
+        GroupedGrid grid = landscape.getGrid();
+        NeighborhoodIndex index = landscape.getNeighborhoodIndex();
+        BitSet isPlanningUnit = new BitSet(grid.getNbCells());
+        for (int pu : landscape.getAvailablePlanningUnits()) {
+            isPlanningUnit.set(pu);
+        }
+        boolean[] visited = new boolean[grid.getNbCells()];
+        int[] queue = new int[grid.getNbCells()];
+        int factor = landscape.getAggregationFactor();
+        for (int start = 0; start < grid.getNbCells(); start++) {
+            if (visited[start]) {
+                continue;
+            }
+            int tail = 0;
+            visited[start] = true;
+            queue[tail++] = start;
+            for (int head = 0; head < tail; head++) {
+                int cell = queue[head];
+                for (int p = index.getStart(cell); p < index.getEnd(cell); p++) {
+                    int j = index.getTarget(p);
+                    if (!visited[j]) {
+                        visited[j] = true;
+                        queue[tail++] = j;
+                    }
+                }
+            }
+            List<Integer> pus = new ArrayList<>();
+            BitSet pixels = new BitSet(grid.getNbRows() * grid.getNbCols());
+            int rowMin = Integer.MAX_VALUE;
+            int rowMax = -1;
+            int colMin = Integer.MAX_VALUE;
+            int colMax = -1;
+            for (int k = 0; k < tail; k++) {
+                int cell = queue[k];
+                if (isPlanningUnit.get(cell)) {
+                    pus.add(cell);
+                }
+                for (int partial : grid.getCellPartialIndices(cell)) {
+                    int complete = grid.getCompleteIndex(partial);
+                    pixels.set(complete);
+                    int row = complete / grid.getNbCols();
+                    int col = complete % grid.getNbCols();
+                    rowMin = Math.min(rowMin, row);
+                    rowMax = Math.max(rowMax, row);
+                    colMin = Math.min(colMin, col);
+                    colMax = Math.max(colMax, col);
+                }
+            }
+            if (!pus.isEmpty()) {
+                // Align the bounding box on the aggregation factor, so that the aggregates of the region are preserved
+                rowMin -= rowMin % factor;
+                colMin -= colMin % factor;
+                regions.add(new Region(this, regions.size(), pus.stream().mapToInt(Integer::intValue).sorted().toArray(),
+                        pixels, rowMin, colMin, rowMax - rowMin + 1, colMax - colMin + 1));
+            }
+        }
+    }
+
+    public PreprocessedLandscape getLandscape() {
+        return landscape;
+    }
+
+    /**
+     * @return The independent regions, i.e. the components of the grouped adjacency with at least one planning unit.
+     */
+    public List<Region> getRegions() {
+        return Collections.unmodifiableList(regions);
+    }
+
+    public int getNbRegions() {
+        return regions.size();
+    }
+
+    /**
+     * @return True if the landscape has more than one independent region.
+     */
+    public boolean isDecomposable() {
+        return regions.size() > 1;
+    }
+}
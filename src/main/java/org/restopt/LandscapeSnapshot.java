@@ -0,0 +1,256 @@
+package org.restopt;
+
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Versioned binary snapshot of a preprocessed landscape, so that the preprocessing of large landscapes (habitat
+ * components, grouped grid, planning units and neighborhood index) is only computed once. A snapshot is identified by
+ * a key, the SHA-256 hash of the input layers and of the preprocessing parameters. Snapshots are read and written in
+ * large buffered chunks, and the grid is rebuilt from the stored discarded pixels and habitat components in linear
+ * time.
+ * <p>
+ * Format (big endian): magic, version, key (32 bytes), width, height, accessible value, aggregation factor, number of
+ * non habitat non accessible pixels, then the following int arrays, each one prefixed by its length: discarded pixels,
+ * habitat component nodes (raster indices, component by component), habitat component sizes, available planning
+ * units, neighborhood index offsets and targets.
+ * <p>
+ * Example:
+ * <pre>
+ *     PreprocessedLandscape landscape = LandscapeSnapshot.load(Paths.get("cache"), data, 1, 1);
+ * </pre>
+ */
+public class LandscapeSnapshot {
+
+    public static final int MAGIC = 0x52534E50;
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".rsnap";
+
+    private static final int KEY_LENGTH = 32;
+    private static final int HEADER_LENGTH = 8 + KEY_LENGTH + 20;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Load a preprocessed landscape from a cache directory: the snapshot of the landscape is read if it exists and is
+     * valid, otherwise the landscape is preprocessed and its snapshot is written in the directory.
+     */
+    public static PreprocessedLandscape load(Path cacheDirectory, DataLoader data, int accessibleVal, int aggregationFactor) throws IOException {
+        byte[] key = computeKey(data, accessibleVal, aggregationFactor);
+        Path file = cacheDirectory.resolve(toHex(key) + EXTENSION);
+        if (Files.exists(file)) {
+            try {
+                return read(file, data, key, accessibleVal, aggregationFactor);
+            } catch (IOException e) {
+                System.out.println("Warning: invalid landscape snapshot " + file + " (" + e.getMessage() + "), rebuilding it");
+            }
+        }
+        PreprocessedLandscape landscape = new PreprocessedLandscape(data, accessibleVal, aggregationFactor);
+        Files.createDirectories(cacheDirectory);
+        write(landscape, key, file);
+        return landscape;
+    }
+
+    /**
+     * Write the snapshot of a preprocessed landscape.
+     */
+    public static void write(PreprocessedLandscape landscape, Path file) throws IOException {
+        byte[] key = computeKey(landscape.getData(), landscape.getAccessibleVal(), landscape.getAggregationFactor());
+        write(landscape, key, file);
+    }
+
+    /**
+     * Read the snapshot of a preprocessed landscape.
+     *
+     * @throws IOException If the snapshot is invalid or does not correspond to the input data and parameters.
+     */
+    public static PreprocessedLandscape read(Path file, DataLoader data, int accessibleVal, int aggregationFactor) throws IOException {
+        return read(file, data, computeKey(data, accessibleVal, aggregationFactor), accessibleVal, aggregationFactor);
+    }
+
+    /**
+     * @return The SHA-256 hash of the input layers, preprocessing parameters and snapshot version.
+     */
+    public static byte[] computeKey(DataLoader data, int accessibleVal, int aggregationFactor) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.putInt(VERSION).putInt(data.getWidth()).putInt(data.getHeight())
+                .putLong(Double.doubleToLongBits(data.getNoDataValue()))
+                .putInt(accessibleVal).putInt(aggregationFactor);
+        for (int i = 0; i < data.getNbPixels(); i++) {
+            if (buffer.remaining() < 20) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            buffer.putInt(data.getHabitat(i)).putInt(data.getAccessible(i))
+                    .putLong(Double.doubleToLongBits(data.getRestorable(i))).putInt(data.getCellArea(i));
+        }
+        buffer.flip();
+        digest.update(buffer);
+        return digest.digest();
+    }
+
+    private static void write(PreprocessedLandscape landscape, byte[] key, Path file) throws IOException {
+        RasterConnectivityFinder habGraph = landscape.getHabitatGraph();
+        int nbCC = habGraph.getNBCC();
+        int[] ccNodes = new int[habGraph.getNbNodes()];
+        int k = 0;
+        for (int cc = 0; cc < nbCC; cc++) {
+            for (int i : habGraph.getCC(cc)) {
+                ccNodes[k++] = i;
+            }
+        }
+        NeighborhoodIndex index = landscape.getNeighborhoodIndex();
+        DataLoader data = landscape.getData();
+        Path dir = file.toAbsolutePath().getParent();
+        // Written in a temporary file and moved, so that concurrent readers never see a partial snapshot
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                buffer.putInt(MAGIC).putInt(VERSION).put(key)
+                        .putInt(data.getWidth()).putInt(data.getHeight())
+                        .putInt(landscape.getAccessibleVal()).putInt(landscape.getAggregationFactor())
+                        .putInt(landscape.getNbNonHabitatNonAccessiblePixels());
+                for (int[] array : new int[][] {
+                        landscape.getGrid().getDiscardSet().toArray(),
+                        ccNodes,
+                        Arrays.copyOf(habGraph.getSizeCC(), nbCC),
+                        landscape.getAvailablePlanningUnits(),
+                        index.getOffsets(),
+                        index.getTargets()
+                }) {
+                    buffer = writeInt(channel, buffer, array.length);
+                    for (int v : array) {
+                        buffer = writeInt(channel, buffer, v);
+                    }
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static ByteBuffer writeInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        return buffer.putInt(value);
+    }
+
+    private static PreprocessedLandscape read(Path file, DataLoader data, byte[] key, int accessibleVal,
+                                              int aggregationFactor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.flip();
+            fill(channel, buffer, HEADER_LENGTH);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("not a landscape snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported snapshot version " + version);
+            }
+            byte[] fileKey = new byte[KEY_LENGTH];
+            buffer.get(fileKey);
+            if (!Arrays.equals(fileKey, key)) {
+                throw new IOException("the snapshot does not correspond to the input data and parameters");
+            }
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            int fileAccessibleVal = buffer.getInt();
+            int fileAggregationFactor = buffer.getInt();
+            int nonHabNonAcc = buffer.getInt();
+            if (width != data.getWidth() || height != data.getHeight() || fileAccessibleVal != accessibleVal
+                    || fileAggregationFactor != aggregationFactor) {
+                throw new IOException("the snapshot does not correspond to the input data and parameters");
+            }
+            int[] discarded = readArray(channel, buffer);
+            int[] ccNodes = readArray(channel, buffer);
+            int[] sizeCC = readArray(channel, buffer);
+            int[] availablePlanningUnits = readArray(channel, buffer);
+            int[] offsets = readArray(channel, buffer);
+            int[] targets = readArray(channel, buffer);
+            if (buffer.hasRemaining() || channel.position() != channel.size()) {
+                throw new IOException("corrupted snapshot");
+            }
+            RasterConnectivityFinder habGraph = new RasterConnectivityFinder(width * height, ccNodes, sizeCC);
+            return new PreprocessedLandscape(data, accessibleVal, aggregationFactor, discarded, habGraph,
+                    nonHabNonAcc, availablePlanningUnits, new NeighborhoodIndex(offsets, targets));
+        }
+    }
+
+    /**
+     * Read a length prefixed int array.
+     */
+    private static int[] readArray(FileChannel channel, ByteBuffer buffer) throws IOException {
+        fill(channel, buffer, 4);
+        int length = buffer.getInt();
+        if (length < 0 || 4L * length > buffer.remaining() + channel.size() - channel.position()) {
+            throw new IOException("corrupted snapshot");
+        }
+        int[] array = new int[length];
+        int filled = 0;
+        while (filled < length) {
+            fill(channel, buffer, 4);
+            int n = Math.min(length - filled, buffer.remaining() / 4);
+            buffer.asIntBuffer().get(array, filled, n);
+            buffer.position(buffer.position() + 4 * n);
+            filled += n;
+        }
+        return array;
+    }
+
+    /**
+     * Ensure that at least min bytes can be read from the buffer, reading the channel if needed.
+     */
+    private static void fill(FileChannel channel, ByteBuffer buffer, int min) throws IOException {
+        if (buffer.remaining() >= min) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < min) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("truncated snapshot");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
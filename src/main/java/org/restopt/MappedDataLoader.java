@@ -0,0 +1,242 @@
+package org.restopt;
+
+import org.restopt.exception.RestoptException;
+import org.restopt.layer.DoubleLayer;
+import org.restopt.layer.IntLayer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * DataLoader backed by a memory-mapped binary file, so that the input layers are paged in lazily by the operating
+ * system and can exceed the heap size. Layers are stored with narrow types.
+ * <p>
+ * File layout (little-endian, row-major, n = width * height):
+ * <pre>
+ *   offset      size   content
+ *   0           4      magic number 0x52535450 ("RSTP")
+ *   4           4      format version (1)
+ *   8           4      width (int)
+ *   12          4      height (int)
+ *   16          8      habitat no data value (double)
+ *   24          n      habitat (signed byte, the no data value and values that do not fit in a byte are stored
+ *                      as Byte.MIN_VALUE, which is read back as an out pixel)
+ *   24 + n      n      accessible (signed byte)
+ *   24 + 2n     2n     cell area (unsigned short)
+ *   24 + 4n     4n     restorable area (float)
+ * </pre>
+ * Use {@link #write(DataLoader, Path)} to convert any DataLoader into this format. The layers are read directly
+ * from the mapped file, the array getters (getHabitatData(), ...) materialize a full layer on each call and should
+ * be avoided for large inputs.
+ */
+public class MappedDataLoader extends DataLoader {
+
+    public static final int MAGIC = 0x52535450;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 24;
+
+    // Size of the mapped regions, a multiple of every element size (a single mapping is limited to 2GB)
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+
+    private final int nbPixels;
+    private final MappedByteBuffer[] chunks;
+
+    public MappedDataLoader(Path file) throws IOException, RestoptException {
+        super(0, 0, 0);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new RestoptException("Not a restopt binary input file: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new RestoptException("Unsupported restopt binary input version: " + version);
+            }
+            this.width = header.getInt();
+            this.height = header.getInt();
+            this.noDataHabitat = header.getDouble();
+            if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+                throw new RestoptException("Invalid dimensions in restopt binary input file: " + width + "x" + height);
+            }
+            this.nbPixels = width * height;
+            long n = nbPixels;
+            long size = HEADER_SIZE + 8 * n;
+            if (channel.size() < size) {
+                throw new RestoptException("Truncated restopt binary input file: " + file);
+            }
+            int nbChunks = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+            this.chunks = new MappedByteBuffer[nbChunks];
+            for (int c = 0; c < nbChunks; c++) {
+                long position = c * CHUNK_SIZE;
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position));
+                chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            setLayers(
+                    new MappedByteLayer(HEADER_SIZE),
+                    new MappedByteLayer(HEADER_SIZE + n),
+                    new MappedFloatLayer(HEADER_SIZE + 4 * n),
+                    new MappedShortLayer(HEADER_SIZE + 2 * n)
+            );
+        }
+    }
+
+    /**
+     * Write the layers of a DataLoader in the binary format described in the class documentation.
+     */
+    public static void write(DataLoader data, Path file) throws IOException, RestoptException {
+        int n = data.getNbPixels();
+        if (data.getWidth() * data.getHeight() != n) {
+            throw new RestoptException("Input width and height do not correspond to dataset size");
+        }
+        double noData = data.getNoDataValue();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(data.getWidth()).putInt(data.getHeight()).putDouble(noData);
+            for (int i = 0; i < n; i++) {
+                int h = data.getHabitat(i);
+                buffer.put(h == noData || h < Byte.MIN_VALUE || h > Byte.MAX_VALUE ? Byte.MIN_VALUE : (byte) h);
+                flushIfFull(channel, buffer, 1);
+            }
+            for (int i = 0; i < n; i++) {
+                int a = data.getAccessible(i);
+                if (a < Byte.MIN_VALUE || a > Byte.MAX_VALUE) {
+                    throw new RestoptException("Accessible value " + a + " does not fit in a byte");
+                }
+                buffer.put((byte) a);
+                flushIfFull(channel, buffer, 1);
+            }
+            for (int i = 0; i < n; i++) {
+                int area = data.getCellArea(i);
+                if (area < 0 || area > 0xFFFF) {
+                    throw new RestoptException("Cell area " + area + " does not fit in an unsigned short");
+                }
+                buffer.putShort((short) area);
+                flushIfFull(channel, buffer, 2);
+            }
+            for (int i = 0; i < n; i++) {
+                buffer.putFloat((float) data.getRestorable(i));
+                flushIfFull(channel, buffer, 4);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flushIfFull(FileChannel channel, ByteBuffer buffer, int nextSize) throws IOException {
+        if (buffer.remaining() < nextSize) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private byte getByte(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].get((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    // Elements never span two chunks since the chunk size and the layer offsets are multiples of the element size
+    private short getShort(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getShort((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    private float getFloat(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getFloat((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    /**
+     * Signed byte layer read from the mapped file.
+     */
+    private class MappedByteLayer implements IntLayer {
+
+        private final long offset;
+
+        MappedByteLayer(long offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public int size() {
+            return nbPixels;
+        }
+
+        @Override
+        public int get(int i) {
+            return getByte(offset + i);
+        }
+
+        @Override
+        public long getMemoryFootprint() {
+            return 0;
+        }
+    }
+
+    /**
+     * Unsigned short layer read from the mapped file.
+     */
+    private class MappedShortLayer implements IntLayer {
+
+        private final long offset;
+
+        MappedShortLayer(long offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public int size() {
+            return nbPixels;
+        }
+
+        @Override
+        public int get(int i) {
+            return getShort(offset + 2L * i) & 0xFFFF;
+        }
+
+        @Override
+        public long getMemoryFootprint() {
+            return 0;
+        }
+    }
+
+    /**
+     * Float layer read from the mapped file.
+     */
+    private class MappedFloatLayer implements DoubleLayer {
+
+        private final long offset;
+
+        MappedFloatLayer(long offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public int size() {
+            return nbPixels;
+        }
+
+        @Override
+        public double get(int i) {
+            return getFloat(offset + 4L * i);
+        }
+
+        @Override
+        public long getMemoryFootprint() {
+            return 0;
+        }
+    }
+}
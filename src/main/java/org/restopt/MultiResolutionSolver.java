@@ -0,0 +1,165 @@
+package org.restopt;
+
+import org.restopt.constraints.IRestoptConstraintFactory.PostedConstraint;
+import org.restopt.exception.RestoptException;
+import org.restopt.grid.neighborhood.regular.square.DiskStencil;
+import org.restopt.grid.regular.square.GroupedGrid;
+import org.restopt.objectives.AbstractRestoptObjective;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Coarse-to-fine solving of a restopt problem: the problem is first solved on a coarse aggregated grid, then solved
+ * again at successively finer aggregation factors. At each refinement level:
+ * <ul>
+ *     <li>The restoration area is restricted to the planning units that intersect the previous level's solution,
+ *     dilated by a halo (disk of radius halo, in pixels).</li>
+ *     <li>The search is warm started with the planning units covered by the previous level's solution, which gives
+ *     the optimization its initial bound.</li>
+ *     <li>If the restricted problem has no solution (e.g. because of a compactness constraint that is only satisfied
+ *     at the coarse resolution), the level is solved again without restriction.</li>
+ * </ul>
+ * The same constraints are posted at every level, and the objective is created by a factory for each level problem.
+ * <p>
+ * Example:
+ * <pre>
+ *     MultiResolutionSolver solver = new MultiResolutionSolver(data, 1, new int[] {8, 4, 1}, 2);
+ *     RestoptSolution sol = solver.solve(
+ *         p -&gt; p.postRestorableConstraint(90, 110, 0.7),
+ *         p -&gt; new EffectiveMeshSizeObjective(p, 60, false, true, 3)
+ *     );
+ * </pre>
+ */
+public class MultiResolutionSolver {
+
+    /**
+     * Creates the objective of a level problem.
+     */
+    public interface LevelObjective {
+        AbstractRestoptObjective create(RestoptProblem problem) throws RestoptException;
+    }
+
+    private final DataLoader data;
+    private final int accessibleVal;
+    private final int[] aggregationFactors;
+    private final int halo;
+    private final List<RestoptSolution> levelSolutions;
+
+    /**
+     * @param aggregationFactors The aggregation factors of the levels, strictly decreasing (e.g. {8, 4, 1}).
+     * @param halo               The radius (in pixels) around the previous level's solution in which planning units
+     *                           are allowed at the next level.
+     */
+    public MultiResolutionSolver(DataLoader data, int accessibleVal, int[] aggregationFactors, int halo) throws RestoptException {
+        if (aggregationFactors.length == 0) {
+            throw new RestoptException("At least one aggregation factor is needed");
+        }
+        for (int i = 0; i < aggregationFactors.length; i++) {
+            if (aggregationFactors[i] < 1) {
+                throw new RestoptException("Aggregation factors must be at least 1");
+            }
+            if (i > 0 && aggregationFactors[i] >= aggregationFactors[i - 1]) {
+                throw new RestoptException("Aggregation factors must be strictly decreasing");
+            }
+        }
+        if (halo < 0) {
+            throw new RestoptException("The halo must be positive");
+        }
+        this.data = data;
+        this.accessibleVal = accessibleVal;
+        this.aggregationFactors = aggregationFactors;
+        this.halo = halo;
+        this.levelSolutions = new ArrayList<>();
+    }
+
+    /**
+     * Solve the problem from the coarsest to the finest level.
+     *
+     * @param constraints The constraints posted at every level (may be null).
+     * @param objective   The objective of the level problems.
+     * @return The solution of the finest level, null if a level has no solution (or none within its time limit).
+     */
+    public RestoptSolution solve(PostedConstraint constraints, LevelObjective objective) throws RestoptException {
+        levelSolutions.clear();
+        RestoptSolution previous = null;
+        for (int factor : aggregationFactors) {
+            PreprocessedLandscape landscape = new PreprocessedLandscape(data, accessibleVal, factor);
+            RestoptSolution solution;
+            if (previous == null) {
+                solution = solveLevel(makeLevelProblem(landscape, constraints, null), objective, null);
+            } else {
+                int[] pixels = previous.getRestorationPlanningUnitsCompleteIndex();
+                RestoptProblem restricted = makeLevelProblem(landscape, constraints, dilate(pixels, landscape.getGrid()));
+                solution = solveLevel(restricted, objective, pixels);
+                // Only fall back when the restriction is proven infeasible, not when the level timed out
+                if (solution == null && "TERMINATED".equals(restricted.getSearchState())) {
+                    solution = solveLevel(makeLevelProblem(landscape, constraints, null), objective, pixels);
+                }
+            }
+            if (solution == null) {
+                return null;
+            }
+            levelSolutions.add(solution);
+            previous = solution;
+        }
+        return previous;
+    }
+
+    private RestoptProblem makeLevelProblem(PreprocessedLandscape landscape, PostedConstraint constraints,
+                                            int[] allowedPixels) throws RestoptException {
+        RestoptProblem problem = new RestoptProblem(landscape);
+        if (constraints != null) {
+            constraints.post(problem);
+        }
+        if (allowedPixels != null) {
+            problem.postAllowedAreaConstraint(allowedPixels);
+        }
+        return problem;
+    }
+
+    private RestoptSolution solveLevel(RestoptProblem problem, LevelObjective objective, int[] warmStartPixels) throws RestoptException {
+        AbstractRestoptObjective obj = objective.create(problem);
+        if (warmStartPixels != null) {
+            obj.setWarmStart(problem.getGrid().getPlanningUnitsFromCompleteIndices(warmStartPixels));
+        }
+        List<RestoptSolution> solutions = obj.findOptimalSolution(1, 0);
+        return solutions.isEmpty() ? null : solutions.get(0);
+    }
+
+    /**
+     * @return The pixels in the disk of radius halo of any of the given pixels (complete grid indices).
+     */
+    private int[] dilate(int[] pixels, GroupedGrid grid) {
+        int nbRows = grid.getNbRows();
+        int nbCols = grid.getNbCols();
+        BitSet area = new BitSet(nbRows * nbCols);
+        DiskStencil stencil = DiskStencil.of(halo);
+        int[] buffer = new int[stencil.size()];
+        for (int i : pixels) {
+            area.set(i);
+            int n = stencil.fill(i / nbCols, i % nbCols, nbRows, nbCols, buffer);
+            for (int j = 0; j < n; j++) {
+                area.set(buffer[j]);
+            }
+        }
+        return area.stream().toArray();
+    }
+
+    /**
+     * @return The solutions of the levels solved during the last call to solve, from the coarsest to the finest.
+     */
+    public List<RestoptSolution> getLevelSolutions() {
+        return Collections.unmodifiableList(levelSolutions);
+    }
+
+    public int[] getAggregationFactors() {
+        return aggregationFactors;
+    }
+
+    public int getHalo() {
+        return halo;
+    }
+}
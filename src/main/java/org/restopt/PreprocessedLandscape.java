@@ -0,0 +1,197 @@
+package org.restopt;
+
+import org.restopt.grid.neighborhood.INeighborhood;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+import org.restopt.grid.neighborhood.Neighborhoods;
+import org.restopt.grid.regular.square.GroupedGrid;
+import org.restopt.grid.regular.square.PartialRegularGroupedAggGrid;
+import org.restopt.grid.regular.square.PartialRegularGroupedGrid;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Preprocessed landscape of a restopt problem: classification of the input pixels, habitat connected components,
+ * grouped grid, available planning units and neighborhood adjacency. This preprocessing does not depend on the
+ * model, it is computed once and never modified afterwards, so that a single instance can be shared by any number of
+ * RestoptProblem instances (each one with its own Choco model), including concurrently.
+ */
+public class PreprocessedLandscape {
+
+    private final DataLoader data;
+    private final int accessibleVal;
+    private final int aggregationFactor;
+
+    private final RasterConnectivityFinder habGraph;
+    private final GroupedGrid grid;
+    private final INeighborhood neighborhood;
+    private final NeighborhoodIndex neighborhoodIndex;
+    private final int nonHabNonAcc;
+    private final int[] availablePlanningUnits;
+
+    /**
+     * Cache of the threshold neighborhood indices (by neighborhood width), lazily computed and shared by all the
+     * problems built on this landscape
+     */
+    private final Map<Integer, NeighborhoodIndex> thresholdNeighborhoodIndices = new ConcurrentHashMap<>();
+
+    public PreprocessedLandscape(DataLoader data, int accessibleVal) {
+        this(data, accessibleVal, 1);
+    }
+
+    public PreprocessedLandscape(DataLoader data, int accessibleVal, int aggregationFactor) {
+        this.data = data;
+        this.accessibleVal = accessibleVal;
+        this.aggregationFactor = aggregationFactor;
+
+        System.out.println("Height = " + data.getHeight());
+        System.out.println("Width = " + data.getWidth());
+
+        RasterClassification classification = new RasterClassification(data, accessibleVal);
+
+        habGraph = new RasterConnectivityFinder(
+                data.getHeight(), data.getWidth(),
+                i -> data.getHabitat(i) == 1,
+                Neighborhoods.FOUR_CONNECTED
+        );
+
+        nonHabNonAcc = classification.getNbNonHabitatNonAccessiblePixels();
+
+        this.grid = makeGrid(data, classification.getDiscardedPixels(), habGraph, aggregationFactor);
+
+        int nbGroups = grid.getNbGroups();
+
+        if (grid instanceof PartialRegularGroupedGrid) {
+            PartialRegularGroupedGrid g = (PartialRegularGroupedGrid) grid;
+            int[] planningUnitPixels = classification.getPlanningUnitPixels();
+            availablePlanningUnits = new int[planningUnitPixels.length];
+            for (int i = 0; i < planningUnitPixels.length; i++) {
+                availablePlanningUnits[i] = g.getGroupIndexFromCompleteIndex(planningUnitPixels[i]);
+            }
+        } else {
+            PartialRegularGroupedAggGrid g = (PartialRegularGroupedAggGrid) grid;
+            availablePlanningUnits = IntStream.range(nbGroups, g.getNbCells()).toArray();
+        }
+
+        System.out.println("Current landscape state loaded");
+        System.out.println("    Habitat cells = " + classification.getNbHabitatPixels() + " ");
+        System.out.println("    Non habitat cells = " + classification.getNbNonHabitatPixels() + " ");
+        System.out.println("    Accessible non habitat cells = " + availablePlanningUnits.length + " ");
+        System.out.println("    Out cells = " + classification.getNbOutPixels());
+
+        this.neighborhood = getNeighborhood(grid);
+        this.neighborhoodIndex = NeighborhoodIndex.build(neighborhood, grid);
+    }
+
+    /**
+     * Restore a preprocessed landscape from its preprocessing results (see LandscapeSnapshot): the grid is rebuilt
+     * from the discarded pixels and the habitat components, the neighborhood index is not recomputed.
+     */
+    PreprocessedLandscape(DataLoader data, int accessibleVal, int aggregationFactor, int[] discardedPixels,
+                          RasterConnectivityFinder habGraph, int nonHabNonAcc, int[] availablePlanningUnits,
+                          NeighborhoodIndex neighborhoodIndex) {
+        this.data = data;
+        this.accessibleVal = accessibleVal;
+        this.aggregationFactor = aggregationFactor;
+        this.habGraph = habGraph;
+        this.nonHabNonAcc = nonHabNonAcc;
+        this.grid = makeGrid(data, discardedPixels, habGraph, aggregationFactor);
+        this.availablePlanningUnits = availablePlanningUnits;
+        this.neighborhood = getNeighborhood(grid);
+        this.neighborhoodIndex = neighborhoodIndex;
+    }
+
+    private static GroupedGrid makeGrid(DataLoader data, int[] discardedPixels, RasterConnectivityFinder habGraph,
+                                        int aggregationFactor) {
+        if (aggregationFactor > 1) {
+            return new PartialRegularGroupedAggGrid(
+                    data.getHeight(), data.getWidth(),
+                    discardedPixels,
+                    habGraph, aggregationFactor
+            );
+        } else {
+            return new PartialRegularGroupedGrid(
+                    data.getHeight(), data.getWidth(),
+                    discardedPixels,
+                    habGraph
+            );
+        }
+    }
+
+    private static INeighborhood getNeighborhood(GroupedGrid grid) {
+        if (grid instanceof PartialRegularGroupedGrid) {
+            return Neighborhoods.PARTIAL_GROUPED_FOUR_CONNECTED;
+        } else {
+            return Neighborhoods.PARTIAL_GROUPED_AGG_FOUR_CONNECTED;
+        }
+    }
+
+    /**
+     * @return The data loader object that was used to instantiate this landscape.
+     */
+    public DataLoader getData() {
+        return data;
+    }
+
+    public int getAccessibleVal() {
+        return accessibleVal;
+    }
+
+    public int getAggregationFactor() {
+        return aggregationFactor;
+    }
+
+    /**
+     * @return The existing habitat (without any restoration) as a graph.
+     */
+    public RasterConnectivityFinder getHabitatGraph() {
+        return habGraph;
+    }
+
+    /**
+     * @return The grouped grid of the landscape.
+     */
+    public GroupedGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * @return The neighborhood relation of the grid.
+     */
+    public INeighborhood getNeighborhood() {
+        return neighborhood;
+    }
+
+    /**
+     * @return The index (CSR adjacency) of the neighborhood relation of the grid.
+     */
+    public NeighborhoodIndex getNeighborhoodIndex() {
+        return neighborhoodIndex;
+    }
+
+    /**
+     * @return The number of non habitat pixels that are not accessible.
+     */
+    public int getNbNonHabitatNonAccessiblePixels() {
+        return nonHabNonAcc;
+    }
+
+    /**
+     * @return The grid indices of the available planning units (must not be modified).
+     */
+    public int[] getAvailablePlanningUnits() {
+        return availablePlanningUnits;
+    }
+
+    /**
+     * @param k The width of the neighborhood.
+     * @return The index of the k-wide four-connected neighborhood of the grid, computed once and cached.
+     */
+    public NeighborhoodIndex getThresholdNeighborhoodIndex(int k) {
+        return thresholdNeighborhoodIndices.computeIfAbsent(
+                k,
+                key -> NeighborhoodIndex.build(Neighborhoods.PARTIAL_GROUPED_K_WIDE_FOUR_CONNECTED(key), grid)
+        );
+    }
+}
@@ -0,0 +1,163 @@
+package org.restopt;
+
+import java.util.stream.IntStream;
+
+/**
+ * Classification of the pixels of the input rasters, computed in a single sweep over the habitat and accessible
+ * data (one counting pass and one filling pass per block of rows, so that the index arrays are allocated with their
+ * exact size). Blocks of rows can be processed in parallel, the resulting arrays are always sorted.
+ * <p>
+ * Classes (not exclusive):
+ * <ul>
+ *     <li>Out pixels: habitat value <= -1 or equal to the no data value.</li>
+ *     <li>Habitat pixels: habitat value equal to 1.</li>
+ *     <li>Non habitat pixels: habitat value equal to 0.</li>
+ *     <li>Non habitat non accessible pixels: non habitat pixels whose accessible value is not accessibleVal.</li>
+ *     <li>Planning unit pixels: non habitat pixels whose accessible value is accessibleVal.</li>
+ *     <li>Discarded pixels: out or non habitat non accessible pixels.</li>
+ * </ul>
+ */
+public class RasterClassification {
+
+    /**
+     * Minimum number of pixels for the classification to be parallelized by default.
+     */
+    public static final int MIN_PARALLEL_NB_PIXELS = 1 << 20;
+
+    private static final int OUT = 0;
+    private static final int HABITAT = 1;
+    private static final int NON_HABITAT = 2;
+    private static final int NON_HABITAT_NON_ACCESSIBLE = 3;
+    private static final int PLANNING_UNIT = 4;
+    private static final int DISCARDED = 5;
+    private static final int NB_CLASSES = 6;
+
+    private final int[] discardedPixels;
+    private final int[] planningUnitPixels;
+    private final int[] counts;
+
+    public RasterClassification(DataLoader data, int accessibleVal) {
+        this(data, accessibleVal, data.getNbPixels() >= MIN_PARALLEL_NB_PIXELS);
+    }
+
+    /**
+     * @param data          The input data.
+     * @param accessibleVal The accessible value.
+     * @param parallel      If true, blocks of rows are classified in parallel.
+     */
+    public RasterClassification(DataLoader data, int accessibleVal, boolean parallel) {
+        double noData = data.getNoDataValue();
+        int n = data.getNbPixels();
+        // Blocks of rows (the whole raster is a single block if its dimensions are unknown)
+        int width = data.getWidth();
+        int height = data.getHeight();
+        int nbBlocks = 1;
+        int blockSize = n;
+        if (parallel && width > 0 && height > 0 && width * height == n) {
+            int nbRowsPerBlock = Math.max(1, height / (4 * Runtime.getRuntime().availableProcessors()));
+            blockSize = nbRowsPerBlock * width;
+            nbBlocks = (height + nbRowsPerBlock - 1) / nbRowsPerBlock;
+        }
+        final int size = blockSize;
+        // Counting pass
+        int[][] blockCounts = new int[nbBlocks][NB_CLASSES];
+        IntStream blocks = IntStream.range(0, nbBlocks);
+        if (parallel) {
+            blocks = blocks.parallel();
+        }
+        blocks.forEach(b -> {
+            int[] c = blockCounts[b];
+            for (int i = b * size; i < Math.min(n, (b + 1) * size); i++) {
+                int h = data.getHabitat(i);
+                boolean out = h <= -1 || h == noData;
+                if (out) {
+                    c[OUT]++;
+                }
+                if (h == 1) {
+                    c[HABITAT]++;
+                } else if (h == 0) {
+                    c[NON_HABITAT]++;
+                    if (data.getAccessible(i) == accessibleVal) {
+                        c[PLANNING_UNIT]++;
+                    } else {
+                        c[NON_HABITAT_NON_ACCESSIBLE]++;
+                        out = true;
+                    }
+                }
+                if (out) {
+                    c[DISCARDED]++;
+                }
+            }
+        });
+        this.counts = new int[NB_CLASSES];
+        int[] discardedOffsets = new int[nbBlocks];
+        int[] planningUnitOffsets = new int[nbBlocks];
+        for (int b = 0; b < nbBlocks; b++) {
+            discardedOffsets[b] = counts[DISCARDED];
+            planningUnitOffsets[b] = counts[PLANNING_UNIT];
+            for (int k = 0; k < NB_CLASSES; k++) {
+                counts[k] += blockCounts[b][k];
+            }
+        }
+        // Filling pass
+        this.discardedPixels = new int[counts[DISCARDED]];
+        this.planningUnitPixels = new int[counts[PLANNING_UNIT]];
+        blocks = IntStream.range(0, nbBlocks);
+        if (parallel) {
+            blocks = blocks.parallel();
+        }
+        blocks.forEach(b -> {
+            int d = discardedOffsets[b];
+            int p = planningUnitOffsets[b];
+            for (int i = b * size; i < Math.min(n, (b + 1) * size); i++) {
+                int h = data.getHabitat(i);
+                if (h == 0 && data.getAccessible(i) == accessibleVal) {
+                    planningUnitPixels[p++] = i;
+                    if (h == noData) {
+                        discardedPixels[d++] = i;
+                    }
+                } else if (h <= -1 || h == noData || h == 0) {
+                    discardedPixels[d++] = i;
+                }
+            }
+        });
+    }
+
+    /**
+     * @return The (sorted) indices of the out and non habitat non accessible pixels.
+     */
+    public int[] getDiscardedPixels() {
+        return discardedPixels;
+    }
+
+    /**
+     * @return The (sorted) indices of the accessible non habitat pixels.
+     */
+    public int[] getPlanningUnitPixels() {
+        return planningUnitPixels;
+    }
+
+    public int getNbOutPixels() {
+        return counts[OUT];
+    }
+
+    public int getNbHabitatPixels() {
+        return counts[HABITAT];
+    }
+
+    public int getNbNonHabitatPixels() {
+        return counts[NON_HABITAT];
+    }
+
+    public int getNbNonHabitatNonAccessiblePixels() {
+        return counts[NON_HABITAT_NON_ACCESSIBLE];
+    }
+
+    public int getNbPlanningUnitPixels() {
+        return counts[PLANNING_UNIT];
+    }
+
+    public int getNbDiscardedPixels() {
+        return counts[DISCARDED];
+    }
+}
@@ -25,9 +25,8 @@ package org.restopt;
 import org.restopt.grid.neighborhood.INeighborhood;
 import org.restopt.grid.regular.square.RegularSquareGrid;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.IntStream;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
 
 /**
  * Class containing algorithms to find all connected components by performing one dfs
@@ -45,43 +44,60 @@ public class RasterConnectivityFinder {
     //***********************************************************************************
 
     private int n;
-    private int[] values;
     private int[][] neighs;
     private long npro;
     private int[] CCFirstNode, CCNextNode, nodeCC, parent, fifo, sizeCC;
     private int nbCC, sizeMinCC, sizeMaxCC;
-    Map<Integer, Integer> graphIdxToRasterIdx;
-    Map<Integer, Integer> rasterIdxToGraphIdx;
-    private int classValue;
+    /**
+     * Dense mappings between graph and raster indices (rasterIdxToGraphIdx[i] == -1 if pixel i is not in the graph).
+     */
+    int[] graphIdxToRasterIdx;
+    int[] rasterIdxToGraphIdx;
 
     /**
      * Create an object that can compute Connected Components (CC) of a graph g
      * Can also quickly tell whether g is biconnected or not (only for undirected graph)
      */
     public RasterConnectivityFinder(int nbRows, int nbCols, int[] values, int classValue, INeighborhood neighborhood) {
+        this(nbRows, nbCols, i -> values[i] == classValue, neighborhood);
+    }
+
+    /**
+     * @param inGraph Predicate over raster indices, true if the pixel is in the graph.
+     */
+    public RasterConnectivityFinder(int nbRows, int nbCols, IntPredicate inGraph, INeighborhood neighborhood) {
         this.n = 0;
-        this.values = values;
-        this.classValue = classValue;
+        int nbPixels = nbRows * nbCols;
         RegularSquareGrid grid = new RegularSquareGrid(nbRows, nbCols);
-        int currentIdx = 0;
-        graphIdxToRasterIdx = new HashMap<>();
-        rasterIdxToGraphIdx = new HashMap<>();
-        for (int i = 0; i < values.length; i++) {
-            if (values[i] == classValue) {
-                n++;
-                rasterIdxToGraphIdx.put(i, currentIdx);
-                graphIdxToRasterIdx.put(currentIdx, i);
-                currentIdx++;
+        rasterIdxToGraphIdx = new int[nbPixels];
+        for (int i = 0; i < nbPixels; i++) {
+            if (inGraph.test(i)) {
+                rasterIdxToGraphIdx[i] = n++;
+            } else {
+                rasterIdxToGraphIdx[i] = -1;
             }
         }
+        graphIdxToRasterIdx = new int[n];
         this.neighs = new int[n][];
-        currentIdx = 0;
-        for (int i = 0; i < values.length; i++) {
-            if (values[i] == classValue) {
-                neighs[currentIdx] = IntStream.of(neighborhood.getNeighbors(grid, i))
-                        .filter(v -> values[v] == classValue)
-                        .map(v -> rasterIdxToGraphIdx.get(v)).toArray();
-                currentIdx++;
+        for (int i = 0; i < nbPixels; i++) {
+            int currentIdx = rasterIdxToGraphIdx[i];
+            if (currentIdx >= 0) {
+                graphIdxToRasterIdx[currentIdx] = i;
+                int[] rasterNeighs = neighborhood.getNeighbors(grid, i);
+                int nbNeighs = 0;
+                for (int v : rasterNeighs) {
+                    if (rasterIdxToGraphIdx[v] >= 0) {
+                        nbNeighs++;
+                    }
+                }
+                int[] graphNeighs = new int[nbNeighs];
+                nbNeighs = 0;
+                for (int v : rasterNeighs) {
+                    if (rasterIdxToGraphIdx[v] >= 0) {
+                        graphNeighs[nbNeighs++] = rasterIdxToGraphIdx[v];
+                    }
+                }
+                neighs[currentIdx] = graphNeighs;
             }
         }
         parent = new int[n];
@@ -89,12 +105,69 @@ public class RasterConnectivityFinder {
         findAllCC();
     }
 
+    /**
+     * Restore the connected components of a graph (e.g. from a snapshot), without its adjacency: findAllCC() cannot
+     * be called on the restored object.
+     *
+     * @param nbPixels The number of pixels of the raster.
+     * @param ccNodes  The raster indices of the nodes, component by component, each component in getCC() order.
+     * @param sizeCC   The size of each component.
+     */
+    public RasterConnectivityFinder(int nbPixels, int[] ccNodes, int[] sizeCC) {
+        this.n = ccNodes.length;
+        this.nbCC = sizeCC.length;
+        this.rasterIdxToGraphIdx = new int[nbPixels];
+        Arrays.fill(rasterIdxToGraphIdx, -1);
+        // Graph indices follow the raster order, as in the main constructor
+        this.graphIdxToRasterIdx = Arrays.copyOf(ccNodes, n);
+        Arrays.sort(graphIdxToRasterIdx);
+        for (int i = 0; i < n; i++) {
+            rasterIdxToGraphIdx[graphIdxToRasterIdx[i]] = i;
+        }
+        this.CCFirstNode = new int[n];
+        this.CCNextNode = new int[n];
+        this.nodeCC = new int[n];
+        this.sizeCC = new int[n];
+        Arrays.fill(CCFirstNode, -1);
+        Arrays.fill(this.sizeCC, -1);
+        int start = 0;
+        for (int cc = 0; cc < nbCC; cc++) {
+            // Nodes are prepended to their component, add them in reverse order to preserve getCC()
+            for (int k = start + sizeCC[cc] - 1; k >= start; k--) {
+                add(rasterIdxToGraphIdx[ccNodes[k]], cc);
+            }
+            start += sizeCC[cc];
+            this.sizeCC[cc] = sizeCC[cc];
+            if (sizeMinCC == 0 || sizeMinCC > sizeCC[cc]) {
+                sizeMinCC = sizeCC[cc];
+            }
+            if (sizeMaxCC < sizeCC[cc]) {
+                sizeMaxCC = sizeCC[cc];
+            }
+            npro += Long.valueOf(sizeCC[cc]) * Long.valueOf(sizeCC[cc]);
+        }
+    }
+
     public int getNbNodes() {
         return n;
     }
 
+    /**
+     * @return The graph index of a raster pixel, -1 if the pixel is not in the graph.
+     */
+    public int getGraphIdx(int rasterIdx) {
+        return rasterIdxToGraphIdx[rasterIdx];
+    }
+
+    /**
+     * @return The raster index of a graph node.
+     */
+    public int getRasterIdx(int graphIdx) {
+        return graphIdxToRasterIdx[graphIdx];
+    }
+
     public int[] getNodesRasterIdx() {
-        return IntStream.range(0, getNbNodes()).map(i -> graphIdxToRasterIdx.get(i)).toArray();
+        return Arrays.copyOf(graphIdxToRasterIdx, n);
     }
 
     /**
@@ -216,7 +289,7 @@ public class RasterConnectivityFinder {
         int j = 0;
         int i = getCCFirstNode()[ccIndex];
         while (i != -1) {
-            cc[j++] = graphIdxToRasterIdx.get(i);
+            cc[j++] = graphIdxToRasterIdx[i];
             i = getCCNextNode()[i];
         }
         return cc;
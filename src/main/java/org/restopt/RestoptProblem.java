@@ -10,15 +10,18 @@ import org.chocosolver.util.objects.setDataStructures.SetType;
 import org.chocosolver.util.tools.ArrayUtils;
 import org.restopt.constraints.EffectiveMeshSizeConstraint;
 import org.restopt.constraints.IRestoptConstraintFactory;
+import org.restopt.constraints.IRestoptConstraintFactory.PostedConstraint;
 import org.restopt.constraints.IntegralIndexOfConnectivityConstraint;
 import org.restopt.constraints.RestorableAreaConstraint;
 import org.restopt.exception.RestoptException;
 import org.restopt.grid.neighborhood.INeighborhood;
-import org.restopt.grid.neighborhood.Neighborhoods;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
 import org.restopt.grid.regular.square.*;
 import org.restopt.objectives.IRestoptObjectiveFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
@@ -33,6 +36,7 @@ public class RestoptProblem implements IRestoptObjectiveFactory, IRestoptConstra
 
     public GroupedGrid grid;
     private INeighborhood neighborhood;
+    private NeighborhoodIndex neighborhoodIndex;
 
     public int accessibleVal;
 
@@ -58,6 +62,16 @@ public class RestoptProblem implements IRestoptObjectiveFactory, IRestoptConstra
      */
     private Map<String, IntVar> additionalVariables;
 
+    /**
+     * Model independent preprocessing, possibly shared with other problems
+     */
+    private PreprocessedLandscape landscape;
+
+    /**
+     * Constraints posted through IRestoptConstraintFactory, replayed on the copies of this problem
+     */
+    private final List<PostedConstraint> postedConstraints = new ArrayList<>();
+
     public RestoptProblem() {
     }
 
@@ -66,92 +80,52 @@ public class RestoptProblem implements IRestoptObjectiveFactory, IRestoptConstra
     }
 
     public RestoptProblem(DataLoader data, int accessibleVal, int aggregationFactor) {
-        this.data = data;
-        this.accessibleVal = accessibleVal;
-        this.additionalVariables = new HashMap<>();
-        this.aggregationFactor = aggregationFactor;
-
-        // ------------------ //
-        // PREPARE INPUT DATA //
-        // ------------------ //
-
-        System.out.println("Height = " + data.getHeight());
-        System.out.println("Width = " + data.getWidth());
-
-        int[] outPixels = IntStream.range(0, data.getHabitatData().length)
-                .filter(i -> data.getHabitatData()[i] <= -1 || data.getHabitatData()[i] == data.noDataHabitat)
-                .toArray();
-
-        int[] nonHabitatNonAccessiblePixels = IntStream.range(0, data.getHabitatData().length)
-                .filter(i -> data.getHabitatData()[i] == 0 && data.getAccessibleData()[i] != accessibleVal)
-                .toArray();
-
-        int[] habitatPixelsComp = IntStream.range(0, data.getHabitatData().length)
-                .filter(i -> data.getHabitatData()[i] == 1)
-                .toArray();
-
-        habGraph = new RasterConnectivityFinder(
-                data.getHeight(), data.getWidth(),
-                data.getHabitatData(), 1,
-                Neighborhoods.FOUR_CONNECTED
-        );
+        this(new PreprocessedLandscape(data, accessibleVal, aggregationFactor));
+    }
 
-        nonHabNonAcc = nonHabitatNonAccessiblePixels.length;
+    /**
+     * Create a problem from a preprocessed landscape. The landscape is only read, so that many problems (each one
+     * with its own model) can be created cheaply from a single landscape, and solved concurrently.
+     *
+     * @param landscape The preprocessed landscape.
+     */
+    public RestoptProblem(PreprocessedLandscape landscape) {
+        this.landscape = landscape;
+        this.data = landscape.getData();
+        this.accessibleVal = landscape.getAccessibleVal();
+        this.additionalVariables = new HashMap<>();
+        this.aggregationFactor = landscape.getAggregationFactor();
+        this.habGraph = landscape.getHabitatGraph();
+        this.nonHabNonAcc = landscape.getNbNonHabitatNonAccessiblePixels();
+        this.grid = landscape.getGrid();
+        this.availablePlanningUnits = landscape.getAvailablePlanningUnits();
+        this.neighborhood = landscape.getNeighborhood();
+        this.neighborhoodIndex = landscape.getNeighborhoodIndex();
+        buildModel();
+    }
 
-        if (this.aggregationFactor > 1) {
-            this.grid = new PartialRegularGroupedAggGrid(
-                    data.getHeight(), data.getWidth(),
-                    ArrayUtils.concat(outPixels, nonHabitatNonAccessiblePixels),
-                    habGraph, aggregationFactor
-            );
-        } else {
-            this.grid = new PartialRegularGroupedGrid(
-                    data.getHeight(), data.getWidth(),
-                    ArrayUtils.concat(outPixels, nonHabitatNonAccessiblePixels),
-                    habGraph
-            );
+    /**
+     * Create a copy of a problem: the preprocessed landscape is shared with the source problem, a new model is
+     * created and the constraints posted on the source problem through IRestoptConstraintFactory are posted again.
+     * Copies can be solved concurrently (e.g. in a portfolio).
+     *
+     * @param problem The problem to copy.
+     */
+    public RestoptProblem(RestoptProblem problem) throws RestoptException {
+        this(problem.landscape);
+        for (PostedConstraint c : problem.postedConstraints) {
+            c.post(this);
         }
+    }
 
-        int[] nonHabitatPixels = IntStream.range(0, data.getHabitatData().length)
-                .filter(i -> data.getHabitatData()[i] == 0)
-                .toArray();
-
+    private void buildModel() {
         int nbGroups = grid.getNbGroups();
-
         int[] habitatPixels = IntStream.range(0, nbGroups).toArray();
 
-        if (grid instanceof PartialRegularGroupedGrid) {
-            PartialRegularGroupedGrid g = (PartialRegularGroupedGrid) grid;
-            availablePlanningUnits = IntStream.range(0, data.getAccessibleData().length)
-                    .filter(i -> data.getAccessibleData()[i] == accessibleVal && data.getHabitatData()[i] == 0)
-                    .map(i -> g.getGroupIndexFromCompleteIndex(i))
-                    .toArray();
-        } else {
-            PartialRegularGroupedAggGrid g = (PartialRegularGroupedAggGrid) grid;
-            availablePlanningUnits = IntStream.range(nbGroups, g.getNbCells()).toArray();
-        }
-
-
-        System.out.println("Current landscape state loaded");
-        System.out.println("    Habitat cells = " + habitatPixelsComp.length + " ");
-        System.out.println("    Non habitat cells = " + nonHabitatPixels.length + " ");
-        System.out.println("    Accessible non habitat cells = " + availablePlanningUnits.length + " ");
-        System.out.println("    Out cells = " + outPixels.length);
-
-        // ------------------ //
-        // INITIALIZE PROBLEM //
-        // ------------------ //
-
-        if (grid instanceof PartialRegularGroupedGrid) {
-            this.neighborhood = Neighborhoods.PARTIAL_GROUPED_FOUR_CONNECTED;
-        } else {
-            this.neighborhood = Neighborhoods.PARTIAL_GROUPED_AGG_FOUR_CONNECTED;
-        }
-
         model = new Model();
 
-        UndirectedGraph hab_LB = neighborhood.getPartialGraph(grid, model, habitatPixels, SetType.BIPARTITESET, SetType.BIPARTITESET);
-        UndirectedGraph hab_UB = neighborhood.getPartialGraph(grid, model, ArrayUtils.concat(habitatPixels, availablePlanningUnits), SetType.BIPARTITESET, SetType.BIPARTITESET);
+        UndirectedGraph hab_LB = neighborhoodIndex.getPartialGraph(model, habitatPixels, SetType.BIPARTITESET, SetType.BIPARTITESET);
+        UndirectedGraph hab_UB = neighborhoodIndex.getPartialGraph(model, ArrayUtils.concat(habitatPixels, availablePlanningUnits), SetType.BIPARTITESET, SetType.BIPARTITESET);
 
         habitatGraphVar = model.nodeInducedGraphVar(
                 "habitatGraph",
@@ -250,7 +224,7 @@ public class RestoptProblem implements IRestoptObjectiveFactory, IRestoptConstra
     public int getRestorableArea(int pu) {
         if (grid instanceof PartialRegularGroupedGrid) {
             PartialRegularGroupedGrid g = (PartialRegularGroupedGrid) grid;
-            return (int) Math.round(data.getRestorableData()[g.getUngroupedCompleteIndex(pu)]);
+            return (int) Math.round(data.getRestorable(g.getUngroupedCompleteIndex(pu)));
         } else {
             PartialRegularGroupedAggGrid g = (PartialRegularGroupedAggGrid) grid;
             return g.getAggregatePartialIndices(pu).length;
@@ -260,10 +234,10 @@ public class RestoptProblem implements IRestoptObjectiveFactory, IRestoptConstra
     public int getCellArea(int pu) {
         if (grid instanceof PartialRegularGroupedGrid) {
             PartialRegularGroupedGrid g = (PartialRegularGroupedGrid) grid;
-            return data.getCellAreaData()[g.getUngroupedCompleteIndex(pu)];
+            return data.getCellArea(g.getUngroupedCompleteIndex(pu));
         } else {
             PartialRegularGroupedAggGrid g = (PartialRegularGroupedAggGrid) grid;
-            return IntStream.of(g.getAggregateCompleteIndices(pu)).map(i -> data.getCellAreaData()[i]).sum();
+            return IntStream.of(g.getAggregateCompleteIndices(pu)).map(data::getCellArea).sum();
         }
     }
 
@@ -281,6 +255,28 @@ public class RestoptProblem implements IRestoptObjectiveFactory, IRestoptConstra
         return neighborhood;
     }
 
+    /**
+     * @return The preprocessed landscape of the problem.
+     */
+    public PreprocessedLandscape getLandscape() {
+        return landscape;
+    }
+
+    /**
+     * @return The index of the neighborhood relation used in the problem, computed once when the landscape is built.
+     */
+    public NeighborhoodIndex getNeighborhoodIndex() {
+        return neighborhoodIndex;
+    }
+
+    /**
+     * @param k The width of the neighborhood.
+     * @return The index of the k-wide four-connected neighborhood of the grid, computed once and cached.
+     */
+    public NeighborhoodIndex getThresholdNeighborhoodIndex(int k) {
+        return landscape.getThresholdNeighborhoodIndex(k);
+    }
+
     /**
      * @return True if a restorable area constraint was associated with this problem.
      */
@@ -373,6 +369,13 @@ public class RestoptProblem implements IRestoptObjectiveFactory, IRestoptConstra
         }
     }
 
+    /**
+     * Record a constraint posting call, to be replayed on the copies of this problem.
+     */
+    public void recordConstraint(PostedConstraint constraint) {
+        postedConstraints.add(constraint);
+    }
+
     @Override
     public RestoptProblem self() {
         return this;
@@ -2,15 +2,14 @@ package org.restopt;
 
 import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.variables.IntVar;
-import org.chocosolver.util.objects.graphs.GraphFactory;
 import org.chocosolver.util.objects.graphs.UndirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.SetType;
 import org.chocosolver.util.tools.ArrayUtils;
-import org.restopt.choco.ConnectivityFinderSpatialGraph;
 import org.restopt.choco.LandscapeIndicesUtils;
 import org.restopt.constraints.EffectiveMeshSizeConstraint;
 import org.restopt.constraints.IntegralIndexOfConnectivityConstraint;
 import org.restopt.exception.RestoptException;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
 import org.restopt.objectives.AbstractRestoptObjective;
 import org.restopt.objectives.EffectiveMeshSizeObjective;
 import org.restopt.objectives.IntegralIndexOfConnectivityObjective;
@@ -42,14 +41,27 @@ public class RestoptSolution {
 
     private final AbstractRestoptObjective objective;
     private final Solution solution;
-    private final Map<String, String> characteristics;
+    private Map<String, String> characteristics;
     private Map<String, String> messages;
 
+    // Solving state when the solution was created
+    private final long solvingTime;
+    private final boolean provenOptimal;
+    private final String searchState;
+
+    // Lazily computed (and cached) metrics
+    private int[] restorationPlanningUnits;
+    private Integer nbComponents;
+    private Integer nbPatches;
+    private Double diameter;
+
     public RestoptSolution(RestoptProblem problem, AbstractRestoptObjective objective, Solution solution) {
         this.problem = problem;
         this.objective = objective;
         this.solution = solution;
-        this.characteristics = makeCharacteristics();
+        this.solvingTime = objective.getTotalRuntime();
+        this.provenOptimal = objective.isProvenOptimal();
+        this.searchState = String.valueOf(problem.getSearchState());
         initMessages();
     }
 
@@ -79,28 +91,31 @@ public class RestoptSolution {
         Map<String, String> solCharacteristics = new HashMap<>();
         solCharacteristics.put(KEY_MIN_RESTORE, String.valueOf(getMinRestoreArea()));
         solCharacteristics.put(KEY_TOTAL_RESTORABLE, String.valueOf(getTotalRestorableArea()));
-        solCharacteristics.put(KEY_NB_PUS, String.valueOf(getRestorationPlanningUnits().length));
+        solCharacteristics.put(KEY_NB_PUS, String.valueOf(getNbPlanningUnits()));
         solCharacteristics.put(KEY_NB_COMPONENTS, String.valueOf(getNbComponents()));
         solCharacteristics.put(KEY_NB_PATCHES, String.valueOf(getNbPatches()));
         solCharacteristics.put(KEY_DIAMETER, String.valueOf(getDiameter()));
-        solCharacteristics.put(KEY_SOLVING_TIME, String.valueOf(1.0 * objective.getTotalRuntime() / 1000));
-        solCharacteristics.put(KEY_SEARCH_STATE, String.valueOf(problem.getSearchState()));
-        solCharacteristics.put(KEY_OPTIMALITY_PROVEN, String.valueOf(objective.isProvenOptimal()));
+        solCharacteristics.put(KEY_SOLVING_TIME, String.valueOf(getSolvingTime()));
+        solCharacteristics.put(KEY_SEARCH_STATE, searchState);
+        solCharacteristics.put(KEY_OPTIMALITY_PROVEN, String.valueOf(provenOptimal));
         solCharacteristics.putAll(objective.appendCharacteristics(solution));
         if (problem.hasMeshConstraint()) {
-            IntVar mesh = problem.getMeshConstraint().getMesh();
-            int precision = problem.getMeshConstraint().getPrecision();
-            solCharacteristics.put(EffectiveMeshSizeConstraint.KEY_MESH, String.valueOf((1.0 * solution.getIntVal(mesh)) / Math.pow(10, precision)));
+            solCharacteristics.put(EffectiveMeshSizeConstraint.KEY_MESH, String.valueOf(getMeshValue()));
         }
         if (problem.hasIICConstraint()) {
-            IntVar iic = problem.getIICConstraint().getIic();
-            int precision = problem.getIICConstraint().getPrecision();
-            solCharacteristics.put(IntegralIndexOfConnectivityConstraint.KEY_IIC, String.valueOf((1.0 * solution.getIntVal(iic)) / Math.pow(10, precision)));
+            solCharacteristics.put(IntegralIndexOfConnectivityConstraint.KEY_IIC, String.valueOf(getIICValue()));
         }
         return solCharacteristics;
     }
 
+    /**
+     * @return The characteristics of the solution as strings, computed at the first call. Prefer the typed getters
+     * when only some characteristics are needed.
+     */
     public Map<String, String> getCharacteristics() {
+        if (characteristics == null) {
+            characteristics = makeCharacteristics();
+        }
         return characteristics;
     }
 
@@ -118,7 +133,7 @@ public class RestoptSolution {
         orderedCharacteristics[0] = allKeys;
         orderedCharacteristics[1] = new String[allKeys.length];
         for (int i = 0; i < allKeys.length; i++) {
-            orderedCharacteristics[1][i] = characteristics.get(allKeys[i]);
+            orderedCharacteristics[1][i] = getCharacteristics().get(allKeys[i]);
         }
         StringBuilder sb = new StringBuilder();
         for (String[] line : orderedCharacteristics) {
@@ -136,6 +151,7 @@ public class RestoptSolution {
     }
 
     public void printSolutionInfos() {
+        Map<String, String> characteristics = getCharacteristics();
         System.out.println("\n--- Best solution ---\n");
         for (String key : KEYS) {
             System.out.println(messages.get(key) + characteristics.get(key));
@@ -181,36 +197,137 @@ public class RestoptSolution {
             return solution.getIntVal(problem.getTotalRestorable());
         } else {
             int maxRestore = 0;
-            for (int i : getRestorationPlanningUnits()) {
+            for (int i : restorationPlanningUnits()) {
                 maxRestore += problem.getRestorableArea(i);
             }
             return maxRestore;
         }
     }
 
+    /**
+     * @return The solving time (in seconds) when the solution was created.
+     */
+    public double getSolvingTime() {
+        return 1.0 * solvingTime / 1000;
+    }
+
+    /**
+     * @return True if the optimality of the solution was proven when it was created.
+     */
+    public boolean isProvenOptimal() {
+        return provenOptimal;
+    }
+
+    /**
+     * @return The search state when the solution was created.
+     */
+    public String getSearchState() {
+        return searchState;
+    }
+
+    /**
+     * @return The value of the MESH of the solution, null if there is no MESH constraint.
+     */
+    public Double getMeshValue() {
+        if (!problem.hasMeshConstraint()) {
+            return null;
+        }
+        IntVar mesh = problem.getMeshConstraint().getMesh();
+        int precision = problem.getMeshConstraint().getPrecision();
+        return (1.0 * solution.getIntVal(mesh)) / Math.pow(10, precision);
+    }
+
+    /**
+     * @return The value of the IIC of the solution, null if there is no IIC constraint.
+     */
+    public Double getIICValue() {
+        if (!problem.hasIICConstraint()) {
+            return null;
+        }
+        IntVar iic = problem.getIICConstraint().getIic();
+        int precision = problem.getIICConstraint().getPrecision();
+        return (1.0 * solution.getIntVal(iic)) / Math.pow(10, precision);
+    }
+
+    /**
+     * @return The number of planning units selected for restoration.
+     */
+    public int getNbPlanningUnits() {
+        return restorationPlanningUnits().length;
+    }
+
     /**
      * @return The number of connected components of the solution.
      */
     public int getNbComponents() {
-        ConnectivityFinderSpatialGraph cf = new ConnectivityFinderSpatialGraph(getRestorationGraph());
-        cf.findAllCC();
-        return cf.getNBCC();
+        if (nbComponents == null) {
+            nbComponents = countComponents(restorationPlanningUnits(), 0);
+        }
+        return nbComponents;
     }
 
     /**
      * @return The number of patches of the solution.
      */
     public int getNbPatches() {
-        ConnectivityFinderSpatialGraph cf = new ConnectivityFinderSpatialGraph(getHabitatGraph());
-        cf.findAllCC();
-        return cf.getNBCC();
+        if (nbPatches == null) {
+            nbPatches = countComponents(restorationPlanningUnits(), problem.getGrid().getNbGroups());
+        }
+        return nbPatches;
+    }
+
+    /**
+     * Count the connected components of the cells [0, nbFirstCells[ (the habitat groups) plus the given cells, by a
+     * traversal of the problem's neighborhood index (no graph is built).
+     */
+    private int countComponents(int[] cells, int nbFirstCells) {
+        NeighborhoodIndex index = problem.getNeighborhoodIndex();
+        int n = index.getNbCells();
+        // 0: not in the graph, 1: in the graph, 2: visited
+        byte[] state = new byte[n];
+        for (int i = 0; i < nbFirstCells; i++) {
+            state[i] = 1;
+        }
+        for (int i : cells) {
+            state[i] = 1;
+        }
+        int[] stack = new int[nbFirstCells + cells.length];
+        int nbCC = 0;
+        for (int k = 0; k < nbFirstCells + cells.length; k++) {
+            int root = k < nbFirstCells ? k : cells[k - nbFirstCells];
+            if (state[root] != 1) {
+                continue;
+            }
+            nbCC++;
+            int size = 0;
+            stack[size++] = root;
+            state[root] = 2;
+            while (size > 0) {
+                int i = stack[--size];
+                for (int p = index.getStart(i); p < index.getEnd(i); p++) {
+                    int j = index.getTarget(p);
+                    if (state[j] == 1) {
+                        state[j] = 2;
+                        stack[size++] = j;
+                    }
+                }
+            }
+        }
+        return nbCC;
     }
 
     /**
      * @return The diameter of the solution.
      */
     public double getDiameter() {
-        int[] pus = getRestorationPlanningUnits();
+        if (diameter == null) {
+            diameter = computeDiameter();
+        }
+        return diameter;
+    }
+
+    private double computeDiameter() {
+        int[] pus = restorationPlanningUnits();
         double[][] coordinates = new double[pus.length][];
         for (int i = 0; i < pus.length; i++) {
             try {
@@ -224,57 +341,36 @@ public class RestoptSolution {
             return 0;
         }
         return minidisk[2] * 2;
-     }
+    }
 
     public int[] getHabitatAndRestorationPlanningUnits() {
         int[] hab = IntStream.range(0, problem.getGrid().getNbGroups()).toArray();
-        int[] rest = getRestorationPlanningUnits();
+        int[] rest = restorationPlanningUnits();
         return ArrayUtils.concat(hab, rest);
     }
 
+    private int[] restorationPlanningUnits() {
+        if (restorationPlanningUnits == null) {
+            restorationPlanningUnits = solution.getSetVal(problem.getRestoreSetVar());
+        }
+        return restorationPlanningUnits;
+    }
+
     public int[] getRestorationPlanningUnits() {
-        return solution.getSetVal(problem.getRestoreSetVar());
+        return restorationPlanningUnits().clone();
     }
 
     public int[] getRestorationPlanningUnitsCompleteIndex() {
-        return problem.getGrid().getUngroupedCompleteIndices(getRestorationPlanningUnits());
+        return problem.getGrid().getUngroupedCompleteIndices(restorationPlanningUnits());
     }
 
     public UndirectedGraph getRestorationGraph() {
-        int[] pus = getRestorationPlanningUnits();
-        UndirectedGraph g = GraphFactory.makeUndirectedGraph(
-                problem.grid.getNbCells(),
-                SetType.BIPARTITESET,
-                SetType.BIPARTITESET,
-                pus,
-                new int[][]{}
-        );
-        for (int i : pus) {
-            for (int j : problem.getNeighborhood().getNeighbors(problem.getGrid(), i)) {
-                if (g.containsNode(j)) {
-                    g.addEdge(i, j);
-                }
-            }
-        }
-        return g;
+        int[] pus = restorationPlanningUnits();
+        return problem.getNeighborhoodIndex().getPartialGraph(pus, SetType.BIPARTITESET, SetType.BIPARTITESET);
     }
 
     public UndirectedGraph getHabitatGraph() {
         int[] pus = getHabitatAndRestorationPlanningUnits();
-        UndirectedGraph g = GraphFactory.makeUndirectedGraph(
-                problem.grid.getNbCells(),
-                SetType.BIPARTITESET,
-                SetType.BIPARTITESET,
-                pus,
-                new int[][]{}
-        );
-        for (int i : pus) {
-            for (int j : problem.getNeighborhood().getNeighbors(problem.getGrid(), i)) {
-                if (g.containsNode(j)) {
-                    g.addEdge(i, j);
-                }
-            }
-        }
-        return g;
+        return problem.getNeighborhoodIndex().getPartialGraph(pus, SetType.BIPARTITESET, SetType.BIPARTITESET);
     }
 }
@@ -0,0 +1,177 @@
+package org.restopt;
+
+import org.restopt.exception.RestoptException;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Deterministic (seeded) generator of synthetic landscapes, for scalability tests and benchmarks. The generated
+ * landscape contains:
+ * <ul>
+ *     <li>Habitat patches (habitat value 1) grown by random frontier expansion from random seed pixels. Patch sizes
+ *     are drawn from a log-uniform distribution between the minimum and maximum patch size (many small patches and
+ *     a few large ones). Patches can merge.</li>
+ *     <li>An accessibility mask (accessible value 1, 0 otherwise), spatially correlated: each square block of
+ *     accessibleBlockSize pixels is accessible with probability accessibleProportion.</li>
+ *     <li>Restorable areas: each non habitat pixel gets a restorable area of cellArea * f, with f uniformly drawn
+ *     between the minimum and maximum restorable fraction. Habitat pixels have no restorable area.</li>
+ * </ul>
+ * The no data value of the generated DataLoader is -1 and there are no out pixels.
+ */
+public class SyntheticLandscapeGenerator {
+
+    private final int nbRows;
+    private final int nbCols;
+    private final long seed;
+
+    private int nbPatches = 100;
+    private int minPatchSize = 1;
+    private int maxPatchSize = 1000;
+    private double accessibleProportion = 1;
+    private int accessibleBlockSize = 1;
+    private int cellArea = 1;
+    private double minRestorableFraction = 1;
+    private double maxRestorableFraction = 1;
+
+    public SyntheticLandscapeGenerator(int nbRows, int nbCols, long seed) {
+        this.nbRows = nbRows;
+        this.nbCols = nbCols;
+        this.seed = seed;
+    }
+
+    public SyntheticLandscapeGenerator setNbPatches(int nbPatches) {
+        this.nbPatches = nbPatches;
+        return this;
+    }
+
+    /**
+     * @param minPatchSize Minimum patch size (in pixels), before merging.
+     * @param maxPatchSize Maximum patch size (in pixels), before merging.
+     */
+    public SyntheticLandscapeGenerator setPatchSizeRange(int minPatchSize, int maxPatchSize) {
+        this.minPatchSize = minPatchSize;
+        this.maxPatchSize = maxPatchSize;
+        return this;
+    }
+
+    /**
+     * @param accessibleProportion Probability for a block to be accessible.
+     * @param accessibleBlockSize  Side of the blocks (in pixels) of the accessibility mask.
+     */
+    public SyntheticLandscapeGenerator setAccessibility(double accessibleProportion, int accessibleBlockSize) {
+        this.accessibleProportion = accessibleProportion;
+        this.accessibleBlockSize = accessibleBlockSize;
+        return this;
+    }
+
+    public SyntheticLandscapeGenerator setCellArea(int cellArea) {
+        this.cellArea = cellArea;
+        return this;
+    }
+
+    /**
+     * @param minRestorableFraction Minimum fraction of the cell area that is restorable in a non habitat pixel.
+     * @param maxRestorableFraction Maximum fraction of the cell area that is restorable in a non habitat pixel.
+     */
+    public SyntheticLandscapeGenerator setRestorableFractionRange(double minRestorableFraction, double maxRestorableFraction) {
+        this.minRestorableFraction = minRestorableFraction;
+        this.maxRestorableFraction = maxRestorableFraction;
+        return this;
+    }
+
+    /**
+     * @return A new DataLoader containing the generated landscape. The same parameters and seed always produce the
+     * same landscape.
+     */
+    public DataLoader generate() throws RestoptException {
+        if (nbRows <= 0 || nbCols <= 0 || (long) nbRows * nbCols > Integer.MAX_VALUE) {
+            throw new RestoptException("Invalid synthetic landscape dimensions: " + nbRows + "x" + nbCols);
+        }
+        if (nbPatches < 0 || minPatchSize < 1 || maxPatchSize < minPatchSize) {
+            throw new RestoptException("Invalid synthetic landscape patch parameters");
+        }
+        if (accessibleProportion < 0 || accessibleProportion > 1 || accessibleBlockSize < 1) {
+            throw new RestoptException("Invalid synthetic landscape accessibility parameters");
+        }
+        if (cellArea < 0 || minRestorableFraction < 0 || maxRestorableFraction > 1
+                || maxRestorableFraction < minRestorableFraction) {
+            throw new RestoptException("Invalid synthetic landscape restorable parameters");
+        }
+        Random random = new Random(seed);
+        int n = nbRows * nbCols;
+        int[] habitat = generateHabitat(random, n);
+        int[] accessible = generateAccessible(random, n);
+        double[] restorable = new double[n];
+        int[] area = new int[n];
+        Arrays.fill(area, cellArea);
+        for (int i = 0; i < n; i++) {
+            if (habitat[i] == 0) {
+                double f = minRestorableFraction + random.nextDouble() * (maxRestorableFraction - minRestorableFraction);
+                restorable[i] = cellArea * f;
+            }
+        }
+        return new DataLoader(habitat, accessible, restorable, area, nbCols, nbRows, -1);
+    }
+
+    private int[] generateHabitat(Random random, int n) {
+        int[] habitat = new int[n];
+        int[] frontier = new int[64];
+        double logMin = Math.log(minPatchSize);
+        double logMax = Math.log(maxPatchSize + 1);
+        for (int p = 0; p < nbPatches; p++) {
+            int size = Math.min(maxPatchSize, (int) Math.exp(logMin + random.nextDouble() * (logMax - logMin)));
+            int start = random.nextInt(n);
+            int frontierSize = 0;
+            frontier[frontierSize++] = start;
+            int placed = 0;
+            while (placed < size && frontierSize > 0) {
+                int k = random.nextInt(frontierSize);
+                int cell = frontier[k];
+                frontier[k] = frontier[--frontierSize];
+                if (habitat[cell] == 1) {
+                    continue;
+                }
+                habitat[cell] = 1;
+                placed++;
+                if (frontierSize + 4 > frontier.length) {
+                    frontier = Arrays.copyOf(frontier, 2 * frontier.length);
+                }
+                int row = cell / nbCols;
+                int col = cell % nbCols;
+                if (row > 0 && habitat[cell - nbCols] == 0) {
+                    frontier[frontierSize++] = cell - nbCols;
+                }
+                if (row < nbRows - 1 && habitat[cell + nbCols] == 0) {
+                    frontier[frontierSize++] = cell + nbCols;
+                }
+                if (col > 0 && habitat[cell - 1] == 0) {
+                    frontier[frontierSize++] = cell - 1;
+                }
+                if (col < nbCols - 1 && habitat[cell + 1] == 0) {
+                    frontier[frontierSize++] = cell + 1;
+                }
+            }
+        }
+        return habitat;
+    }
+
+    private int[] generateAccessible(Random random, int n) {
+        int nbBlockRows = (nbRows + accessibleBlockSize - 1) / accessibleBlockSize;
+        int nbBlockCols = (nbCols + accessibleBlockSize - 1) / accessibleBlockSize;
+        boolean[] accessibleBlocks = new boolean[nbBlockRows * nbBlockCols];
+        for (int b = 0; b < accessibleBlocks.length; b++) {
+            accessibleBlocks[b] = random.nextDouble() < accessibleProportion;
+        }
+        int[] accessible = new int[n];
+        for (int row = 0; row < nbRows; row++) {
+            int blockRow = row / accessibleBlockSize;
+            for (int col = 0; col < nbCols; col++) {
+                if (accessibleBlocks[blockRow * nbBlockCols + col / accessibleBlockSize]) {
+                    accessible[row * nbCols + col] = 1;
+                }
+            }
+        }
+        return accessible;
+    }
+}
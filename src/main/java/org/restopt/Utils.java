@@ -1,36 +1,25 @@
 package org.restopt;
 
-import org.chocosolver.util.tools.ArrayUtils;
 import org.restopt.grid.neighborhood.Neighborhoods;
 import org.restopt.grid.regular.square.PartialRegularGroupedAggGrid;
 
-import java.util.stream.IntStream;
-
 public class Utils {
 
     public static int[] getAggregatedPUs(DataLoader data, int accessibleVal, int aggregationFactor) {
 
-        int[] outPixels = IntStream.range(0, data.getHabitatData().length)
-                .filter(i -> data.getHabitatData()[i] <= -1 || data.getHabitatData()[i] == data.noDataHabitat)
-                .toArray();
-
-        int[] nonHabitatNonAccessiblePixels = IntStream.range(0, data.getHabitatData().length)
-                .filter(i -> data.getHabitatData()[i] == 0 && data.getAccessibleData()[i] != accessibleVal)
-                .toArray();
-
         RasterConnectivityFinder rConn = new RasterConnectivityFinder(
                 data.getHeight(), data.getWidth(),
-                data.getHabitatData(), 1,
+                i -> data.getHabitat(i) == 1,
                 Neighborhoods.FOUR_CONNECTED
         );
 
         PartialRegularGroupedAggGrid grid = new PartialRegularGroupedAggGrid(
                 data.getHeight(), data.getWidth(),
-                ArrayUtils.concat(outPixels, nonHabitatNonAccessiblePixels),
+                new RasterClassification(data, accessibleVal).getDiscardedPixels(),
                 rConn, aggregationFactor
         );
 
-        int[] pus = new int[data.getHabitatData().length];
+        int[] pus = new int[data.getNbPixels()];
         for (int i = 0; i < pus.length; i++) {
             pus[i] = -1;
         }
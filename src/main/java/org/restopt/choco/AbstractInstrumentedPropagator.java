@@ -0,0 +1,66 @@
+package org.restopt.choco;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.Variable;
+import org.restopt.telemetry.InstrumentedPropagator;
+import org.restopt.telemetry.PropagatorStats;
+
+/**
+ * Base class of the restopt propagators reporting their calls and running time to a PropagatorStats: subclasses
+ * implement doPropagate(...), which is timed when statistics are set.
+ */
+public abstract class AbstractInstrumentedPropagator<V extends Variable> extends Propagator<V> implements InstrumentedPropagator {
+
+    private PropagatorStats stats;
+
+    protected AbstractInstrumentedPropagator(V[] vars, PropagatorPriority priority, boolean reactToFineEvt) {
+        super(vars, priority, reactToFineEvt);
+    }
+
+    @Override
+    public final void setStats(PropagatorStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public final void propagate(int evtmask) throws ContradictionException {
+        if (stats == null) {
+            doPropagate(evtmask);
+        } else {
+            long t = stats.start();
+            try {
+                doPropagate(evtmask);
+            } finally {
+                stats.stop(t);
+            }
+        }
+    }
+
+    @Override
+    public final void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        if (stats == null) {
+            doPropagate(idxVarInProp, mask);
+        } else {
+            long t = stats.start();
+            try {
+                doPropagate(idxVarInProp, mask);
+            } finally {
+                stats.stop(t);
+            }
+        }
+    }
+
+    /**
+     * Coarse propagation, see Propagator.propagate(int).
+     */
+    protected abstract void doPropagate(int evtmask) throws ContradictionException;
+
+    /**
+     * Fine propagation, see Propagator.propagate(int, int). Only called for propagators reacting to fine events.
+     */
+    protected void doPropagate(int idxVarInProp, int mask) throws ContradictionException {
+        super.propagate(idxVarInProp, mask);
+    }
+}
@@ -0,0 +1,268 @@
+package org.restopt.choco;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+
+/**
+ * Decremental connected components maintenance for a graph whose nodes can only be removed (e.g. the envelope of a
+ * node-induced graph variable). Each node is labelled with a representative node of its component, and labels are
+ * stored in the solver's trail so that backtracking automatically restores the previous components.
+ * <p>
+ * Node removals are recorded lazily: when update() is called, only the components that lost nodes are explored
+ * and re-split, the rest of the graph is left untouched.
+ *
+ * @author Dimitri Justeau-Allaire
+ */
+public class DecrementalConnectivityFinder {
+
+    private static final int NOT_IN_GRAPH = -1;
+
+    private final int n;
+    private final NeighborhoodIndex neighs;
+    private final int[] attributeCell;
+
+    private final IStateInt[] nodeCC;
+    private final IStateInt[] attributeCC;
+    private final IStateInt nbCC;
+    private final IStateLong sumSquaredAttributes;
+
+    // Removed nodes waiting for an update (the component they belonged to is stored in removedCC)
+    private final int[] removed;
+    private final int[] removedCC;
+    private int nbRemoved;
+
+    // Components that disappeared / were (re)created during the last init() or update()
+    private final int[] lostCC;
+    private int nbLostCC;
+    private final int[] newCC;
+    private int nbNewCC;
+
+    // Non-backtrackable working structures
+    private final int[] fifo;
+    private final int[] visited;
+    private final int[] touchedCC;
+    private int stamp;
+
+    /**
+     * @param environment   The environment used to store the component labels.
+     * @param neighs        Static adjacency (the neighbors of each node in the initial graph).
+     * @param attributeCell The attribute (e.g. area) of each node.
+     */
+    public DecrementalConnectivityFinder(IEnvironment environment, int[][] neighs, int[] attributeCell) {
+        this(environment, NeighborhoodIndex.of(neighs), attributeCell);
+    }
+
+    /**
+     * @param environment   The environment used to store the state of the structure.
+     * @param neighs        Static adjacency, as a compact neighborhood index.
+     * @param attributeCell The attribute (e.g. area) of each node.
+     */
+    public DecrementalConnectivityFinder(IEnvironment environment, NeighborhoodIndex neighs, int[] attributeCell) {
+        this.n = neighs.getNbCells();
+        this.neighs = neighs;
+        this.attributeCell = attributeCell;
+        this.nodeCC = new IStateInt[n];
+        this.attributeCC = new IStateInt[n];
+        for (int i = 0; i < n; i++) {
+            nodeCC[i] = environment.makeInt(NOT_IN_GRAPH);
+            attributeCC[i] = environment.makeInt(0);
+        }
+        this.nbCC = environment.makeInt(0);
+        this.sumSquaredAttributes = environment.makeLong(0);
+        this.removed = new int[n];
+        this.removedCC = new int[n];
+        this.lostCC = new int[n];
+        this.newCC = new int[n];
+        this.fifo = new int[n];
+        this.visited = new int[n];
+        this.touchedCC = new int[n];
+        this.stamp = 0;
+    }
+
+    /**
+     * Reset the structure and compute the connected components of the graph induced by a set of nodes.
+     * Complexity : O(M+N).
+     */
+    public void init(ISet nodes) {
+        for (int i = 0; i < n; i++) {
+            nodeCC[i].set(NOT_IN_GRAPH);
+        }
+        for (int i : nodes) {
+            nodeCC[i].set(i);
+        }
+        nbRemoved = 0;
+        nbLostCC = 0;
+        nbNewCC = 0;
+        nbCC.set(0);
+        sumSquaredAttributes.set(0);
+        nextStamp();
+        for (int i : nodes) {
+            if (visited[i] != stamp) {
+                explore(i);
+            }
+        }
+    }
+
+    /**
+     * Record the removal of a node. The components are only updated when update() is called.
+     */
+    public void removeNode(int node) {
+        int cc = nodeCC[node].get();
+        if (cc == NOT_IN_GRAPH) {
+            return;
+        }
+        nodeCC[node].set(NOT_IN_GRAPH);
+        removed[nbRemoved] = node;
+        removedCC[nbRemoved] = cc;
+        nbRemoved++;
+    }
+
+    /**
+     * Re-split the components that lost nodes since the last update.
+     * Complexity : O(M'+N') where M' and N' are the number of edges and nodes of the modified components.
+     */
+    public void update() {
+        nbLostCC = 0;
+        nbNewCC = 0;
+        if (nbRemoved == 0) {
+            return;
+        }
+        nextStamp();
+        // Forget the components that lost nodes
+        for (int k = 0; k < nbRemoved; k++) {
+            int cc = removedCC[k];
+            if (touchedCC[cc] != stamp) {
+                touchedCC[cc] = stamp;
+                lostCC[nbLostCC++] = cc;
+                long a = attributeCC[cc].get();
+                nbCC.add(-1);
+                sumSquaredAttributes.set(sumSquaredAttributes.get() - a * a);
+            }
+        }
+        // Every remaining node of a modified component is connected to a neighbor of a removed node
+        for (int k = 0; k < nbRemoved; k++) {
+            for (int l = neighs.getStart(removed[k]); l < neighs.getEnd(removed[k]); l++) {
+                int j = neighs.getTarget(l);
+                if (nodeCC[j].get() != NOT_IN_GRAPH && visited[j] != stamp) {
+                    explore(j);
+                }
+            }
+        }
+        nbRemoved = 0;
+    }
+
+    /**
+     * Breadth-first exploration of the component containing start, which is relabelled. If the previous
+     * representative of start still belongs to the component, it is kept to avoid useless trailing.
+     */
+    private void explore(int start) {
+        int first = 0;
+        int last = 0;
+        int previousCC = nodeCC[start].get();
+        boolean keepPrevious = false;
+        long attribute = 0;
+        fifo[last++] = start;
+        visited[start] = stamp;
+        while (first < last) {
+            int i = fifo[first++];
+            attribute += attributeCell[i];
+            keepPrevious |= i == previousCC;
+            for (int l = neighs.getStart(i); l < neighs.getEnd(i); l++) {
+                int j = neighs.getTarget(l);
+                if (visited[j] != stamp && nodeCC[j].get() != NOT_IN_GRAPH) {
+                    visited[j] = stamp;
+                    fifo[last++] = j;
+                }
+            }
+        }
+        int cc = keepPrevious ? previousCC : start;
+        for (int k = 0; k < last; k++) {
+            if (nodeCC[fifo[k]].get() != cc) {
+                nodeCC[fifo[k]].set(cc);
+            }
+        }
+        attributeCC[cc].set((int) attribute);
+        newCC[nbNewCC++] = cc;
+        nbCC.add(1);
+        sumSquaredAttributes.set(sumSquaredAttributes.get() + attribute * attribute);
+    }
+
+    private void nextStamp() {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            for (int i = 0; i < n; i++) {
+                visited[i] = 0;
+                touchedCC[i] = 0;
+            }
+            stamp = 1;
+        }
+    }
+
+    /**
+     * @return The number of components that disappeared during the last update() (they were split or emptied).
+     */
+    public int getNbLostCC() {
+        return nbLostCC;
+    }
+
+    /**
+     * @return The representative of the k-th component that disappeared during the last update(). Beware that the
+     * same representative can be reused by one of the new components.
+     */
+    public int getLostCC(int k) {
+        return lostCC[k];
+    }
+
+    /**
+     * @return The number of components created during the last init() or update().
+     */
+    public int getNbNewCC() {
+        return nbNewCC;
+    }
+
+    /**
+     * @return The representative of the k-th component created during the last init() or update().
+     */
+    public int getNewCC(int k) {
+        return newCC[k];
+    }
+
+    /**
+     * @return True if node is in the graph.
+     */
+    public boolean contains(int node) {
+        return nodeCC[node].get() != NOT_IN_GRAPH;
+    }
+
+    /**
+     * @return The representative node of the component containing node, -1 if node is not in the graph.
+     * Beware you should call update() first if nodes were removed.
+     */
+    public int getNodeCC(int node) {
+        return nodeCC[node].get();
+    }
+
+    /**
+     * @return The attribute of the component whose representative is cc.
+     */
+    public int getAttributeCC(int cc) {
+        return attributeCC[cc].get();
+    }
+
+    /**
+     * @return The number of connected components.
+     */
+    public int getNBCC() {
+        return nbCC.get();
+    }
+
+    /**
+     * @return The sum of the squared attributes of the connected components.
+     */
+    public long getSumSquaredAttributes() {
+        return sumSquaredAttributes.get();
+    }
+}
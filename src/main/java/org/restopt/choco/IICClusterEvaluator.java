@@ -0,0 +1,259 @@
+package org.restopt.choco;
+
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Computes the (unnormalized) IIC contribution of a cluster, i.e. a set of connected components that are connected
+ * in the landscape graph (two components are adjacent if they contain nodes closer than the distance threshold).
+ * As components of different clusters are never reachable from each other, the IIC of a landscape is the sum of the
+ * contributions of its clusters:
+ * <p>
+ * sum_{i,j in cluster} a_i * a_j / (1 + d_ij)
+ * <p>
+ * where a_i is the area of component i and d_ij the number of hops between i and j in the landscape graph.
+ * <p>
+ * All working structures are allocated once and reused between calls. The breadth-first searches from each
+ * component are independent: when several threads are allowed, they are split into as many tasks, each with its own
+ * search buffers, run in the common fork-join pool. The pool is shared by all the evaluators of the JVM (e.g. the
+ * propagators of the problem copies of a portfolio), so that they do not oversubscribe the cores.
+ *
+ * @author Dimitri Justeau-Allaire
+ */
+public class IICClusterEvaluator {
+
+    /**
+     * Minimum number of components in a cluster for the searches to be run in parallel.
+     */
+    public static final int MIN_PARALLEL_NB_CC = 64;
+
+    private final NeighborhoodIndex threshold;
+
+    // Nodes of the cluster, sorted by component
+    private final int[] nodes;
+    private final int[] sortedNodes;
+    private final int[] nodeStamp;
+    private int stamp;
+
+    // Components of the cluster (local indices)
+    private final int[] localCC;
+    private final int[] ccStamp;
+    private final long[] ccAttribute;
+    private final int[] ccStart;
+
+    // Landscape graph of the cluster
+    private final int[] adjStart;
+    private int[] adjTargets;
+    private final int[] mark;
+    private int markStamp;
+
+    // BFS
+    private final int nbThreads;
+    private final ForkJoinPool pool;
+    private final BfsWorker[] workers;
+
+    /**
+     * @param threshold The index of the threshold neighborhood.
+     */
+    public IICClusterEvaluator(NeighborhoodIndex threshold) {
+        this(threshold, 1);
+    }
+
+    /**
+     * @param threshold The index of the threshold neighborhood.
+     * @param nbThreads The number of parallel tasks used to run the breadth-first searches.
+     */
+    public IICClusterEvaluator(NeighborhoodIndex threshold, int nbThreads) {
+        int n = threshold.getNbCells();
+        this.threshold = threshold;
+        this.nodes = new int[n];
+        this.sortedNodes = new int[n];
+        this.nodeStamp = new int[n];
+        this.localCC = new int[n];
+        this.ccStamp = new int[n];
+        this.ccAttribute = new long[n];
+        this.ccStart = new int[n + 1];
+        this.adjStart = new int[n + 1];
+        this.adjTargets = new int[n];
+        this.mark = new int[n];
+        this.nbThreads = nbThreads;
+        this.pool = nbThreads > 1 ? ForkJoinPool.commonPool() : null;
+        this.workers = new BfsWorker[nbThreads];
+        for (int w = 0; w < nbThreads; w++) {
+            workers[w] = new BfsWorker(n);
+        }
+    }
+
+    /**
+     * @return The number of threads used to run the breadth-first searches.
+     */
+    public int getNbThreads() {
+        return nbThreads;
+    }
+
+    /**
+     * @param start       A node of the cluster.
+     * @param contains    True if a node is in the graph.
+     * @param ccOf        The representative node of the component containing a node.
+     * @param attributeCC The attribute (area) of the component whose representative is given.
+     * @return The contribution of the cluster containing start.
+     */
+    public long evaluate(int start, IntPredicate contains, IntUnaryOperator ccOf, IntUnaryOperator attributeCC) {
+        nextStamp();
+        // Collect the nodes of the cluster
+        int nbNodes = 0;
+        nodes[nbNodes++] = start;
+        nodeStamp[start] = stamp;
+        for (int first = 0; first < nbNodes; first++) {
+            int i = nodes[first];
+            for (int k = threshold.getStart(i); k < threshold.getEnd(i); k++) {
+                int j = threshold.getTarget(k);
+                if (nodeStamp[j] != stamp && contains.test(j)) {
+                    nodeStamp[j] = stamp;
+                    nodes[nbNodes++] = j;
+                }
+            }
+        }
+        // Index the components and sort the nodes by component
+        int nbCC = 0;
+        for (int k = 0; k < nbNodes; k++) {
+            int rep = ccOf.applyAsInt(nodes[k]);
+            if (ccStamp[rep] != stamp) {
+                ccStamp[rep] = stamp;
+                localCC[rep] = nbCC;
+                ccAttribute[nbCC] = attributeCC.applyAsInt(rep);
+                ccStart[nbCC + 1] = 0;
+                nbCC++;
+            }
+            ccStart[localCC[rep] + 1]++;
+        }
+        ccStart[0] = 0;
+        for (int c = 0; c < nbCC; c++) {
+            ccStart[c + 1] += ccStart[c];
+        }
+        for (int k = 0; k < nbNodes; k++) {
+            int c = localCC[ccOf.applyAsInt(nodes[k])];
+            // adjStart is used as a temporary insertion cursor
+            sortedNodes[ccStart[c] + adjStart[c]++] = nodes[k];
+        }
+        // Build the landscape graph
+        int size = 0;
+        for (int c = 0; c < nbCC; c++) {
+            markStamp++;
+            if (markStamp == Integer.MAX_VALUE) {
+                Arrays.fill(mark, 0);
+                markStamp = 1;
+            }
+            adjStart[c] = size;
+            mark[c] = markStamp;
+            for (int p = ccStart[c]; p < ccStart[c + 1]; p++) {
+                int i = sortedNodes[p];
+                for (int k = threshold.getStart(i); k < threshold.getEnd(i); k++) {
+                    int j = threshold.getTarget(k);
+                    if (nodeStamp[j] == stamp) {
+                        int cj = localCC[ccOf.applyAsInt(j)];
+                        if (mark[cj] != markStamp) {
+                            mark[cj] = markStamp;
+                            if (size == adjTargets.length) {
+                                adjTargets = Arrays.copyOf(adjTargets, 2 * adjTargets.length);
+                            }
+                            adjTargets[size++] = cj;
+                        }
+                    }
+                }
+            }
+        }
+        adjStart[nbCC] = size;
+        // Accumulate over all pairs of components
+        long contribution = 0;
+        if (pool == null || nbCC < MIN_PARALLEL_NB_CC) {
+            for (int source = 0; source < nbCC; source++) {
+                contribution += workers[0].bfs(source);
+            }
+        } else {
+            final int nbSources = nbCC;
+            @SuppressWarnings("unchecked")
+            ForkJoinTask<Long>[] tasks = new ForkJoinTask[nbThreads];
+            for (int w = 0; w < nbThreads; w++) {
+                final BfsWorker worker = workers[w];
+                final int first = w;
+                // Interleaved sources, as the cost of a search depends on the position of its source
+                tasks[w] = pool.submit(() -> {
+                    long c = 0;
+                    for (int source = first; source < nbSources; source += nbThreads) {
+                        c += worker.bfs(source);
+                    }
+                    return c;
+                });
+            }
+            for (ForkJoinTask<Long> task : tasks) {
+                contribution += task.join();
+            }
+        }
+        for (int c = 0; c <= nbCC; c++) {
+            adjStart[c] = 0;
+        }
+        return contribution;
+    }
+
+    /**
+     * Breadth-first search buffers, one instance per worker.
+     */
+    private class BfsWorker {
+
+        private final int[] queue;
+        private final int[] dist;
+        private final int[] distStamp;
+        private int bfsStamp;
+
+        BfsWorker(int n) {
+            this.queue = new int[n];
+            this.dist = new int[n];
+            this.distStamp = new int[n];
+        }
+
+        /**
+         * @return sum_j a_source * a_j / (1 + d_source_j) over the components reachable from source.
+         */
+        long bfs(int source) {
+            bfsStamp++;
+            if (bfsStamp == Integer.MAX_VALUE) {
+                Arrays.fill(distStamp, 0);
+                bfsStamp = 1;
+            }
+            long contribution = 0;
+            int front = 0;
+            int rear = 0;
+            queue[rear++] = source;
+            distStamp[source] = bfsStamp;
+            dist[source] = 0;
+            while (front != rear) {
+                int current = queue[front++];
+                contribution += (ccAttribute[source] * ccAttribute[current]) / (1 + dist[current]);
+                for (int k = adjStart[current]; k < adjStart[current + 1]; k++) {
+                    int next = adjTargets[k];
+                    if (distStamp[next] != bfsStamp) {
+                        distStamp[next] = bfsStamp;
+                        dist[next] = dist[current] + 1;
+                        queue[rear++] = next;
+                    }
+                }
+            }
+            return contribution;
+        }
+    }
+
+    private void nextStamp() {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(nodeStamp, 0);
+            Arrays.fill(ccStamp, 0);
+            stamp = 1;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.restopt.choco;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+
+/**
+ * Incremental connected components maintenance for a graph whose nodes can only be added (e.g. the kernel of a
+ * node-induced graph variable). Relies on a union-find (union by size, no path compression) whose internal state
+ * is stored in the solver's trail, so that backtracking automatically restores the previous components.
+ * <p>
+ * The structure also maintains the number of components and the sum of the squared component attributes, which is
+ * the only quantity needed to compute the effective mesh size.
+ *
+ * @author Dimitri Justeau-Allaire
+ */
+public class IncrementalConnectivityFinder {
+
+    private static final int NOT_IN_GRAPH = Integer.MIN_VALUE;
+
+    private final int n;
+    private final NeighborhoodIndex neighs;
+    private final int[] attributeCell;
+
+    /**
+     * parent[i] >= 0 : parent of i in the union-find forest.
+     * parent[i] < 0 (and != NOT_IN_GRAPH) : i is a root, -parent[i] is the number of nodes of its component.
+     */
+    private final IStateInt[] parent;
+    private final IStateInt[] attributeCC;
+    private final IStateInt nbCC;
+    private final IStateLong sumSquaredAttributes;
+
+    /**
+     * @param environment   The environment used to store the state of the union-find.
+     * @param neighs        Static adjacency (the neighbors of each node in the envelope graph).
+     * @param attributeCell The attribute (e.g. area) of each node.
+     */
+    public IncrementalConnectivityFinder(IEnvironment environment, int[][] neighs, int[] attributeCell) {
+        this(environment, NeighborhoodIndex.of(neighs), attributeCell);
+    }
+
+    /**
+     * @param environment   The environment used to store the state of the structure.
+     * @param neighs        Static adjacency, as a compact neighborhood index.
+     * @param attributeCell The attribute (e.g. area) of each node.
+     */
+    public IncrementalConnectivityFinder(IEnvironment environment, NeighborhoodIndex neighs, int[] attributeCell) {
+        this.n = neighs.getNbCells();
+        this.neighs = neighs;
+        this.attributeCell = attributeCell;
+        this.parent = new IStateInt[n];
+        this.attributeCC = new IStateInt[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = environment.makeInt(NOT_IN_GRAPH);
+            attributeCC[i] = environment.makeInt(0);
+        }
+        this.nbCC = environment.makeInt(0);
+        this.sumSquaredAttributes = environment.makeLong(0);
+    }
+
+    /**
+     * Reset the structure and add all the nodes of a set.
+     */
+    public void init(ISet nodes) {
+        for (int i = 0; i < n; i++) {
+            parent[i].set(NOT_IN_GRAPH);
+        }
+        nbCC.set(0);
+        sumSquaredAttributes.set(0);
+        for (int i : nodes) {
+            addNode(i);
+        }
+    }
+
+    /**
+     * Add a node to the graph and merge its component with the components of its neighbors that are in the graph.
+     * Complexity : O(d.log(n)) where d is the degree of the node.
+     */
+    public void addNode(int node) {
+        if (contains(node)) {
+            return;
+        }
+        long a = attributeCell[node];
+        parent[node].set(-1);
+        attributeCC[node].set(attributeCell[node]);
+        nbCC.add(1);
+        sumSquaredAttributes.set(sumSquaredAttributes.get() + a * a);
+        for (int k = neighs.getStart(node); k < neighs.getEnd(node); k++) {
+            int j = neighs.getTarget(k);
+            if (contains(j)) {
+                union(node, j);
+            }
+        }
+    }
+
+    private void union(int i, int j) {
+        int ri = find(i);
+        int rj = find(j);
+        if (ri == rj) {
+            return;
+        }
+        int si = -parent[ri].get();
+        int sj = -parent[rj].get();
+        if (si < sj) {
+            int tmp = ri;
+            ri = rj;
+            rj = tmp;
+        }
+        long ai = attributeCC[ri].get();
+        long aj = attributeCC[rj].get();
+        parent[rj].set(ri);
+        parent[ri].set(-(si + sj));
+        attributeCC[ri].set((int) (ai + aj));
+        nbCC.add(-1);
+        sumSquaredAttributes.set(sumSquaredAttributes.get() + 2 * ai * aj);
+    }
+
+    /**
+     * @return The representative node of the component containing node (which must be in the graph).
+     */
+    public int find(int node) {
+        int i = node;
+        while (parent[i].get() >= 0) {
+            i = parent[i].get();
+        }
+        return i;
+    }
+
+    /**
+     * @return True if node is in the graph.
+     */
+    public boolean contains(int node) {
+        return parent[node].get() != NOT_IN_GRAPH;
+    }
+
+    /**
+     * @return The attribute of the component whose representative is root.
+     */
+    public int getAttributeCC(int root) {
+        return attributeCC[root].get();
+    }
+
+    /**
+     * @return The number of connected components.
+     */
+    public int getNBCC() {
+        return nbCC.get();
+    }
+
+    /**
+     * @return The sum of the squared attributes of the connected components.
+     */
+    public long getSumSquaredAttributes() {
+        return sumSquaredAttributes.get();
+    }
+}
@@ -23,7 +23,6 @@
 
 package org.restopt.choco;
 
-import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
@@ -40,7 +39,7 @@ import java.util.stream.IntStream;
  *
  * @author Dimitri Justeau-Allaire
  */
-public class PropEffectiveMeshSize extends Propagator<Variable> {
+public class PropEffectiveMeshSize extends AbstractInstrumentedPropagator<Variable> {
 
     protected UndirectedGraphVar g;
     protected IntVar mesh;
@@ -78,7 +77,12 @@ public class PropEffectiveMeshSize extends Propagator<Variable> {
     }
 
     @Override
-    public void propagate(int evtmask) throws ContradictionException {
+    public String getStatsName() {
+        return "MESH";
+    }
+
+    @Override
+    protected void doPropagate(int evtmask) throws ContradictionException {
         // LB
         if (!maximize || (g.getMandatoryNodes().size() == g.getPotentialNodes().size())) {
             int mesh_LB_round = getLB();
@@ -0,0 +1,187 @@
+package org.restopt.choco;
+
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.delta.IGraphDeltaMonitor;
+import org.chocosolver.solver.variables.events.GraphEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.procedure.IntProcedure;
+
+import java.util.stream.IntStream;
+
+/**
+ * Event-driven variant of PropEffectiveMeshSize. Instead of recomputing the connected components of the kernel and
+ * the envelope graphs from scratch at each propagation, it reacts to individual node events:
+ * <ul>
+ *     <li>Enforced nodes are merged into the kernel components with a backtrackable union-find
+ *     (IncrementalConnectivityFinder).</li>
+ *     <li>Removed nodes only trigger the re-split of the envelope component they belonged to
+ *     (DecrementalConnectivityFinder).</li>
+ * </ul>
+ * Both structures maintain the sum of squared component areas, so MESH bounds are available in constant time.
+ *
+ * @author Dimitri Justeau-Allaire
+ */
+public class PropEffectiveMeshSizeIncremental extends AbstractInstrumentedPropagator<Variable> {
+
+    protected UndirectedGraphVar g;
+    protected IntVar mesh;
+    protected int landscapeArea;
+    protected int precision;
+    protected int[] cellsArea;
+    private final boolean maximize;
+    private final int multiplier;
+
+    private final IncrementalConnectivityFinder ccLB;
+    private final DecrementalConnectivityFinder ccUB;
+    private final IGraphDeltaMonitor gdm;
+    private final IntProcedure nodeEnforced;
+    private final IntProcedure nodeRemoved;
+    private boolean initialized;
+
+    /**
+     * @param g             The graph variable associated to the region for which the propagator will maintain MESH.
+     * @param mesh          The integer variable equals to MESH, maintained by this propagator.
+     * @param landscapeArea The total landscape area.
+     */
+    public PropEffectiveMeshSizeIncremental(UndirectedGraphVar g, IntVar mesh, int landscapeArea, int precison, boolean maximize) {
+        this(g, mesh, IntStream.range(0, g.getNbMaxNodes()).map(i -> 1).toArray(), landscapeArea, precison, maximize);
+    }
+
+    public PropEffectiveMeshSizeIncremental(UndirectedGraphVar g, IntVar mesh, int[] cellsArea, int landscapeArea, int precison, boolean maximize) {
+        super(new Variable[]{g, mesh}, PropagatorPriority.LINEAR, true);
+        this.g = g;
+        this.mesh = mesh;
+        this.cellsArea = cellsArea;
+        this.landscapeArea = landscapeArea;
+        this.precision = precison;
+        this.multiplier = (int) Math.pow(10, precision);
+        this.maximize = maximize;
+        UndirectedGraph gub = g.getUB();
+        int[][] neighs = new int[g.getNbMaxNodes()][];
+        for (int i = 0; i < neighs.length; i++) {
+            neighs[i] = gub.getNodes().contains(i) ? gub.getNeighborsOf(i).toArray() : new int[0];
+        }
+        this.ccLB = new IncrementalConnectivityFinder(getModel().getEnvironment(), neighs, cellsArea);
+        this.ccUB = new DecrementalConnectivityFinder(getModel().getEnvironment(), neighs, cellsArea);
+        this.gdm = g.monitorDelta(this);
+        this.nodeEnforced = ccLB::addNode;
+        this.nodeRemoved = ccUB::removeNode;
+        this.initialized = false;
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx == 0) {
+            return GraphEventType.ADD_NODE.getMask() | GraphEventType.REMOVE_NODE.getMask();
+        }
+        return IntEventType.boundAndInst();
+    }
+
+    private void initialize() {
+        ccLB.init(g.getMandatoryNodes());
+        ccUB.init(g.getPotentialNodes());
+        initialized = true;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "MESH";
+    }
+
+    @Override
+    protected void doPropagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask) || !initialized) {
+            initialize();
+            gdm.startMonitoring();
+        }
+        filter();
+    }
+
+    @Override
+    protected void doPropagate(int idxVarInProp, int mask) throws ContradictionException {
+        if (idxVarInProp == 0) {
+            gdm.forEachNode(nodeEnforced, GraphEventType.ADD_NODE);
+            gdm.forEachNode(nodeRemoved, GraphEventType.REMOVE_NODE);
+            ccUB.update();
+        }
+        filter();
+    }
+
+    private boolean isGraphInstantiated() {
+        return g.getMandatoryNodes().size() == g.getPotentialNodes().size();
+    }
+
+    private void filter() throws ContradictionException {
+        // LB
+        if (!maximize || isGraphInstantiated()) {
+            mesh.updateLowerBound(getLB(), this);
+        }
+        // UB
+        int mesh_UB_round = getUB();
+        mesh.updateUpperBound(mesh_UB_round, this);
+        if (mesh.getLB() == mesh_UB_round) {
+            for (int i : g.getPotentialNodes()) {
+                if (!g.getMandatoryNodes().contains(i)) {
+                    enforceNode(i);
+                }
+            }
+            mesh.instantiateTo(mesh_UB_round, this);
+        } else if (!isGraphInstantiated()) {
+            boolean filtered = false;
+            for (int i : g.getPotentialNodes()) {
+                if (!g.getMandatoryNodes().contains(i)) {
+                    int s = ccUB.getAttributeCC(ccUB.getNodeCC(i));
+                    double d = (1.0 / landscapeArea) * ((s - 1) * (s - 1) - (s * s));
+                    int delta = (int) Math.round(d * multiplier);
+                    if (mesh_UB_round + delta < mesh.getLB()) {
+                        filtered = true;
+                        enforceNode(i);
+                    }
+                }
+            }
+            if (filtered && (!maximize || isGraphInstantiated())) {
+                mesh.updateLowerBound(getLB(), this);
+            }
+        }
+    }
+
+    /**
+     * Enforce a node and directly update the kernel components, as events caused by this propagator are not
+     * notified to its delta monitor.
+     */
+    private void enforceNode(int node) throws ContradictionException {
+        g.enforceNode(node, this);
+        ccLB.addNode(node);
+    }
+
+    private int getLB() {
+        return (int) Math.round((1.0 * ccLB.getSumSquaredAttributes() / landscapeArea) * multiplier);
+    }
+
+    private int getUB() {
+        return (int) Math.round((1.0 * ccUB.getSumSquaredAttributes() / landscapeArea) * multiplier);
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (!initialized) {
+            initialize();
+        }
+        int mesh_LB_round = getLB();
+        int mesh_UB_round = getUB();
+        if (mesh_LB_round > mesh.getUB() || mesh_UB_round < mesh.getLB()) {
+            return ESat.FALSE;
+        }
+        if (isCompletelyInstantiated()) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+}
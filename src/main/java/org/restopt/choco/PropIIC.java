@@ -24,7 +24,6 @@
 package org.restopt.choco;
 
 import org.chocosolver.memory.IStateInt;
-import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
@@ -33,10 +32,9 @@ import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.GraphEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISet;
-import org.restopt.grid.neighborhood.INeighborhood;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
 import org.restopt.grid.neighborhood.Neighborhoods;
 import org.restopt.grid.regular.square.GroupedGrid;
-import org.restopt.grid.regular.square.PartialRegularGroupedGrid;
 
 /**
  * Propagator maintaining a variable equals to the Integral Index of Connectivity (IIC).
@@ -45,7 +43,7 @@ import org.restopt.grid.regular.square.PartialRegularGroupedGrid;
  *
  * @author Dimitri Justeau-Allaire
  */
-public class PropIIC extends Propagator<Variable> {
+public class PropIIC extends AbstractInstrumentedPropagator<Variable> {
 
     protected UndirectedGraphVar g;
     protected IntVar iic;
@@ -53,9 +51,7 @@ public class PropIIC extends Propagator<Variable> {
     protected int precision;
     protected GroupedGrid grid;
     protected int distanceThreshold;
-    protected INeighborhood threshold;
-    public int[][] threshNeigh;
-    public int[][] thresh;
+    protected NeighborhoodIndex threshold;
     private final boolean maximize;
     private final ConnectivityFinderSpatialGraph ccLB;
     private final ConnectivityFinderSpatialGraph ccUB;
@@ -67,15 +63,24 @@ public class PropIIC extends Propagator<Variable> {
      * @param landscapeArea The total landscape area.
      */
     public PropIIC(UndirectedGraphVar g, IntVar iic, GroupedGrid grid, int landscapeArea, int distanceThreshold, int precison, boolean maximize) {
+        this(g, iic, grid, landscapeArea, distanceThreshold,
+                NeighborhoodIndex.build(Neighborhoods.PARTIAL_GROUPED_K_WIDE_FOUR_CONNECTED(distanceThreshold), grid),
+                precison, maximize);
+    }
+
+    /**
+     * @param threshold The precomputed index of the distanceThreshold-wide neighborhood of the grid, which can be
+     *                  shared between several propagators.
+     */
+    public PropIIC(UndirectedGraphVar g, IntVar iic, GroupedGrid grid, int landscapeArea, int distanceThreshold,
+                   NeighborhoodIndex threshold, int precison, boolean maximize) {
         super(new Variable[]{g, iic}, PropagatorPriority.QUADRATIC, true);
         this.g = g;
         this.grid = grid;
         this.iic = iic;
         this.landscapeArea = landscapeArea;
         this.precision = precison;
-        this.thresh = new int[grid.getNbCells()][grid.getNbCells()];
-        this.threshNeigh = new int[grid.getNbCells()][];
-        this.threshold = Neighborhoods.PARTIAL_GROUPED_K_WIDE_FOUR_CONNECTED(distanceThreshold);
+        this.threshold = threshold;
         this.distanceThreshold = distanceThreshold;
         this.maximize = maximize;
         this.ccLB = new ConnectivityFinderSpatialGraph(g.getLB(), g.getUB(), grid.getSizeCells());
@@ -84,7 +89,7 @@ public class PropIIC extends Propagator<Variable> {
     }
 
     @Override
-    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+    protected void doPropagate(int idxVarInProp, int mask) throws ContradictionException {
         if (idxVarInProp == 0 && maximize && !g.isInstantiated() && (mask & GraphEventType.REMOVE_NODE.getMask()) == 0) {
             return;
         } else {
@@ -113,8 +118,14 @@ public class PropIIC extends Propagator<Variable> {
             }
         }
     }
+
     @Override
-    public void propagate(int evtmask) throws ContradictionException {
+    public String getStatsName() {
+        return "IIC";
+    }
+
+    @Override
+    protected void doPropagate(int evtmask) throws ContradictionException {
         // LB
         if (!maximize || g.isInstantiated()) {
             int iic_LB = (int) Math.round(getIICLB() * Math.pow(10, precision));
@@ -173,10 +184,8 @@ public class PropIIC extends Propagator<Variable> {
             int nAdj = 0;
             int[] cc = ccs[i];
             for (int node : cc) {
-                if (threshNeigh[node] == null) {
-                    threshNeigh[node] = threshold.getNeighbors(grid, node);
-                }
-                for (int j : threshNeigh[node]) {
+                for (int k = threshold.getStart(node); k < threshold.getEnd(node); k++) {
+                    int j = threshold.getTarget(k);
                     if (nodeCC[j] != i && nodes.contains(j) && !conn[nodeCC[j]]) {
                         conn[nodeCC[j]] = true;
                         nAdj += 1;
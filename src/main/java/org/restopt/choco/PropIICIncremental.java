@@ -0,0 +1,373 @@
+package org.restopt.choco;
+
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.delta.IGraphDeltaMonitor;
+import org.chocosolver.solver.variables.events.GraphEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.procedure.IntProcedure;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+import org.restopt.grid.neighborhood.Neighborhoods;
+import org.restopt.grid.regular.square.GroupedGrid;
+
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Event-driven variant of PropIIC. The IIC of a landscape is decomposed into the contributions of its clusters
+ * (sets of connected components that are connected in the landscape graph, see IICClusterEvaluator). The
+ * contribution of each cluster is stored in the solver's trail, indexed by the representative node of the cluster,
+ * and only the clusters affected by the latest node events are re-evaluated:
+ * <ul>
+ *     <li>When nodes are removed from the envelope, the clusters they belonged to are re-split and the new clusters
+ *     are re-evaluated (DecrementalConnectivityFinder).</li>
+ *     <li>When nodes are enforced in the kernel, the clusters they join are merged and the merged cluster is
+ *     re-evaluated (IncrementalConnectivityFinder).</li>
+ * </ul>
+ * Backtracking automatically restores the components, the clusters and their contributions.
+ * <p>
+ * When maximizing, the lower bound is only needed once the graph is instantiated, in which case it is equal to the
+ * upper bound: the kernel structures are thus only maintained when minimizing.
+ *
+ * @author Dimitri Justeau-Allaire
+ */
+public class PropIICIncremental extends AbstractInstrumentedPropagator<Variable> {
+
+    protected UndirectedGraphVar g;
+    protected IntVar iic;
+    protected int landscapeArea;
+    protected int precision;
+    protected GroupedGrid grid;
+    protected int distanceThreshold;
+    protected NeighborhoodIndex threshold;
+    private final boolean maximize;
+
+    // Envelope
+    private final DecrementalConnectivityFinder ccUB;
+    private final DecrementalConnectivityFinder clustersUB;
+    private final IStateLong[] contributionUB;
+    private final IStateLong totalUB;
+    private final IntPredicate containsUB;
+    private final IntUnaryOperator ccOfUB;
+    private final IntUnaryOperator attributeUB;
+
+    // Kernel
+    private final IncrementalConnectivityFinder ccLB;
+    private final IncrementalConnectivityFinder clustersLB;
+    private final IStateLong[] contributionLB;
+    private final IStateLong totalLB;
+    private final IntPredicate containsLB;
+    private final IntUnaryOperator ccOfLB;
+    private final IntUnaryOperator attributeLB;
+
+    private final IICClusterEvaluator evaluator;
+    private final IGraphDeltaMonitor gdm;
+    private final IntProcedure nodeEnforced;
+    private final IntProcedure nodeRemoved;
+    private final int[] enforced;
+    private int nbEnforced;
+    private final int[] clusterStamp;
+    private int stamp;
+    private boolean initialized;
+
+    /**
+     * @param g             The graph variable associated to the region for which the propagator will maintain IIC.
+     * @param iic           The integer variable equals to IIC, maintained by this propagator.
+     * @param landscapeArea The total landscape area.
+     */
+    public PropIICIncremental(UndirectedGraphVar g, IntVar iic, GroupedGrid grid, int landscapeArea, int distanceThreshold, int precison, boolean maximize) {
+        this(g, iic, grid, landscapeArea, distanceThreshold,
+                NeighborhoodIndex.build(Neighborhoods.PARTIAL_GROUPED_K_WIDE_FOUR_CONNECTED(distanceThreshold), grid),
+                precison, maximize);
+    }
+
+    /**
+     * @param threshold The precomputed index of the distanceThreshold-wide neighborhood of the grid, which can be
+     *                  shared between several propagators.
+     */
+    public PropIICIncremental(UndirectedGraphVar g, IntVar iic, GroupedGrid grid, int landscapeArea, int distanceThreshold,
+                              NeighborhoodIndex threshold, int precison, boolean maximize) {
+        this(g, iic, grid, landscapeArea, distanceThreshold, threshold, precison, maximize, 1);
+    }
+
+    /**
+     * @param nbThreads The number of threads used to compute the hop distances between components.
+     */
+    public PropIICIncremental(UndirectedGraphVar g, IntVar iic, GroupedGrid grid, int landscapeArea, int distanceThreshold,
+                              NeighborhoodIndex threshold, int precison, boolean maximize, int nbThreads) {
+        super(new Variable[]{g, iic}, PropagatorPriority.QUADRATIC, true);
+        this.g = g;
+        this.grid = grid;
+        this.iic = iic;
+        this.landscapeArea = landscapeArea;
+        this.precision = precison;
+        this.threshold = threshold;
+        this.distanceThreshold = distanceThreshold;
+        this.maximize = maximize;
+        int n = g.getNbMaxNodes();
+        UndirectedGraph gub = g.getUB();
+        int[][] neighs = new int[n][];
+        for (int i = 0; i < n; i++) {
+            neighs[i] = gub.getNodes().contains(i) ? gub.getNeighborsOf(i).toArray() : new int[0];
+        }
+        NeighborhoodIndex adjacency = NeighborhoodIndex.of(neighs);
+        int[] sizeCells = grid.getSizeCells();
+        int[] noAttribute = new int[n];
+        this.ccUB = new DecrementalConnectivityFinder(getModel().getEnvironment(), adjacency, sizeCells);
+        this.clustersUB = new DecrementalConnectivityFinder(getModel().getEnvironment(), threshold, noAttribute);
+        this.ccLB = new IncrementalConnectivityFinder(getModel().getEnvironment(), adjacency, sizeCells);
+        this.clustersLB = new IncrementalConnectivityFinder(getModel().getEnvironment(), threshold, noAttribute);
+        this.contributionUB = new IStateLong[n];
+        this.contributionLB = new IStateLong[n];
+        for (int i = 0; i < n; i++) {
+            contributionUB[i] = getModel().getEnvironment().makeLong(0);
+            contributionLB[i] = getModel().getEnvironment().makeLong(0);
+        }
+        this.totalUB = getModel().getEnvironment().makeLong(0);
+        this.totalLB = getModel().getEnvironment().makeLong(0);
+        this.containsUB = ccUB::contains;
+        this.ccOfUB = ccUB::getNodeCC;
+        this.attributeUB = ccUB::getAttributeCC;
+        this.containsLB = ccLB::contains;
+        this.ccOfLB = ccLB::find;
+        this.attributeLB = ccLB::getAttributeCC;
+        this.evaluator = new IICClusterEvaluator(threshold, nbThreads);
+        this.gdm = g.monitorDelta(this);
+        this.enforced = new int[n];
+        this.nodeEnforced = i -> enforced[nbEnforced++] = i;
+        this.nodeRemoved = i -> {
+            ccUB.removeNode(i);
+            clustersUB.removeNode(i);
+        };
+        this.clusterStamp = new int[n];
+        this.initialized = false;
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx == 0) {
+            return GraphEventType.ADD_NODE.getMask() | GraphEventType.REMOVE_NODE.getMask();
+        }
+        return IntEventType.boundAndInst();
+    }
+
+    private void initialize() {
+        initializeUB();
+        if (!maximize) {
+            initializeLB();
+        }
+        initialized = true;
+    }
+
+    private void initializeUB() {
+        ccUB.init(g.getPotentialNodes());
+        clustersUB.init(g.getPotentialNodes());
+        totalUB.set(0);
+        evaluateNewClustersUB();
+    }
+
+    private void initializeLB() {
+        ccLB.init(g.getMandatoryNodes());
+        clustersLB.init(g.getMandatoryNodes());
+        totalLB.set(0);
+        nextStamp();
+        for (int i : g.getMandatoryNodes()) {
+            int root = clustersLB.find(i);
+            if (clusterStamp[root] != stamp) {
+                clusterStamp[root] = stamp;
+                long c = evaluator.evaluate(root, containsLB, ccOfLB, attributeLB);
+                contributionLB[root].set(c);
+                totalLB.set(totalLB.get() + c);
+            }
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "IIC";
+    }
+
+    @Override
+    protected void doPropagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask) || !initialized) {
+            initialize();
+            gdm.startMonitoring();
+        }
+        filter();
+    }
+
+    @Override
+    protected void doPropagate(int idxVarInProp, int mask) throws ContradictionException {
+        if (idxVarInProp == 0) {
+            nbEnforced = 0;
+            gdm.forEachNode(nodeEnforced, GraphEventType.ADD_NODE);
+            if (!maximize) {
+                enforceLB();
+            }
+            gdm.forEachNode(nodeRemoved, GraphEventType.REMOVE_NODE);
+            updateUB();
+        }
+        filter();
+    }
+
+    /**
+     * Re-split the envelope clusters that lost nodes and update their contributions.
+     */
+    private void updateUB() {
+        ccUB.update();
+        clustersUB.update();
+        for (int k = 0; k < clustersUB.getNbLostCC(); k++) {
+            totalUB.set(totalUB.get() - contributionUB[clustersUB.getLostCC(k)].get());
+        }
+        evaluateNewClustersUB();
+    }
+
+    private void evaluateNewClustersUB() {
+        for (int k = 0; k < clustersUB.getNbNewCC(); k++) {
+            int rep = clustersUB.getNewCC(k);
+            long c = evaluator.evaluate(rep, containsUB, ccOfUB, attributeUB);
+            contributionUB[rep].set(c);
+            totalUB.set(totalUB.get() + c);
+        }
+    }
+
+    /**
+     * Merge the nodes stored in enforced into the kernel clusters and update their contributions.
+     */
+    private void enforceLB() {
+        if (nbEnforced == 0) {
+            return;
+        }
+        // Forget the clusters that will be merged
+        nextStamp();
+        for (int k = 0; k < nbEnforced; k++) {
+            int node = enforced[k];
+            if (clustersLB.contains(node)) {
+                continue;
+            }
+            for (int l = threshold.getStart(node); l < threshold.getEnd(node); l++) {
+                int j = threshold.getTarget(l);
+                if (clustersLB.contains(j)) {
+                    int root = clustersLB.find(j);
+                    if (clusterStamp[root] != stamp) {
+                        clusterStamp[root] = stamp;
+                        totalLB.set(totalLB.get() - contributionLB[root].get());
+                    }
+                }
+            }
+        }
+        for (int k = 0; k < nbEnforced; k++) {
+            ccLB.addNode(enforced[k]);
+            clustersLB.addNode(enforced[k]);
+        }
+        // Evaluate the merged clusters
+        nextStamp();
+        for (int k = 0; k < nbEnforced; k++) {
+            int root = clustersLB.find(enforced[k]);
+            if (clusterStamp[root] != stamp) {
+                clusterStamp[root] = stamp;
+                long c = evaluator.evaluate(root, containsLB, ccOfLB, attributeLB);
+                contributionLB[root].set(c);
+                totalLB.set(totalLB.get() + c);
+            }
+        }
+        nbEnforced = 0;
+    }
+
+    private void nextStamp() {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            for (int i = 0; i < clusterStamp.length; i++) {
+                clusterStamp[i] = 0;
+            }
+            stamp = 1;
+        }
+    }
+
+    private void filter() throws ContradictionException {
+        // LB
+        if (!maximize || g.isInstantiated()) {
+            iic.updateLowerBound(getLB(), this);
+        }
+        // UB
+        int iic_UB = getUB();
+        iic.updateUpperBound(iic_UB, this);
+        if (iic.getLB() == iic_UB) {
+            nbEnforced = 0;
+            for (int i : g.getPotentialNodes()) {
+                if (!g.getMandatoryNodes().contains(i)) {
+                    g.enforceNode(i, this);
+                    enforced[nbEnforced++] = i;
+                }
+            }
+            if (!maximize) {
+                // Events caused by this propagator are not notified to its delta monitor
+                enforceLB();
+            }
+        }
+    }
+
+    private int round(long total) {
+        return (int) Math.round((1.0 * total / ((long) landscapeArea * landscapeArea)) * Math.pow(10, precision));
+    }
+
+    private int getLB() {
+        if (maximize) {
+            // Only called when the graph is instantiated
+            return getUB();
+        }
+        return round(totalLB.get());
+    }
+
+    private int getUB() {
+        return round(totalUB.get());
+    }
+
+    /**
+     * @return The IIC of the kernel graph.
+     */
+    public double getIICLB() {
+        if (maximize || !initialized) {
+            initializeLB();
+        }
+        return 1.0 * totalLB.get() / ((long) landscapeArea * landscapeArea);
+    }
+
+    /**
+     * @return The IIC of the envelope graph.
+     */
+    public double getIICUB() {
+        if (!initialized) {
+            initializeUB();
+        }
+        return 1.0 * totalUB.get() / ((long) landscapeArea * landscapeArea);
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (!initialized) {
+            initialize();
+        }
+        int iic_LB = maximize ? round(computeLB()) : getLB();
+        int iic_UB = getUB();
+        if (iic_LB > iic.getUB() || iic_UB < iic.getLB()) {
+            return ESat.FALSE;
+        }
+        if (isCompletelyInstantiated()) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    private long computeLB() {
+        initializeLB();
+        return totalLB.get();
+    }
+}
@@ -0,0 +1,173 @@
+package org.restopt.choco;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Propagator enforcing a minimum distance between a set variable and a list of reference sets (bitsets), which can
+ * grow during the search (e.g. with the solutions already found):
+ * <ul>
+ *     <li>Hamming distance (size of the symmetric difference) at least minHamming: the search fails as soon as the
+ *     maximum reachable distance to a reference is below minHamming, and when it is equal to minHamming every
+ *     undecided element is fixed so that it increases the distance.</li>
+ *     <li>Jaccard distance (1 - |X inter S| / |X union S|) at least minJaccard, only checked when the set variable is
+ *     instantiated.</li>
+ * </ul>
+ */
+public class PropMinDistance extends Propagator<SetVar> {
+
+    private final SetVar set;
+    private final int minHamming;
+    private final double minJaccard;
+    private final List<BitSet> references;
+
+    /**
+     * @param set        The set variable.
+     * @param minHamming The minimum Hamming distance (0 for no constraint).
+     * @param minJaccard The minimum Jaccard distance (0 for no constraint).
+     */
+    public PropMinDistance(SetVar set, int minHamming, double minJaccard) {
+        super(new SetVar[] {set}, PropagatorPriority.LINEAR, false);
+        this.set = set;
+        this.minHamming = minHamming;
+        this.minJaccard = minJaccard;
+        this.references = new ArrayList<>();
+    }
+
+    /**
+     * Add a reference set, taken into account from the next propagation.
+     */
+    public void addReference(BitSet reference) {
+        references.add(reference);
+    }
+
+    public List<BitSet> getReferences() {
+        return references;
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        // Fixing elements for a reference can decrease the distance to the others: iterate up to a fix point, as the
+        // propagator is not scheduled again for its own modifications
+        boolean changed;
+        do {
+            changed = false;
+            for (BitSet ref : references) {
+                ISet lb = set.getLB();
+                ISet ub = set.getUB();
+                int maxDistance = getMaxHammingDistance(lb, ub, ref);
+                if (maxDistance < minHamming) {
+                    fails();
+                }
+                if (maxDistance == minHamming && lb.size() < ub.size()) {
+                    for (int i : ub.toArray()) {
+                        if (!lb.contains(i)) {
+                            if (ref.get(i)) {
+                                set.remove(i, this);
+                            } else {
+                                set.force(i, this);
+                            }
+                        }
+                    }
+                    changed = true;
+                }
+            }
+        } while (changed);
+        if (minJaccard > 0 && set.isInstantiated()) {
+            BitSet x = toBitSet(set.getLB());
+            for (BitSet ref : references) {
+                if (jaccardDistance(x, ref) < minJaccard) {
+                    fails();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The maximum Hamming distance to ref that can be reached from the domain [lb, ub]: the potential
+     * elements that are not in ref plus the elements of ref that are not mandatory.
+     */
+    private static int getMaxHammingDistance(ISet lb, ISet ub, BitSet ref) {
+        int distance = 0;
+        for (int i : ub) {
+            if (!ref.get(i)) {
+                distance++;
+            }
+        }
+        for (int i = ref.nextSetBit(0); i >= 0; i = ref.nextSetBit(i + 1)) {
+            if (!lb.contains(i)) {
+                distance++;
+            }
+        }
+        return distance;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        ISet lb = set.getLB();
+        ISet ub = set.getUB();
+        for (BitSet ref : references) {
+            if (getMaxHammingDistance(lb, ub, ref) < minHamming) {
+                return ESat.FALSE;
+            }
+        }
+        if (!set.isInstantiated()) {
+            return ESat.UNDEFINED;
+        }
+        BitSet x = toBitSet(lb);
+        for (BitSet ref : references) {
+            if (jaccardDistance(x, ref) < minJaccard) {
+                return ESat.FALSE;
+            }
+        }
+        return ESat.TRUE;
+    }
+
+    public static BitSet toBitSet(ISet s) {
+        BitSet b = new BitSet();
+        for (int i : s) {
+            b.set(i);
+        }
+        return b;
+    }
+
+    public static BitSet toBitSet(int[] s) {
+        BitSet b = new BitSet();
+        for (int i : s) {
+            b.set(i);
+        }
+        return b;
+    }
+
+    /**
+     * @return The size of the symmetric difference of a and b.
+     */
+    public static int hammingDistance(BitSet a, BitSet b) {
+        BitSet x = (BitSet) a.clone();
+        x.xor(b);
+        return x.cardinality();
+    }
+
+    /**
+     * @return 1 - |a inter b| / |a union b| (0 if both sets are empty).
+     */
+    public static double jaccardDistance(BitSet a, BitSet b) {
+        BitSet union = (BitSet) a.clone();
+        union.or(b);
+        int unionSize = union.cardinality();
+        if (unionSize == 0) {
+            return 0;
+        }
+        BitSet inter = (BitSet) a.clone();
+        inter.and(b);
+        return 1 - (1.0 * inter.cardinality()) / unionSize;
+    }
+}
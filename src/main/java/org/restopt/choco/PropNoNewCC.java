@@ -1,6 +1,5 @@
 package org.restopt.choco;
 
-import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.UndirectedGraphVar;
@@ -9,7 +8,7 @@ import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
 
-public class PropNoNewCC extends Propagator<UndirectedGraphVar> {
+public class PropNoNewCC extends AbstractInstrumentedPropagator<UndirectedGraphVar> {
 
     private final UndirectedGraphVar g;
     private final ISet LBNodes;
@@ -23,7 +22,12 @@ public class PropNoNewCC extends Propagator<UndirectedGraphVar> {
     }
 
     @Override
-    public void propagate(int evtmask) throws ContradictionException {
+    public String getStatsName() {
+        return "NO_NEW_PATCH";
+    }
+
+    @Override
+    protected void doPropagate(int evtmask) throws ContradictionException {
         ccUB.findAllCC();
         ISet ccOfOrignalLB = SetFactory.makeRangeSet();
         for (int i : LBNodes) {
@@ -23,7 +23,6 @@
 
 package org.restopt.choco;
 
-import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.RealVar;
@@ -40,7 +39,7 @@ import static org.restopt.choco.LandscapeIndicesUtils.*;
 /**
  *
  */
-public class PropSmallestEnclosingCircleSpatialGraph extends Propagator<Variable> {
+public class PropSmallestEnclosingCircleSpatialGraph extends AbstractInstrumentedPropagator<Variable> {
 
     private final UndirectedGraphVar g;
     private final double[][] coordinates;
@@ -82,7 +81,12 @@ public class PropSmallestEnclosingCircleSpatialGraph extends Propagator<Variable
     }
 
     @Override
-    public void propagate(int evtmask) throws ContradictionException {
+    public String getStatsName() {
+        return "COMPACTNESS";
+    }
+
+    @Override
+    protected void doPropagate(int evtmask) throws ContradictionException {
         ISet ker = getKernelPoints();
         ISet env = getEnvelopePoints();
         // Empty region is only allowed in radius lower bound is 0
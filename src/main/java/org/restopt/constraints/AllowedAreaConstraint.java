@@ -0,0 +1,38 @@
+package org.restopt.constraints;
+
+import org.restopt.RestoptProblem;
+
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Constraint restricting the restoration area to the planning units that have at least one pixel in a given area.
+ */
+public class AllowedAreaConstraint extends AbstractRestoptConstraint {
+
+    protected int[] allowedPixels;
+
+    /**
+     * @param allowedPixels The complete grid indices of the pixels of the allowed area.
+     */
+    public AllowedAreaConstraint(RestoptProblem restoptProblem, int[] allowedPixels) {
+        super(restoptProblem);
+        this.allowedPixels = allowedPixels;
+    }
+
+    @Override
+    public void post() {
+        getModel().subsetEq(getRestoreSetVar(), getModel().setVar(getAllowedPlanningUnits())).post();
+    }
+
+    /**
+     * @return The available planning units that have at least one pixel in the allowed area.
+     */
+    public int[] getAllowedPlanningUnits() {
+        BitSet allowed = new BitSet();
+        for (int pu : getGrid().getPlanningUnitsFromCompleteIndices(allowedPixels)) {
+            allowed.set(pu);
+        }
+        return IntStream.of(problem.getAvailablePlanningUnits()).filter(allowed::get).toArray();
+    }
+}
@@ -3,7 +3,7 @@ package org.restopt.constraints;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.restopt.RestoptProblem;
-import org.restopt.choco.PropEffectiveMeshSize;
+import org.restopt.choco.PropEffectiveMeshSizeIncremental;
 import org.restopt.exception.RestoptException;
 
 public class EffectiveMeshSizeConstraint extends AbstractRestoptConstraint {
@@ -35,7 +35,7 @@ public class EffectiveMeshSizeConstraint extends AbstractRestoptConstraint {
             this.mesh = problem.getModel().intVar(minMESH, maxMESH);
             Constraint meshCons = new Constraint(
                     "MESH_constraint",
-                    new PropEffectiveMeshSize(
+                    new PropEffectiveMeshSizeIncremental(
                             problem.getHabitatGraphVar(),
                             mesh,
                             problem.getGrid().getSizeCells(),
@@ -3,41 +3,68 @@ package org.restopt.constraints;
 import org.restopt.RestoptProblem;
 import org.restopt.exception.RestoptException;
 
-import java.io.IOException;
-
 public interface IRestoptConstraintFactory {
 
+    /**
+     * A constraint posting call, recorded so that it can be replayed on a copy of the problem.
+     */
+    interface PostedConstraint {
+        void post(RestoptProblem problem) throws RestoptException;
+    }
+
     RestoptProblem self();
 
     default void postNbComponentsConstraint(int minNbCC, int maxNbCC) {
         new NbComponentsConstraint(self(), minNbCC, maxNbCC).post();
+        self().recordConstraint(p -> p.postNbComponentsConstraint(minNbCC, maxNbCC));
     }
 
     default void postNbPatchesConstraint(int minNP, int maxNP) {
         new NbPatchesConstraint(self(), minNP, maxNP).post();
+        self().recordConstraint(p -> p.postNbPatchesConstraint(minNP, maxNP));
     }
 
     default void postCompactnessConstraint(double maxDiameter) {
         new CompactnessConstraint(self(), maxDiameter).post();
+        self().recordConstraint(p -> p.postCompactnessConstraint(maxDiameter));
     }
 
     default void postCompactnessConstraint(double minDiameter, double maxDiameter) {
         new CompactnessConstraint(self(), minDiameter, maxDiameter).post();
+        self().recordConstraint(p -> p.postCompactnessConstraint(minDiameter, maxDiameter));
     }
 
     default void postRestorableConstraint(int minAreaToRestore, int maxAreaToRestore, double minProportion) throws RestoptException {
         new RestorableAreaConstraint(self(), minAreaToRestore, maxAreaToRestore, minProportion).post();
+        self().recordConstraint(p -> p.postRestorableConstraint(minAreaToRestore, maxAreaToRestore, minProportion));
     }
 
     default void postMinMeshConstraint(double minMesh, int precision) throws RestoptException {
         new EffectiveMeshSizeConstraint(self(), minMesh, self().getLandscapeArea(), precision).post();
+        self().recordConstraint(p -> p.postMinMeshConstraint(minMesh, precision));
     }
 
     default void postMinIICConstraint(double minIIC, int distanceThreshold, int precision) throws RestoptException {
         new IntegralIndexOfConnectivityConstraint(self(), minIIC, 1, distanceThreshold, precision).post();
+        self().recordConstraint(p -> p.postMinIICConstraint(minIIC, distanceThreshold, precision));
+    }
+
+    default void postMinIICConstraint(double minIIC, int distanceThreshold, int precision, int nbThreads) throws RestoptException {
+        new IntegralIndexOfConnectivityConstraint(self(), minIIC, 1, distanceThreshold, precision, nbThreads).post();
+        self().recordConstraint(p -> p.postMinIICConstraint(minIIC, distanceThreshold, precision, nbThreads));
     }
 
     default void postNoNewPatchConstraint() {
         new NoNewPatchConstraint(self()).post();
+        self().recordConstraint(p -> p.postNoNewPatchConstraint());
+    }
+
+    /**
+     * Restrict the restoration area to the planning units with at least one pixel in allowedPixels (complete grid
+     * indices).
+     */
+    default void postAllowedAreaConstraint(int[] allowedPixels) {
+        new AllowedAreaConstraint(self(), allowedPixels).post();
+        self().recordConstraint(p -> p.postAllowedAreaConstraint(allowedPixels));
     }
 }
\ No newline at end of file
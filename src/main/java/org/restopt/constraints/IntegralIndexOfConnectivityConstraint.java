@@ -3,7 +3,7 @@ package org.restopt.constraints;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.restopt.RestoptProblem;
-import org.restopt.choco.PropIIC;
+import org.restopt.choco.PropIICIncremental;
 import org.restopt.exception.RestoptException;
 
 public class IntegralIndexOfConnectivityConstraint extends AbstractRestoptConstraint {
@@ -17,10 +17,20 @@ public class IntegralIndexOfConnectivityConstraint extends AbstractRestoptConstr
 
     protected int precision;
 
+    protected int nbThreads;
+
     protected IntVar iic;
 
     public IntegralIndexOfConnectivityConstraint(RestoptProblem restoptProblem, double minIIC, double maxIIC,
                                                  int distanceThreshold, int precision) throws RestoptException {
+        this(restoptProblem, minIIC, maxIIC, distanceThreshold, precision, 1);
+    }
+
+    /**
+     * @param nbThreads The number of threads used to compute the IIC bounds (1 for sequential computation).
+     */
+    public IntegralIndexOfConnectivityConstraint(RestoptProblem restoptProblem, double minIIC, double maxIIC,
+                                                 int distanceThreshold, int precision, int nbThreads) throws RestoptException {
         super(restoptProblem);
         if (minIIC < 0 || maxIIC > 1) {
             throw new RestoptException("min and max IIC must be comprised between 0 and 1");
@@ -28,10 +38,14 @@ public class IntegralIndexOfConnectivityConstraint extends AbstractRestoptConstr
         if (distanceThreshold <= 0) {
             throw new RestoptException("Distance threshold for IIC must be at least 1");
         }
+        if (nbThreads <= 0) {
+            throw new RestoptException("The number of threads for IIC must be at least 1");
+        }
         this.minIIC = (int) (minIIC * Math.pow(10, precision));
         this.maxIIC = (int) (maxIIC * Math.pow(10, precision));
         this.distanceThreshold = distanceThreshold;
         this.precision = precision;
+        this.nbThreads = nbThreads;
         problem.setIICConstraint(this);
     }
 
@@ -45,14 +59,16 @@ public class IntegralIndexOfConnectivityConstraint extends AbstractRestoptConstr
             this.iic = problem.getModel().intVar(minIIC, maxIIC);
             Constraint consIIC = new Constraint(
                     "IIC_constraint",
-                    new PropIIC(
+                    new PropIICIncremental(
                             problem.getHabitatGraphVar(),
                             iic,
                             problem.getGrid(),
                             problem.getLandscapeArea(),
                             distanceThreshold + 1,
+                            problem.getThresholdNeighborhoodIndex(distanceThreshold + 1),
                             precision,
-                            false
+                            false,
+                            nbThreads
                     )
             );
             problem.getModel().post(consIIC);
@@ -63,6 +79,10 @@ public class IntegralIndexOfConnectivityConstraint extends AbstractRestoptConstr
         return precision;
     }
 
+    public int getNbThreads() {
+        return nbThreads;
+    }
+
     public IntVar getIic() {
         return iic;
     }
@@ -0,0 +1,212 @@
+package org.restopt.grid.neighborhood;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.util.objects.graphs.GraphFactory;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.restopt.grid.Grid;
+import org.restopt.grid.neighborhood.regular.square.partial.grouped.PartialGroupedKWideFourConnected;
+import org.restopt.grid.regular.square.GroupedGrid;
+
+import java.util.Arrays;
+
+/**
+ * Compact (CSR) storage of a neighborhood relation over all the cells of a grid: the neighbors of cell i are
+ * stored in targets[offsets[i]] ... targets[offsets[i + 1] - 1]. Memory footprint is O(n + m), where n is the number
+ * of cells and m the number of neighborhood pairs, and the index can be shared between propagators, graph builders
+ * and solution metrics.
+ *
+ * @author Dimitri Justeau-Allaire
+ */
+public class NeighborhoodIndex {
+
+    private final int[] offsets;
+    private final int[] targets;
+
+    /**
+     * @param offsets Array of size n + 1, offsets[i] is the position of the first neighbor of i in targets.
+     * @param targets The neighbors of all the cells, contiguously stored.
+     */
+    public NeighborhoodIndex(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Build an index from an adjacency stored as an array of arrays.
+     */
+    public static NeighborhoodIndex of(int[][] neighs) {
+        int[] offsets = new int[neighs.length + 1];
+        for (int i = 0; i < neighs.length; i++) {
+            offsets[i + 1] = offsets[i] + neighs[i].length;
+        }
+        int[] targets = new int[offsets[neighs.length]];
+        for (int i = 0; i < neighs.length; i++) {
+            System.arraycopy(neighs[i], 0, targets, offsets[i], neighs[i].length);
+        }
+        return new NeighborhoodIndex(offsets, targets);
+    }
+
+    /**
+     * Build the index of a neighborhood over all the cells of a grid.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Grid> NeighborhoodIndex build(INeighborhood<T> neighborhood, T grid) {
+        if (neighborhood instanceof PartialGroupedKWideFourConnected) {
+            return buildKWide((PartialGroupedKWideFourConnected<GroupedGrid>) neighborhood, (GroupedGrid) grid);
+        }
+        int nbCells = grid.getNbCells();
+        int[] offsets = new int[nbCells + 1];
+        int[] targets = new int[nbCells];
+        int size = 0;
+        for (int i = 0; i < nbCells; i++) {
+            offsets[i] = size;
+            int[] neighbors = neighborhood.getNeighbors(grid, i);
+            targets = append(targets, size, neighbors, neighbors.length);
+            size += neighbors.length;
+        }
+        offsets[nbCells] = size;
+        return new NeighborhoodIndex(offsets, size == targets.length ? targets : Arrays.copyOf(targets, size));
+    }
+
+    /**
+     * Build the index of a k-wide neighborhood with a single workspace, which is only held during the build.
+     */
+    private static NeighborhoodIndex buildKWide(PartialGroupedKWideFourConnected<GroupedGrid> neighborhood,
+                                                GroupedGrid grid) {
+        PartialGroupedKWideFourConnected.Workspace ws = new PartialGroupedKWideFourConnected.Workspace();
+        int nbCells = grid.getNbCells();
+        int[] offsets = new int[nbCells + 1];
+        int[] targets = new int[nbCells];
+        int size = 0;
+        for (int i = 0; i < nbCells; i++) {
+            offsets[i] = size;
+            int n = neighborhood.getNeighbors(grid, i, ws);
+            targets = append(targets, size, ws.getNeighbors(), n);
+            size += n;
+        }
+        offsets[nbCells] = size;
+        return new NeighborhoodIndex(offsets, size == targets.length ? targets : Arrays.copyOf(targets, size));
+    }
+
+    private static int[] append(int[] targets, int size, int[] neighbors, int n) {
+        if (size + n > targets.length) {
+            targets = Arrays.copyOf(targets, Math.max(2 * targets.length, size + n));
+        }
+        System.arraycopy(neighbors, 0, targets, size, n);
+        return targets;
+    }
+
+    /**
+     * @return The number of cells of the index.
+     */
+    public int getNbCells() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return The position of the first neighbor of i.
+     */
+    public int getStart(int i) {
+        return offsets[i];
+    }
+
+    /**
+     * @return The position following the last neighbor of i.
+     */
+    public int getEnd(int i) {
+        return offsets[i + 1];
+    }
+
+    /**
+     * @return The neighbor stored at position k.
+     */
+    public int getTarget(int k) {
+        return targets[k];
+    }
+
+    /**
+     * @return The number of neighbors of i.
+     */
+    public int getDegree(int i) {
+        return offsets[i + 1] - offsets[i];
+    }
+
+    /**
+     * @return A copy of the neighbors of i.
+     */
+    public int[] getNeighbors(int i) {
+        return Arrays.copyOfRange(targets, offsets[i], offsets[i + 1]);
+    }
+
+    /**
+     * @return The total number of stored neighborhood pairs.
+     */
+    public int getNbTargets() {
+        return targets.length;
+    }
+
+    /**
+     * @return The offsets array of the index (must not be modified).
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * @return The targets array of the index (must not be modified).
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return The memory footprint of the index arrays, in bytes (array headers excluded).
+     */
+    public long getMemoryFootprint() {
+        return 4L * (offsets.length + targets.length);
+    }
+
+    /**
+     * @param model       The model to be associated with the graph.
+     * @param cells       The cells to be included in the graph.
+     * @param nodeSetType The SetType to use for encoding the nodes.
+     * @param edgeSetType The SetType to use for encoding the edges.
+     * @return The (stored) partial graph associated to a subset of cells, equivalent to
+     * INeighborhood.getPartialGraph(grid, model, cells, nodeSetType, edgeSetType).
+     */
+    public UndirectedGraph getPartialGraph(Model model, int[] cells, SetType nodeSetType, SetType edgeSetType) {
+        UndirectedGraph partialGraph = GraphFactory.makeStoredUndirectedGraph(model, getNbCells(), nodeSetType, edgeSetType);
+        fillPartialGraph(partialGraph, cells);
+        return partialGraph;
+    }
+
+    /**
+     * @param cells       The cells to be included in the graph.
+     * @param nodeSetType The SetType to use for encoding the nodes.
+     * @param edgeSetType The SetType to use for encoding the edges.
+     * @return The (non-backtrackable) partial graph associated to a subset of cells, equivalent to
+     * INeighborhood.getPartialGraph(grid, cells, nodeSetType, edgeSetType).
+     */
+    public UndirectedGraph getPartialGraph(int[] cells, SetType nodeSetType, SetType edgeSetType) {
+        UndirectedGraph partialGraph = GraphFactory.makeUndirectedGraph(getNbCells(), nodeSetType, edgeSetType);
+        fillPartialGraph(partialGraph, cells);
+        return partialGraph;
+    }
+
+    private void fillPartialGraph(UndirectedGraph partialGraph, int[] cells) {
+        boolean[] in = new boolean[getNbCells()];
+        for (int i : cells) {
+            partialGraph.addNode(i);
+            in[i] = true;
+        }
+        for (int i : cells) {
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                int j = targets[k];
+                if (in[j]) {
+                    partialGraph.addEdge(i, j);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.restopt.grid.neighborhood.regular.square;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Row / column offsets of the discrete disk of radius k (union of the Andres circles of radius 1 to k, center
+ * excluded), i.e. the k-wide four-connected neighborhood of a cell in a regular square grid. Stencils are computed
+ * once per radius and cached, the offsets are sorted by row then column, so that the complete indices of the
+ * neighbors of a cell are emitted in increasing order.
+ */
+public class DiskStencil {
+
+    private static final ConcurrentHashMap<Integer, DiskStencil> CACHE = new ConcurrentHashMap<>();
+
+    private final int radius;
+    private final int[] dRows;
+    private final int[] dCols;
+
+    private DiskStencil(int radius) {
+        this.radius = radius;
+        int w = 2 * radius + 1;
+        boolean[] inDisk = new boolean[w * w];
+        for (int r = 1; r <= radius; r++) {
+            markCircle(r, inDisk, w);
+        }
+        List<int[]> offsets = new ArrayList<>();
+        for (int dr = -radius; dr <= radius; dr++) {
+            for (int dc = -radius; dc <= radius; dc++) {
+                if (inDisk[(dr + radius) * w + dc + radius]) {
+                    offsets.add(new int[] {dr, dc});
+                }
+            }
+        }
+        this.dRows = new int[offsets.size()];
+        this.dCols = new int[offsets.size()];
+        for (int i = 0; i < offsets.size(); i++) {
+            dRows[i] = offsets.get(i)[0];
+            dCols[i] = offsets.get(i)[1];
+        }
+    }
+
+    /**
+     * @return The (cached) stencil of the disk of radius k.
+     */
+    public static DiskStencil of(int k) {
+        return CACHE.computeIfAbsent(k, DiskStencil::new);
+    }
+
+    /**
+     * Andres algorithm (same as KWideFourConnected.discreteCircle), centered on (radius, radius).
+     */
+    private void markCircle(int r, boolean[] inDisk, int w) {
+        int x = 0;
+        int y = r;
+        int d = r - 1;
+        while (y >= x) {
+            int[][] points = new int[][] {
+                    {y, x}, {x, y}, {y, -x}, {x, -y}, {-y, x}, {-x, y}, {-y, -x}, {-x, -y}
+            };
+            for (int[] p : points) {
+                inDisk[(p[0] + radius) * w + p[1] + radius] = true;
+            }
+            if (d >= 2 * x) {
+                d -= 2 * x + 1;
+                x++;
+            } else if (d < 2 * (r - y)) {
+                d += 2 * y - 1;
+                y--;
+            } else {
+                d += 2 * (y - x - 1);
+                y--;
+                x++;
+            }
+        }
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * @return The number of offsets of the stencil.
+     */
+    public int size() {
+        return dRows.length;
+    }
+
+    public int getDRow(int i) {
+        return dRows[i];
+    }
+
+    public int getDCol(int i) {
+        return dCols[i];
+    }
+
+    /**
+     * Write the complete indices of the cells of the disk centered on (row, col), clipped to the grid boundaries,
+     * in increasing order.
+     *
+     * @param buffer Output buffer, of size at least size().
+     * @return The number of indices written in buffer.
+     */
+    public int fill(int row, int col, int nbRows, int nbCols, int[] buffer) {
+        int n = 0;
+        for (int i = 0; i < dRows.length; i++) {
+            int r = row + dRows[i];
+            int c = col + dCols[i];
+            if (r >= 0 && r < nbRows && c >= 0 && c < nbCols) {
+                buffer[n++] = r * nbCols + c;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return The complete indices of the cells of the disk centered on (row, col), clipped to the grid boundaries,
+     * in increasing order.
+     */
+    public int[] getNeighbors(int row, int col, int nbRows, int nbCols) {
+        int[] buffer = new int[dRows.length];
+        return Arrays.copyOf(buffer, fill(row, col, nbRows, nbCols, buffer));
+    }
+}
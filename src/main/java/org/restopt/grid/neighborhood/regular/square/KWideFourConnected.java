@@ -41,7 +41,11 @@ public class KWideFourConnected<T extends RegularSquareGrid> implements INeighbo
 
     public int[] getNeighbors(T grid, int i) {
         int[] c = grid.getCoordinatesFromIndex(i);
-        return discreteDisk(c[1], c[0], k, grid).toArray();
+        if (grid.getClass() != RegularSquareGrid.class) {
+            // Subclasses may remap the indices of the cells (e.g. partial grids)
+            return discreteDisk(c[1], c[0], k, grid).toArray();
+        }
+        return DiskStencil.of(k).getNeighbors(c[0], c[1], grid.getNbRows(), grid.getNbCols());
     }
 
     public static ISet discreteDisk(int x_centre, int y_centre, int k, RegularSquareGrid grid) {
@@ -22,21 +22,78 @@
 
 package org.restopt.grid.neighborhood.regular.square.partial.grouped;
 
-import org.chocosolver.util.objects.setDataStructures.ISet;
-import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.restopt.grid.neighborhood.INeighborhood;
-import org.restopt.grid.neighborhood.Neighborhoods;
-import org.restopt.grid.neighborhood.regular.square.KWideFourConnected;
-import org.restopt.grid.regular.square.PartialRegularGroupedGrid;
-import org.restopt.grid.regular.square.RegularSquareGrid;
+import org.restopt.grid.neighborhood.regular.square.DiskStencil;
+import org.restopt.grid.regular.square.GroupedGrid;
 
-import java.util.stream.IntStream;
+import java.util.Arrays;
 
 
 /**
- * The k-wide four-connected neighborhood in a partial grouped regular square grid
+ * The k-wide four-connected neighborhood in a partial grouped regular square grid, possibly aggregated: two grouped
+ * cells (groups, ungrouped cells or aggregates) are neighbors if one of their pixels is in the k-wide disk of a pixel
+ * of the other one. The disk of each pixel is given by a precomputed stencil (see DiskStencil). When enumerating the
+ * neighbors of many cells (e.g. NeighborhoodIndex.build), the neighbors are deduplicated with a caller-owned workspace,
+ * so that no temporary set or grid is allocated for each cell.
  */
-public class PartialGroupedKWideFourConnected<T extends PartialRegularGroupedGrid> implements INeighborhood<T> {
+public class PartialGroupedKWideFourConnected<T extends GroupedGrid> implements INeighborhood<T> {
+
+    /**
+     * Reusable buffers for the enumeration of the neighbors of a cell. A workspace must not be shared between threads.
+     */
+    public static class Workspace {
+
+        private int[] disk = new int[0];
+        // marks[j] == epoch iff the grouped cell j was already emitted during the current enumeration
+        private int[] marks = new int[0];
+        private int epoch;
+        private int[] neighbors = new int[16];
+        private int size;
+
+        /**
+         * @return The buffer containing the neighbors of the last enumerated cell (only the size() first values are
+         * relevant).
+         */
+        public int[] getNeighbors() {
+            return neighbors;
+        }
+
+        /**
+         * @return The number of neighbors of the last enumerated cell.
+         */
+        public int size() {
+            return size;
+        }
+
+        private void reset(int nbCells, int diskSize) {
+            if (disk.length < diskSize) {
+                disk = new int[diskSize];
+            }
+            if (marks.length < nbCells) {
+                marks = new int[nbCells];
+                epoch = 0;
+            }
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+            size = 0;
+        }
+
+        private void mark(int groupedIdx) {
+            marks[groupedIdx] = epoch;
+        }
+
+        private void add(int groupedIdx) {
+            if (marks[groupedIdx] != epoch) {
+                marks[groupedIdx] = epoch;
+                if (size == neighbors.length) {
+                    neighbors = Arrays.copyOf(neighbors, 2 * size);
+                }
+                neighbors[size++] = groupedIdx;
+            }
+        }
+    }
 
     private int k;
 
@@ -45,26 +102,66 @@ public class PartialGroupedKWideFourConnected<T extends PartialRegularGroupedGri
     }
 
     public int[] getNeighbors(T grid, int groupedIdx) {
-        KWideFourConnected kFour = Neighborhoods.K_WIDE_FOUR_CONNECTED(k);
-        ISet points;
-        if (groupedIdx < grid.getNbGroups()) {
-            points = SetFactory.makeConstantSet(
-                    IntStream.of(grid.getGroup(groupedIdx).toArray())
-                        .map(i -> grid.getCompleteIndex(i))
-                        .toArray()
-            );
-        } else {
-            points = SetFactory.makeConstantSet(new int[] {grid.getUngroupedCompleteIndex(groupedIdx)});
-        }
-        RegularSquareGrid compGrid = new RegularSquareGrid(grid.getNbRows(), grid.getNbCols());
-        ISet neigh = SetFactory.makeRangeSet();
-        for (int i : points) {
-            for (int j : kFour.getNeighbors(compGrid, i)) {
-                if (!grid.getDiscardSet().contains(j) && j != i && grid.getGroupIndexFromCompleteIndex(j) != groupedIdx) {
-                    neigh.add(grid.getGroupIndexFromCompleteIndex(j));
+        // Stand-alone enumeration: deduplicate by sorting, to avoid allocating the O(n) marks of a workspace
+        DiskStencil stencil = DiskStencil.of(k);
+        int nbRows = grid.getNbRows();
+        int nbCols = grid.getNbCols();
+        int[] disk = new int[stencil.size()];
+        int[] neighbors = new int[16];
+        int size = 0;
+        for (int i : grid.getCellPartialIndices(groupedIdx)) {
+            int completeIdx = grid.getCompleteIndex(i);
+            int n = stencil.fill(completeIdx / nbCols, completeIdx % nbCols, nbRows, nbCols, disk);
+            for (int p = 0; p < n; p++) {
+                int partialIdx = grid.getPartialIndex(disk[p]);
+                if (partialIdx >= 0) {
+                    int neigh = grid.getGroupIndexFromPartialIndex(partialIdx);
+                    if (neigh != groupedIdx) {
+                        if (size == neighbors.length) {
+                            neighbors = Arrays.copyOf(neighbors, 2 * size);
+                        }
+                        neighbors[size++] = neigh;
+                    }
                 }
             }
         }
-        return neigh.toArray();
+        Arrays.sort(neighbors, 0, size);
+        int nbDistinct = 0;
+        for (int p = 0; p < size; p++) {
+            if (nbDistinct == 0 || neighbors[p] != neighbors[nbDistinct - 1]) {
+                neighbors[nbDistinct++] = neighbors[p];
+            }
+        }
+        return Arrays.copyOf(neighbors, nbDistinct);
+    }
+
+    /**
+     * Enumerate the neighbors of a grouped cell into the buffer of a workspace, in increasing order.
+     *
+     * @param grid       The grid.
+     * @param groupedIdx The grouped index of the cell.
+     * @param ws         The workspace receiving the neighbors (see Workspace.getNeighbors()).
+     * @return The number of neighbors.
+     */
+    public int getNeighbors(T grid, int groupedIdx, Workspace ws) {
+        DiskStencil stencil = DiskStencil.of(k);
+        ws.reset(grid.getNbCells(), stencil.size());
+        ws.mark(groupedIdx);
+        for (int i : grid.getCellPartialIndices(groupedIdx)) {
+            addDisk(grid, grid.getCompleteIndex(i), stencil, ws);
+        }
+        Arrays.sort(ws.neighbors, 0, ws.size);
+        return ws.size;
+    }
+
+    private static void addDisk(GroupedGrid grid, int completeIdx, DiskStencil stencil, Workspace ws) {
+        int nbCols = grid.getNbCols();
+        int n = stencil.fill(completeIdx / nbCols, completeIdx % nbCols, grid.getNbRows(), nbCols, ws.disk);
+        for (int p = 0; p < n; p++) {
+            int partialIdx = grid.getPartialIndex(ws.disk[p]);
+            if (partialIdx >= 0) {
+                ws.add(grid.getGroupIndexFromPartialIndex(partialIdx));
+            }
+        }
     }
 }
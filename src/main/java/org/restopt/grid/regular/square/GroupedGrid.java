@@ -1,5 +1,7 @@
 package org.restopt.grid.regular.square;
 
+import java.util.BitSet;
+
 public abstract class GroupedGrid extends PartialRegularSquareGrid {
 
     public GroupedGrid(int nbRows, int nbCols, int[] toDiscard) {
@@ -17,4 +19,28 @@ public abstract class GroupedGrid extends PartialRegularSquareGrid {
     }
 
     public abstract int getGroupIndexFromPartialIndex(int partialIndex);
+
+    /**
+     * @param groupedIdx A grouped cell index (group, ungrouped cell or aggregate).
+     * @return The partial indices of the pixels of the grouped cell.
+     */
+    public abstract int[] getCellPartialIndices(int groupedIdx);
+
+    /**
+     * @param completeIndices Pixels, as complete grid indices.
+     * @return The ungrouped cells (planning units) that contain at least one of the pixels, in increasing order.
+     */
+    public int[] getPlanningUnitsFromCompleteIndices(int[] completeIndices) {
+        BitSet pus = new BitSet(getNbCells());
+        for (int i : completeIndices) {
+            int partial = getPartialIndex(i);
+            if (partial >= 0) {
+                int pu = getGroupIndexFromPartialIndex(partial);
+                if (pu >= getNbGroups()) {
+                    pus.set(pu);
+                }
+            }
+        }
+        return pus.stream().toArray();
+    }
 }
@@ -8,48 +8,57 @@ import org.restopt.choco.ConnectivityFinderSpatialGraph;
 import org.restopt.exception.RestoptException;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.IntStream;
 
 public class PartialRegularGroupedAggGrid extends GroupedGrid {
 
     private int[] sizeCells;
     private final int nbGroups;
     private final ISet[] groups;
-    private ISet[] aggregates;
+    // Compact index of the aggregates: the partial indices of aggregate k are stored in
+    // aggregateCells[aggregateStart[k]] ... aggregateCells[aggregateStart[k + 1] - 1]
+    private int[] aggregateStart;
+    private int[] aggregateCells;
     private int nbAggregates;
     private final int nbGroupedCells;
-    private final ISet groupedCells;
-    private final Map<Integer, Integer> gridIdToGroupedId;
+    // Dense lookup table: grouped index of each partial cell
+    private final int[] gridIdToGroupedId;
     private final int aggregationFactor;
 
     public PartialRegularGroupedAggGrid(int nbRows, int nbCols, int[] toDiscard, RasterConnectivityFinder groupGraph, int aggregationFactor) {
         super(nbRows, nbCols, toDiscard);
         this.aggregationFactor = aggregationFactor;
         this.nbGroupedCells = groupGraph.getNbNodes();
-        this.groupedCells = SetFactory.makeConstantSet(groupGraph.getNodesRasterIdx());
         this.nbGroups = groupGraph.getNBCC();
         this.sizeCells = new int[super.getNbCells() - nbGroupedCells + nbGroups];
         this.groups = new ISet[nbGroups];
-        this.gridIdToGroupedId = new HashMap<>();
+        this.gridIdToGroupedId = new int[super.getNbCells()];
+        Arrays.fill(gridIdToGroupedId, -1);
 
-        // Compute aggregates
+        // Compute aggregates (each ungrouped partial cell belongs to exactly one aggregate)
         int nbMaxAggregates = (int) (Math.ceil(1.0 * nbCols / aggregationFactor) * Math.ceil(1.0 * nbRows / aggregationFactor));
         this.nbAggregates = 0;
-        this.aggregates = new ISet[nbMaxAggregates];
+        this.aggregateStart = new int[nbMaxAggregates + 1];
+        this.aggregateCells = new int[super.getNbCells()];
+        int size = 0;
         for (int i = 0; i < nbMaxAggregates; i++) {
-            int[] agg = IntStream.of(getMaxAggregate(i)).filter(v -> !isGrouped(getCompleteIndex(v))).toArray();
-            if (agg.length > 0) {
-                aggregates[nbAggregates] = SetFactory.makeConstantSet(agg);
-                for (int v : agg) {
-                    gridIdToGroupedId.put(v, nbAggregates + nbGroups);
+            int aggSize = 0;
+            for (int v : getMaxAggregate(i)) {
+                if (groupGraph.getGraphIdx(getCompleteIndex(v)) == -1) {
+                    aggregateCells[size + aggSize] = v;
+                    gridIdToGroupedId[v] = nbAggregates + nbGroups;
+                    aggSize++;
                 }
-                sizeCells[nbAggregates + nbGroups] = agg.length;
+            }
+            if (aggSize > 0) {
+                aggregateStart[nbAggregates] = size;
+                sizeCells[nbAggregates + nbGroups] = aggSize;
+                size += aggSize;
                 nbAggregates++;
             }
         }
-        this.aggregates = Arrays.copyOfRange(aggregates, 0, nbAggregates);
+        aggregateStart[nbAggregates] = size;
+        this.aggregateStart = Arrays.copyOfRange(aggregateStart, 0, nbAggregates + 1);
+        this.aggregateCells = Arrays.copyOfRange(aggregateCells, 0, size);
 
         for (int cc = 0; cc < nbGroups; cc++) {
             int sizeCC = groupGraph.getSizeCC()[cc];
@@ -65,15 +74,11 @@ public class PartialRegularGroupedAggGrid extends GroupedGrid {
 
         for (int cc = 0; cc < nbGroups; cc++) {
             for (int i : groups[cc]) {
-                gridIdToGroupedId.put(i, cc);
+                gridIdToGroupedId[i] = cc;
             }
         }
     }
 
-    private boolean isGrouped(int completeIndex) {
-        return groupedCells.contains(completeIndex);
-    }
-
     private int[] getMaxAggregate(int idx) {
         int[] agg = new int[aggregationFactor * aggregationFactor];
         int i = 0;
@@ -84,7 +89,7 @@ public class PartialRegularGroupedAggGrid extends GroupedGrid {
             for (int col = 0; col < aggregationFactor; col++) {
                 if ((row + offsetRow) < getNbRows() && (col + offsetCol) < getNbCols()) {
                     int compIdx = getCompleteIndexFromCoordinates((row + offsetRow), col + offsetCol);
-                    if (!getDiscardSet().contains(compIdx)) {
+                    if (getPartialIndex(compIdx) >= 0) {
                         agg[i] = getPartialIndex(compIdx);
                         i++;
                     }
@@ -123,7 +128,8 @@ public class PartialRegularGroupedAggGrid extends GroupedGrid {
         if (aggregateIdx < nbGroups) {
             throw new RuntimeException("Wrong aggregate index");
         }
-        return aggregates[aggregateIdx - nbGroups].toArray();
+        int k = aggregateIdx - nbGroups;
+        return Arrays.copyOfRange(aggregateCells, aggregateStart[k], aggregateStart[k + 1]);
     }
 
 /*    public int getUngroupedPartialIndex(int groupedIdx) {
@@ -137,9 +143,12 @@ public class PartialRegularGroupedAggGrid extends GroupedGrid {
         if (aggregateIdx < nbGroups) {
             throw new RuntimeException("Wrong aggregate index");
         }
-        return IntStream.of(aggregates[aggregateIdx - nbGroups].toArray())
-                .map(i -> getCompleteIndex(i))
-                .toArray();
+        int k = aggregateIdx - nbGroups;
+        int[] indices = new int[aggregateStart[k + 1] - aggregateStart[k]];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = getCompleteIndex(aggregateCells[aggregateStart[k] + i]);
+        }
+        return indices;
     }
 
     @Override
@@ -162,15 +171,19 @@ public class PartialRegularGroupedAggGrid extends GroupedGrid {
 
     public int getGroupIndexFromCompleteIndex(int completeIndex) {
         int partialIndex = getPartialIndex(completeIndex);
-        return gridIdToGroupedId.get(partialIndex);
+        return gridIdToGroupedId[partialIndex];
     }
 
     public int getGroupIndexFromPartialIndex(int partialIndex) {
-        if (!gridIdToGroupedId.containsKey(partialIndex)) {
-            System.out.println(partialIndex);
-            System.out.println(groupedCells.contains(getCompleteIndex(partialIndex)));
+        return gridIdToGroupedId[partialIndex];
+    }
+
+    @Override
+    public int[] getCellPartialIndices(int groupedIdx) {
+        if (groupedIdx < nbGroups) {
+            return groups[groupedIdx].toArray();
         }
-        return gridIdToGroupedId.get(partialIndex);
+        return getAggregatePartialIndices(groupedIdx);
     }
 
     /**
@@ -189,7 +202,7 @@ public class PartialRegularGroupedAggGrid extends GroupedGrid {
         if (aggregateIdx < getNbGroups()) {
             throw new RestoptException("Cannot associate cartesian coordinates to a grouped cell");
         }
-        int[] agg = aggregates[aggregateIdx - nbGroups].toArray();
+        int[] agg = getAggregatePartialIndices(aggregateIdx);
         double[] coords = new double[] {0, 0};
         for (int i = 0; i < agg.length; i++) {
             double[] c = getCartesianCoordinatesFromPartialIndex(agg[i]);
@@ -5,8 +5,7 @@ import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.restopt.RasterConnectivityFinder;
 import org.restopt.exception.RestoptException;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.stream.IntStream;
 
 public class PartialRegularGroupedGrid extends GroupedGrid {
@@ -16,7 +15,8 @@ public class PartialRegularGroupedGrid extends GroupedGrid {
     private final ISet[] groups;
     private final int nbGroupedCells;
     private final int[] unGroupedId;
-    private final Map<Integer, Integer> gridIdToGroupedId;
+    // Dense lookup table: grouped index of each partial cell
+    private final int[] gridIdToGroupedId;
 
     public PartialRegularGroupedGrid(int nbRows, int nbCols, int[] toDiscard, RasterConnectivityFinder groupGraph) {
         this(nbRows, nbCols, toDiscard, groupGraph, 4);
@@ -37,17 +37,18 @@ public class PartialRegularGroupedGrid extends GroupedGrid {
             }
             groups[cc] = SetFactory.makeConstantSet(g);
         }
-        this.gridIdToGroupedId = new HashMap<>();
+        this.gridIdToGroupedId = new int[super.getNbCells()];
+        Arrays.fill(gridIdToGroupedId, -1);
         for (int cc = 0; cc < nbGroups; cc++) {
             for (int i : groups[cc]) {
-                gridIdToGroupedId.put(i, cc);
+                gridIdToGroupedId[i] = cc;
             }
         }
         this.unGroupedId = new int[getNbCells() - nbGroups];
         int nbNotGrouped = 0;
-        for (int i = 0; i < super.getNbCells(); i++) {
-            if (!gridIdToGroupedId.containsKey(i)) {
-                gridIdToGroupedId.put(i, nbNotGrouped + nbGroups);
+        for (int i = 0; i < gridIdToGroupedId.length; i++) {
+            if (gridIdToGroupedId[i] == -1) {
+                gridIdToGroupedId[i] = nbNotGrouped + nbGroups;
                 unGroupedId[nbNotGrouped] = i;
                 sizeCells[nbNotGrouped + nbGroups] = 1;
                 nbNotGrouped++;
@@ -96,11 +97,19 @@ public class PartialRegularGroupedGrid extends GroupedGrid {
 
     public int getGroupIndexFromCompleteIndex(int completeIndex) {
         int partialIndex = getPartialIndex(completeIndex);
-        return gridIdToGroupedId.get(partialIndex);
+        return gridIdToGroupedId[partialIndex];
     }
 
     public int getGroupIndexFromPartialIndex(int partialIndex) {
-        return gridIdToGroupedId.get(partialIndex);
+        return gridIdToGroupedId[partialIndex];
+    }
+
+    @Override
+    public int[] getCellPartialIndices(int groupedIdx) {
+        if (groupedIdx < nbGroups) {
+            return groups[groupedIdx].toArray();
+        }
+        return new int[] {unGroupedId[groupedIdx - nbGroups]};
     }
 
     /**
@@ -0,0 +1,38 @@
+package org.restopt.layer;
+
+/**
+ * Binary (0/1) layer, one bit per pixel.
+ */
+public class BitLayer implements IntLayer {
+
+    private final long[] words;
+    private final int size;
+
+    /**
+     * @param values Values of the layer, all equal to 0 or 1.
+     */
+    public BitLayer(int[] values) {
+        this.size = values.length;
+        this.words = new long[(size + 63) >>> 6];
+        for (int i = 0; i < size; i++) {
+            if (values[i] != 0) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int i) {
+        return (int) (words[i >>> 6] >>> i) & 1;
+    }
+
+    @Override
+    public long getMemoryFootprint() {
+        return 8L * words.length;
+    }
+}
@@ -0,0 +1,31 @@
+package org.restopt.layer;
+
+/**
+ * Integer layer whose values fit in a byte.
+ */
+public class ByteLayer implements IntLayer {
+
+    private final byte[] values;
+
+    public ByteLayer(int[] values) {
+        this.values = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            this.values[i] = (byte) values[i];
+        }
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public int get(int i) {
+        return values[i];
+    }
+
+    @Override
+    public long getMemoryFootprint() {
+        return 1L * values.length;
+    }
+}
@@ -0,0 +1,33 @@
+package org.restopt.layer;
+
+/**
+ * Read-only raster layer of real values, indexed by raster (complete) index.
+ */
+public interface DoubleLayer {
+
+    /**
+     * @return The number of pixels of the layer.
+     */
+    int size();
+
+    /**
+     * @return The value of pixel i.
+     */
+    double get(int i);
+
+    /**
+     * @return The heap memory footprint of the layer values, in bytes.
+     */
+    long getMemoryFootprint();
+
+    /**
+     * @return A new array containing all the values of the layer.
+     */
+    default double[] toArray() {
+        double[] values = new double[size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,31 @@
+package org.restopt.layer;
+
+/**
+ * Real layer stored in single precision.
+ */
+public class FloatLayer implements DoubleLayer {
+
+    private final float[] values;
+
+    public FloatLayer(double[] values) {
+        this.values = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            this.values[i] = (float) values[i];
+        }
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public double get(int i) {
+        return values[i];
+    }
+
+    @Override
+    public long getMemoryFootprint() {
+        return 4L * values.length;
+    }
+}
@@ -0,0 +1,33 @@
+package org.restopt.layer;
+
+/**
+ * Integer layer backed by an int array (no packing).
+ */
+public class IntArrayLayer implements IntLayer {
+
+    private final int[] values;
+
+    public IntArrayLayer(int[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public int get(int i) {
+        return values[i];
+    }
+
+    @Override
+    public long getMemoryFootprint() {
+        return 4L * values.length;
+    }
+
+    @Override
+    public int[] toArray() {
+        return values.clone();
+    }
+}
@@ -0,0 +1,41 @@
+package org.restopt.layer;
+
+/**
+ * Factory of packed layers: values are stored with the narrowest type able to represent them exactly.
+ */
+public class Layers {
+
+    /**
+     * @return A BitLayer if all values are 0 or 1, otherwise a ByteLayer, ShortLayer or IntArrayLayer according to
+     * the range of the values.
+     */
+    public static IntLayer pack(int[] values) {
+        int min = 0;
+        int max = 0;
+        for (int v : values) {
+            if (v < min) {
+                min = v;
+            } else if (v > max) {
+                max = v;
+            }
+        }
+        if (min >= 0 && max <= 1) {
+            return new BitLayer(values);
+        }
+        if (min >= Byte.MIN_VALUE && max <= Byte.MAX_VALUE) {
+            return new ByteLayer(values);
+        }
+        if (min >= Short.MIN_VALUE && max <= Short.MAX_VALUE) {
+            return new ShortLayer(values);
+        }
+        return new IntArrayLayer(values);
+    }
+
+    /**
+     * @return A FloatLayer: restorable areas are stored in single precision, which is sufficient since they are
+     * rounded to integers in the model.
+     */
+    public static DoubleLayer pack(double[] values) {
+        return new FloatLayer(values);
+    }
+}
@@ -0,0 +1,31 @@
+package org.restopt.layer;
+
+/**
+ * Integer layer whose values fit in a short.
+ */
+public class ShortLayer implements IntLayer {
+
+    private final short[] values;
+
+    public ShortLayer(int[] values) {
+        this.values = new short[values.length];
+        for (int i = 0; i < values.length; i++) {
+            this.values[i] = (short) values[i];
+        }
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public int get(int i) {
+        return values[i];
+    }
+
+    @Override
+    public long getMemoryFootprint() {
+        return 2L * values.length;
+    }
+}
@@ -3,14 +3,25 @@ package org.restopt.objectives;
 import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.search.SearchState;
 import org.chocosolver.solver.search.limits.TimeCounter;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.search.loop.lns.INeighborFactory;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.search.loop.lns.neighbors.RandomNeighborhood;
+import org.chocosolver.solver.search.loop.lns.neighbors.SequenceNeighborhood;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
 import org.restopt.RestoptProblem;
 import org.restopt.RestoptSolution;
+import org.restopt.choco.PropMinDistance;
 import org.restopt.exception.RestoptException;
+import org.restopt.search.SpatialNeighborhood;
+import org.restopt.search.WarmStartSelector;
+import org.restopt.telemetry.SolverTelemetry;
+import org.restopt.telemetry.TelemetrySink;
 
 import java.util.*;
 
@@ -29,6 +40,20 @@ public abstract class AbstractRestoptObjective {
                     "FAILURE_LENGTH"
             )));
 
+    /**
+     * LNS neighborhoods: RANDOM (uniform relaxation of the planning units, the default), WINDOW, HABITAT_GROUP and
+     * COMPONENT (spatially structured relaxations, see SpatialNeighborhood), and SPATIAL (the three spatial
+     * neighborhoods in sequence).
+     */
+    public static final Set<String> LNS_NEIGHBORHOOD_KEYS = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList(
+                    "RANDOM",
+                    "WINDOW",
+                    "HABITAT_GROUP",
+                    "COMPONENT",
+                    "SPATIAL"
+            )));
+
     protected RestoptProblem problem;
 
     protected IntVar objective;
@@ -38,7 +63,14 @@ public abstract class AbstractRestoptObjective {
     protected long totalRuntime;
     protected String search;
     protected boolean lns;
+    protected String lnsNeighborhood = "RANDOM";
     protected BoolVar[] decisionVars;
+    // Seed of the random search and of the LNS neighborhood, null for the defaults
+    protected Long seed;
+    // Instrumentation of the solving, null if disabled
+    protected SolverTelemetry telemetry;
+    protected int[] warmStart;
+    protected List<SolutionListener> solutionListeners = new ArrayList<>();
 
     protected int optimalValue;
 
@@ -60,6 +92,70 @@ public abstract class AbstractRestoptObjective {
         this(problem, timeLimit, verbose, maximize, "", false);
     }
 
+    /**
+     * Set the seed of the RANDOM search strategy and of the LNS random neighborhood.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Set the neighborhood used when LNS is activated (see LNS_NEIGHBORHOOD_KEYS).
+     */
+    public void setLNSNeighborhood(String lnsNeighborhood) throws RestoptException {
+        if (!LNS_NEIGHBORHOOD_KEYS.contains(lnsNeighborhood)) {
+            throw new RestoptException("The LNS neighborhood '" + lnsNeighborhood + "' does not exist");
+        }
+        this.lnsNeighborhood = lnsNeighborhood;
+    }
+
+    /**
+     * Guide the search towards a known restoration plan: the first dive of the search tries to restore exactly the
+     * given planning units (e.g. the solution of a coarser problem). As soon as this dive reaches a solution or a
+     * failure, the configured search strategy takes over. A solution found this way is used as the initial bound of
+     * the optimization.
+     *
+     * @param planningUnits The planning units (grouped grid indices) to restore first.
+     */
+    public void setWarmStart(int[] planningUnits) {
+        this.warmStart = planningUnits;
+    }
+
+    /**
+     * Enable the solving telemetry (propagator statistics, search statistics, objective trajectory), sent to the
+     * given sinks during the next call to findOptimalSolution().
+     */
+    public SolverTelemetry enableTelemetry(TelemetrySink... sinks) {
+        this.telemetry = new SolverTelemetry(sinks);
+        return telemetry;
+    }
+
+    /**
+     * @return The solving telemetry, null if it was not enabled.
+     */
+    public SolverTelemetry getTelemetry() {
+        return telemetry;
+    }
+
+    /**
+     * Add a listener notified of each solution as soon as it is found by findOptimalSolution().
+     */
+    public void addSolutionListener(SolutionListener listener) {
+        solutionListeners.add(listener);
+    }
+
+    public void removeSolutionListener(SolutionListener listener) {
+        solutionListeners.remove(listener);
+    }
+
+    public RestoptProblem getProblem() {
+        return problem;
+    }
+
+    public boolean isMaximize() {
+        return maximize;
+    }
+
     public boolean isProvenOptimal() {
         return provenOptimal;
     }
@@ -92,7 +188,7 @@ public abstract class AbstractRestoptObjective {
             }
             switch (this.search) {
                 case "RANDOM":
-                    problem.getModel().getSolver().setSearch(Search.randomSearch(decisionVars, System.currentTimeMillis()));
+                    problem.getModel().getSolver().setSearch(Search.randomSearch(decisionVars, seed != null ? seed : System.currentTimeMillis()));
                     break;
                 case "DOM_OVER_W_DEG":
                     problem.getModel().getSolver().setSearch(Search.domOverWDegSearch(decisionVars));
@@ -129,6 +225,25 @@ public abstract class AbstractRestoptObjective {
 
     public void configureSearch() {
         setSearch();
+        if (warmStart != null) {
+            if (decisionVars == null) {
+                initDecisionVars();
+            }
+            BitSet toRestore = PropMinDistance.toBitSet(warmStart);
+            Set<IntVar> hinted = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i = 0; i < decisionVars.length; i++) {
+                if (toRestore.get(problem.getAvailablePlanningUnits()[i])) {
+                    hinted.add(decisionVars[i]);
+                }
+            }
+            Solver solver = problem.getModel().getSolver();
+            WarmStartSelector warmStartSelector = new WarmStartSelector();
+            solver.plugMonitor(warmStartSelector);
+            solver.setSearch(Search.sequencer(
+                    Search.intVarSearch(warmStartSelector, var -> hinted.contains(var) ? 1 : 0, decisionVars),
+                    solver.getSearch()
+            ));
+        }
         if (lns) {
             if (search.equals("ACTIVITY_BASED")) {
                 System.out.println("Warning: the search strategy '" + this.search + "' is not compatible with LNS. " +
@@ -137,11 +252,36 @@ public abstract class AbstractRestoptObjective {
                 if (decisionVars == null) {
                     initDecisionVars();
                 }
-                problem.getModel().getSolver().setLNS(INeighborFactory.random(decisionVars));
+                problem.getModel().getSolver().setLNS(makeLNSNeighborhood());
             }
         }
     }
 
+    private INeighbor makeLNSNeighborhood() {
+        long s = seed != null ? seed : 0;
+        // Spatial neighborhoods initially relax 5% of the planning units
+        int size = Math.max(4, decisionVars.length / 20);
+        switch (lnsNeighborhood) {
+            case "WINDOW":
+                return new SpatialNeighborhood(problem, decisionVars, SpatialNeighborhood.Type.WINDOW, size, s);
+            case "HABITAT_GROUP":
+                return new SpatialNeighborhood(problem, decisionVars, SpatialNeighborhood.Type.HABITAT_GROUP, size, s);
+            case "COMPONENT":
+                return new SpatialNeighborhood(problem, decisionVars, SpatialNeighborhood.Type.COMPONENT, size, s);
+            case "SPATIAL":
+                return new SequenceNeighborhood(
+                        new SpatialNeighborhood(problem, decisionVars, SpatialNeighborhood.Type.WINDOW, size, s),
+                        new SpatialNeighborhood(problem, decisionVars, SpatialNeighborhood.Type.HABITAT_GROUP, size, s + 1),
+                        new SpatialNeighborhood(problem, decisionVars, SpatialNeighborhood.Type.COMPONENT, size, s + 2)
+                );
+            default:
+                if (seed != null) {
+                    return new RandomNeighborhood(decisionVars, 3, seed);
+                }
+                return INeighborFactory.random(decisionVars);
+        }
+    }
+
     public abstract void initObjective();
 
     public abstract String getInitialValueMessage();
@@ -200,11 +340,32 @@ public abstract class AbstractRestoptObjective {
             System.out.println(getInitialValueMessage());
             solver.showShortStatistics();
         }
+        if (telemetry != null) {
+            telemetry.attach(problem.getModel(), objective);
+        }
+        IMonitorSolution listenersMonitor = null;
+        if (!solutionListeners.isEmpty()) {
+            long t = System.currentTimeMillis();
+            listenersMonitor = () -> notifySolutionListeners(System.currentTimeMillis() - t);
+            solver.plugMonitor(listenersMonitor);
+        }
         List<Solution> solutions;
-        if (timeLimit > 0) {
-            solutions = solve(nbSolutions, timeLimit, optimalityGap);
-        } else {
-            solutions = solve(nbSolutions, optimalityGap);
+        try {
+            if (timeLimit > 0) {
+                solutions = solve(nbSolutions, timeLimit, optimalityGap);
+            } else {
+                solutions = solve(nbSolutions, optimalityGap);
+            }
+        } finally {
+            if (listenersMonitor != null) {
+                solver.unplugMonitor(listenersMonitor);
+            }
+            if (telemetry != null) {
+                telemetry.detach();
+            }
+        }
+        if (telemetry != null) {
+            telemetry.finish(provenOptimal);
         }
         if (solutions.size() == 0) {
             if (verbose) {
@@ -219,6 +380,21 @@ public abstract class AbstractRestoptObjective {
         return restoptSolutions;
     }
 
+    private void notifySolutionListeners(long time) {
+        Solver solver = problem.getModel().getSolver();
+        Integer value = null;
+        double gap = Double.NaN;
+        if (objective != null) {
+            value = objective.getValue();
+            gap = SolverTelemetry.getGap(solver.getObjectiveManager(), value);
+        }
+        totalRuntime = time;
+        IncumbentSolution incumbent = new IncumbentSolution(this, new Solution(problem.getModel()).record(), value, time, gap);
+        for (SolutionListener listener : solutionListeners) {
+            listener.onSolution(incumbent);
+        }
+    }
+
     protected List<Solution> findNSolutions(int nbSolutions, int timeLimit) {
         Solver solver = problem.getModel().getSolver();
         solver.getModel().clearObjective();
@@ -288,6 +464,126 @@ public abstract class AbstractRestoptObjective {
         }
     }
 
+    /**
+     * Find an optimal solution, then up to nbSolutions - 1 other solutions within the optimality gap that are
+     * pairwise diverse: the Hamming distance (number of planning units that differ) between any two returned
+     * solutions is at least minHammingDistance, and their Jaccard distance is at least minJaccardDistance. The
+     * diversity is enforced during the search by a propagator over the solutions already found, which are stored as
+     * bitsets over the planning units. The optimal solution of the first phase is directly reused as the first
+     * solution (it is not searched again), and only the variables needed by the solution characteristics are
+     * recorded for the other solutions. The returned solutions are always distinct, i.e. a minimum Hamming distance
+     * of 0 is handled as 1.
+     *
+     * @param nbSolutions        The maximum number of solutions.
+     * @param optimalityGap      The optimality gap (between 0 and 1) of the returned solutions.
+     * @param minHammingDistance The minimum number of planning units that differ between two returned solutions.
+     * @param minJaccardDistance The minimum Jaccard distance (between 0 and 1) between two returned solutions.
+     */
+    public List<RestoptSolution> findDiverseOptimalSolutions(int nbSolutions, double optimalityGap,
+                                                             int minHammingDistance, double minJaccardDistance) throws RestoptException {
+        if (optimalityGap < 0 || optimalityGap > 1) {
+            throw new RestoptException("Optimality gap must be comprised between 0 and 1");
+        }
+        if (minHammingDistance < 0 || minJaccardDistance < 0 || minJaccardDistance > 1) {
+            throw new RestoptException("Invalid minimum distance between solutions");
+        }
+        long t = System.currentTimeMillis();
+        initObjective();
+        configureSearch();
+        Solver solver = problem.getModel().getSolver();
+        if (verbose) {
+            System.out.println(getInitialValueMessage());
+            solver.showShortStatistics();
+        }
+        boolean defaultS = solver.getSearch() == null;
+        TimeCounter timeCounter = null;
+        provenOptimal = false;
+        Solution optimal;
+        if (timeLimit > 0) {
+            timeCounter = new TimeCounter(problem.getModel(), (long) (timeLimit * 1e9));
+            optimal = solver.findOptimalSolution(objective, maximize, timeCounter);
+        } else {
+            optimal = solver.findOptimalSolution(objective, maximize);
+        }
+        if (optimal == null) {
+            totalRuntime = System.currentTimeMillis() - t;
+            if (verbose) {
+                System.out.println("There is no solution satisfying the constraints");
+            }
+            return new ArrayList<>();
+        }
+        optimalValue = solver.getObjectiveManager().getBestSolutionValue().intValue();
+        List<Solution> solutions = new ArrayList<>();
+        solutions.add(optimal);
+        if (solver.getSearchState() == SearchState.TERMINATED) {
+            provenOptimal = true;
+        }
+        if (provenOptimal && nbSolutions > 1) {
+            int remainingTime = Math.round(timeLimit - solver.getTimeCount());
+            if (timeCounter != null) {
+                solver.removeStopCriterion(timeCounter);
+            }
+            solver.reset();
+            solver.getModel().clearObjective();
+            String operator = maximize ? ">=" : "<=";
+            int optWithGap = (int) (maximize ?
+                    Math.ceil(optimalValue * (1 - optimalityGap)) : Math.floor(optimalValue * (1 + optimalityGap)));
+            Constraint forceOptimal = solver.getModel().arithm(objective, operator, optWithGap);
+            PropMinDistance propDistance = new PropMinDistance(
+                    problem.getRestoreSetVar(), Math.max(1, minHammingDistance), minJaccardDistance
+            );
+            propDistance.addReference(PropMinDistance.toBitSet(optimal.getSetVal(problem.getRestoreSetVar())));
+            Constraint diversity = new Constraint("minDistance", propDistance);
+            forceOptimal.post();
+            diversity.post();
+            if (defaultS) {
+                Search.defaultSearch(solver.getModel());
+            }
+            TimeCounter enumerationTimeCounter = new TimeCounter(problem.getModel(), (long) (remainingTime * 1e9));
+            if (timeLimit > 0) {
+                solver.addStopCriterion(enumerationTimeCounter);
+            }
+            Variable[] recordedVariables = getRecordedVariables();
+            while (solutions.size() < nbSolutions && solver.solve()) {
+                propDistance.addReference(PropMinDistance.toBitSet(problem.getRestoreSetVar().getLB()));
+                solutions.add(new Solution(solver.getModel(), recordedVariables).record());
+            }
+            solver.removeStopCriterion(enumerationTimeCounter);
+            solver.getModel().unpost(forceOptimal);
+            solver.getModel().unpost(diversity);
+        }
+        totalRuntime = System.currentTimeMillis() - t;
+        List<RestoptSolution> restoptSolutions = new ArrayList<>();
+        for (Solution s : solutions) {
+            restoptSolutions.add(new RestoptSolution(problem, this, s));
+        }
+        return restoptSolutions;
+    }
+
+    /**
+     * @return The variables read by the characteristics of a solution.
+     */
+    private Variable[] getRecordedVariables() {
+        List<Variable> vars = new ArrayList<>();
+        vars.add(problem.getRestoreSetVar());
+        if (objective != null) {
+            vars.add(objective);
+        }
+        if (problem.getMinRestore() != null) {
+            vars.add(problem.getMinRestore());
+        }
+        if (problem.getTotalRestorable() != null) {
+            vars.add(problem.getTotalRestorable());
+        }
+        if (problem.hasMeshConstraint()) {
+            vars.add(problem.getMeshConstraint().getMesh());
+        }
+        if (problem.hasIICConstraint()) {
+            vars.add(problem.getIICConstraint().getIic());
+        }
+        return vars.toArray(new Variable[0]);
+    }
+
     public long getTotalRuntime() {
         return totalRuntime;
     }
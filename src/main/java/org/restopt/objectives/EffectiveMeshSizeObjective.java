@@ -5,7 +5,7 @@ import org.chocosolver.solver.constraints.Constraint;
 import org.restopt.DataLoader;
 import org.restopt.RestoptProblem;
 import org.restopt.choco.LandscapeIndicesUtils;
-import org.restopt.choco.PropEffectiveMeshSize;
+import org.restopt.choco.PropEffectiveMeshSizeIncremental;
 import org.restopt.grid.regular.square.GroupedGrid;
 import org.restopt.grid.regular.square.PartialRegularGroupedGrid;
 
@@ -47,7 +47,7 @@ public class EffectiveMeshSizeObjective extends AbstractRestoptObjective {
             int landscapeArea = problem.getLandscapeArea();
             Constraint meshCons = new Constraint(
                     "MESH_constraint",
-                    new PropEffectiveMeshSize(
+                    new PropEffectiveMeshSizeIncremental(
                             problem.getHabitatGraphVar(),
                             objective,
                             grid.getSizeCells(),
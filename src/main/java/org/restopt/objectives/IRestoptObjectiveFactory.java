@@ -101,6 +101,13 @@ public interface IRestoptObjectiveFactory {
         return obj.findOptimalSolution(nbSolutions, optimalityGap);
     }
 
+    default List<RestoptSolution> maximizeIIC(int nbSolutions, int precision, int distanceThreshold, int timeLimit,
+                                              double optimalityGap, boolean verbose, String search, boolean lns,
+                                              int nbThreads) throws RestoptException {
+        IntegralIndexOfConnectivityObjective obj = new IntegralIndexOfConnectivityObjective(self(), timeLimit, verbose, true, precision, distanceThreshold, search, lns, nbThreads);
+        return obj.findOptimalSolution(nbSolutions, optimalityGap);
+    }
+
     default List<RestoptSolution> maximizeMinRestore(int nbSolutions, int timeLimit, double optimalityGap,
                                                      boolean verbose, String search, boolean lns) throws Exception {
         MinRestoreObjective obj = new MinRestoreObjective(self(), timeLimit, verbose, true, search, lns);
@@ -142,4 +149,75 @@ public interface IRestoptObjectiveFactory {
         NbPatchesObjective obj = new NbPatchesObjective(self(), timeLimit, verbose, false, search, lns);
         return obj.findOptimalSolution(nbSolutions, optimalityGap);
     }
+
+    // ----------------------- //
+    // DIVERSE MULTI SOLUTIONS //
+    // ----------------------- //
+
+    // Return an optimal solution and other solutions within the optimality gap that differ pairwise by at least
+    // minHammingDistance planning units (see AbstractRestoptObjective.findDiverseOptimalSolutions).
+
+    default List<RestoptSolution> maximizeMESHDiverse(int nbSolutions, int precision, int timeLimit, double optimalityGap,
+                                                      int minHammingDistance, boolean verbose) throws RestoptException {
+        EffectiveMeshSizeObjective obj = new EffectiveMeshSizeObjective(self(), timeLimit, verbose, true, precision);
+        return obj.findDiverseOptimalSolutions(nbSolutions, optimalityGap, minHammingDistance, 0);
+    }
+
+    default List<RestoptSolution> maximizeIICDiverse(int nbSolutions, int precision, int distanceThreshold, int timeLimit,
+                                                     double optimalityGap, int minHammingDistance, boolean verbose) throws RestoptException {
+        IntegralIndexOfConnectivityObjective obj = new IntegralIndexOfConnectivityObjective(self(), timeLimit, verbose, true, precision, distanceThreshold);
+        return obj.findDiverseOptimalSolutions(nbSolutions, optimalityGap, minHammingDistance, 0);
+    }
+
+    default List<RestoptSolution> minimizeMinRestoreDiverse(int nbSolutions, int timeLimit, double optimalityGap,
+                                                            int minHammingDistance, boolean verbose) throws Exception {
+        MinRestoreObjective obj = new MinRestoreObjective(self(), timeLimit, verbose, false);
+        return obj.findDiverseOptimalSolutions(nbSolutions, optimalityGap, minHammingDistance, 0);
+    }
+
+    // --------- //
+    // PORTFOLIO //
+    // --------- //
+
+    // Solve nbWorkers copies of the problem concurrently with different search strategies (see RestoptPortfolio).
+    // Return the first proven optimum or the best solution found within the time limit, null if there is none.
+
+    default RestoptSolution maximizeMESHPortfolio(int precision, int timeLimit, int nbWorkers, boolean verbose) throws Exception {
+        return new RestoptPortfolio(self(), nbWorkers, timeLimit, verbose,
+                (p, search, lns) -> new EffectiveMeshSizeObjective(p, timeLimit, verbose, true, precision, search, lns)
+        ).solve();
+    }
+
+    default RestoptSolution maximizeIICPortfolio(int precision, int distanceThreshold, int timeLimit, int nbWorkers,
+                                                 boolean verbose) throws Exception {
+        return new RestoptPortfolio(self(), nbWorkers, timeLimit, verbose,
+                (p, search, lns) -> new IntegralIndexOfConnectivityObjective(p, timeLimit, verbose, true, precision, distanceThreshold, search, lns)
+        ).solve();
+    }
+
+    default RestoptSolution maximizeMinRestorePortfolio(double minProportion, int timeLimit, int nbWorkers,
+                                                        boolean verbose) throws Exception {
+        return new RestoptPortfolio(self(), nbWorkers, timeLimit, verbose,
+                (p, search, lns) -> new MinRestoreObjective(p, minProportion, timeLimit, verbose, true, search, lns)
+        ).solve();
+    }
+
+    default RestoptSolution minimizeMinRestorePortfolio(double minProportion, int timeLimit, int nbWorkers,
+                                                        boolean verbose) throws Exception {
+        return new RestoptPortfolio(self(), nbWorkers, timeLimit, verbose,
+                (p, search, lns) -> new MinRestoreObjective(p, minProportion, timeLimit, verbose, false, search, lns)
+        ).solve();
+    }
+
+    default RestoptSolution maximizeNbPUSPortfolio(int timeLimit, int nbWorkers, boolean verbose) throws Exception {
+        return new RestoptPortfolio(self(), nbWorkers, timeLimit, verbose,
+                (p, search, lns) -> new NbPlanningUnitsObjective(p, timeLimit, verbose, true, search, lns)
+        ).solve();
+    }
+
+    default RestoptSolution minimizeNbPUSPortfolio(int timeLimit, int nbWorkers, boolean verbose) throws Exception {
+        return new RestoptPortfolio(self(), nbWorkers, timeLimit, verbose,
+                (p, search, lns) -> new NbPlanningUnitsObjective(p, timeLimit, verbose, false, search, lns)
+        ).solve();
+    }
 }
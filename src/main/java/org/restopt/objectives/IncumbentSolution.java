@@ -0,0 +1,65 @@
+package org.restopt.objectives;
+
+import org.chocosolver.solver.Solution;
+import org.restopt.RestoptSolution;
+
+/**
+ * A solution delivered to the SolutionListeners of an objective as soon as it is found. It only holds the recorded
+ * Choco solution and a few values, the corresponding RestoptSolution (and its characteristics) is built on demand.
+ */
+public class IncumbentSolution {
+
+    private final AbstractRestoptObjective objective;
+    private final Solution solution;
+    private final Integer value;
+    private final long time;
+    private final double gap;
+    private RestoptSolution restoptSolution;
+
+    public IncumbentSolution(AbstractRestoptObjective objective, Solution solution, Integer value, long time, double gap) {
+        this.objective = objective;
+        this.solution = solution;
+        this.value = value;
+        this.time = time;
+        this.gap = gap;
+    }
+
+    /**
+     * @return The recorded Choco solution.
+     */
+    public Solution getSolution() {
+        return solution;
+    }
+
+    /**
+     * @return The value of the objective variable, null if there is no objective variable.
+     */
+    public Integer getObjectiveValue() {
+        return value;
+    }
+
+    /**
+     * @return The time elapsed since the beginning of the solving (in ms).
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return The gap between the best known bounds, relative to the objective value (NaN if not optimizing).
+     */
+    public double getGap() {
+        return gap;
+    }
+
+    /**
+     * @return The RestoptSolution corresponding to this solution, built at the first call. Note that the solving
+     * time and optimality proof reported in its characteristics are the ones known when it is built.
+     */
+    public RestoptSolution toRestoptSolution() {
+        if (restoptSolution == null) {
+            restoptSolution = new RestoptSolution(objective.getProblem(), objective, solution);
+        }
+        return restoptSolution;
+    }
+}
@@ -3,7 +3,7 @@ package org.restopt.objectives;
 import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.constraints.Constraint;
 import org.restopt.RestoptProblem;
-import org.restopt.choco.PropIIC;
+import org.restopt.choco.PropIICIncremental;
 import org.restopt.exception.RestoptException;
 import org.restopt.grid.neighborhood.INeighborhood;
 import org.restopt.grid.neighborhood.Neighborhoods;
@@ -24,6 +24,7 @@ public class IntegralIndexOfConnectivityObjective extends AbstractRestoptObjecti
     int precision;
     double initialValue;
     int distanceThreshold;
+    int nbThreads;
 
     public IntegralIndexOfConnectivityObjective(RestoptProblem problem, int timeLimit, boolean verbose, boolean maximize,
                                                 int precision) throws RestoptException {
@@ -32,13 +33,27 @@ public class IntegralIndexOfConnectivityObjective extends AbstractRestoptObjecti
 
     public IntegralIndexOfConnectivityObjective(RestoptProblem problem, int timeLimit, boolean verbose, boolean maximize,
                                                 int precision, int distanceThreshold, String search, boolean lns) throws RestoptException {
+        this(problem, timeLimit, verbose, maximize, precision, distanceThreshold, search, lns, 1);
+    }
+
+    /**
+     * @param nbThreads The number of threads used to compute the IIC bounds (1 for sequential computation).
+     */
+    public IntegralIndexOfConnectivityObjective(RestoptProblem problem, int timeLimit, boolean verbose, boolean maximize,
+                                                int precision, int distanceThreshold, String search, boolean lns,
+                                                int nbThreads) throws RestoptException {
         super(problem, timeLimit, verbose, maximize, search, lns);
         this.precision = precision;
         if (distanceThreshold < 1) {
             throw new RestoptException("The distance threshold for the integral index of connectivity must be at least" +
                     "equal to 1");
         }
+        if (nbThreads < 1) {
+            throw new RestoptException("The number of threads for the integral index of connectivity must be at least" +
+                    " equal to 1");
+        }
         this.distanceThreshold = distanceThreshold;
+        this.nbThreads = nbThreads;
     }
 
     public IntegralIndexOfConnectivityObjective(RestoptProblem problem, int timeLimit, boolean verbose, boolean maximize,
@@ -62,17 +77,19 @@ public class IntegralIndexOfConnectivityObjective extends AbstractRestoptObjecti
             objective = problem.getAdditionalVariables().get(KEY_IIC);
             Constraint consIIC = new Constraint(
                     "IIC_constraint",
-                    new PropIIC(
+                    new PropIICIncremental(
                             problem.getHabitatGraphVar(),
                             objective,
                             grid,
                             landscapeArea,
                             distanceThreshold + 1,
+                            problem.getThresholdNeighborhoodIndex(distanceThreshold + 1),
                             precision,
-                            true
+                            true,
+                            nbThreads
                     )
             );
-            initialValue = ((PropIIC) consIIC.getPropagator(0)).getIICLB();
+            initialValue = ((PropIICIncremental) consIIC.getPropagator(0)).getIICLB();
         } else {
             objective = problem.getModel().intVar(
                     "IIC",
@@ -80,18 +97,20 @@ public class IntegralIndexOfConnectivityObjective extends AbstractRestoptObjecti
             );
             Constraint consIIC = new Constraint(
                     "IIC_constraint",
-                    new PropIIC(
+                    new PropIICIncremental(
                             problem.getHabitatGraphVar(),
                             objective,
                             grid,
                             landscapeArea,
                             distanceThreshold + 1,
+                            problem.getThresholdNeighborhoodIndex(distanceThreshold + 1),
                             precision,
-                            true
+                            true,
+                            nbThreads
                     )
             );
             problem.getModel().post(consIIC);
-            initialValue = ((PropIIC) consIIC.getPropagator(0)).getIICLB();
+            initialValue = ((PropIICIncremental) consIIC.getPropagator(0)).getIICLB();
             problem.getAdditionalVariables().put(KEY_IIC, objective);
         }
     }
@@ -1,10 +1,12 @@
 package org.restopt.objectives;
 
 import org.chocosolver.solver.Solution;
+import org.restopt.DataLoader;
 import org.restopt.RestoptProblem;
 import org.restopt.exception.RestoptException;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 public class MinRestoreObjective extends AbstractRestoptObjective {
 
@@ -37,7 +39,9 @@ public class MinRestoreObjective extends AbstractRestoptObjective {
         if (problem.getMinRestore() != null) {
             objective = problem.getMinRestore();
         } else {
-            double maxRest = Arrays.stream(problem.getData().getRestorableData())
+            DataLoader data = problem.getData();
+            double maxRest = IntStream.range(0, data.getNbPixels())
+                    .mapToDouble(data::getRestorable)
                     .filter(x -> !Double.isNaN(x))
                     .sum();
             try {
@@ -0,0 +1,141 @@
+package org.restopt.objectives;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.ParallelPortfolio;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.SearchState;
+import org.chocosolver.solver.search.limits.TimeCounter;
+import org.restopt.RestoptProblem;
+import org.restopt.RestoptSolution;
+import org.restopt.exception.RestoptException;
+
+/**
+ * Portfolio solving of a restopt problem: N independent copies of the problem (see RestoptProblem(RestoptProblem))
+ * are solved concurrently with different search strategies, LNS settings and seeds. The best objective bound is
+ * shared between the workers (Choco's ParallelPortfolio), the search stops as soon as a worker proves optimality,
+ * otherwise at the time limit, and the best solution found is returned.
+ * <p>
+ * Only the constraints posted through IRestoptConstraintFactory are replicated in the copies.
+ */
+public class RestoptPortfolio {
+
+    /**
+     * Search strategy, LNS setting and LNS neighborhood of each worker (cycled if there are more workers). The first
+     * worker uses the default search.
+     */
+    public static final String[] WORKER_SEARCHES = {
+            "DEFAULT", "DOM_OVER_W_DEG", "DOM_OVER_W_DEG", "CONFLICT_HISTORY",
+            "MIN_DOM_UB", "ACTIVITY_BASED", "FAILURE_RATE", "RANDOM"
+    };
+    public static final boolean[] WORKER_LNS = {false, false, true, false, true, false, true, true};
+    public static final String[] WORKER_LNS_NEIGHBORHOODS = {
+            "RANDOM", "RANDOM", "WINDOW", "RANDOM", "COMPONENT", "RANDOM", "HABITAT_GROUP", "RANDOM"
+    };
+
+    /**
+     * Creates the objective of a worker.
+     */
+    public interface ObjectiveFactory {
+        AbstractRestoptObjective create(RestoptProblem problem, String search, boolean lns) throws Exception;
+    }
+
+    private final RestoptProblem problem;
+    private final int nbWorkers;
+    private final int timeLimit;
+    private final boolean verbose;
+    private final ObjectiveFactory objectiveFactory;
+    private long seed;
+
+    /**
+     * @param problem          The problem to solve (its model is not modified).
+     * @param nbWorkers        The number of workers (problem copies solved concurrently).
+     * @param timeLimit        Time limit in seconds (0 for no limit).
+     * @param verbose          If true, print the solutions found by the workers.
+     * @param objectiveFactory The objective to optimize.
+     */
+    public RestoptPortfolio(RestoptProblem problem, int nbWorkers, int timeLimit, boolean verbose,
+                            ObjectiveFactory objectiveFactory) throws RestoptException {
+        if (nbWorkers < 1) {
+            throw new RestoptException("The number of portfolio workers must be at least 1");
+        }
+        this.problem = problem;
+        this.nbWorkers = nbWorkers;
+        this.timeLimit = timeLimit;
+        this.verbose = verbose;
+        this.objectiveFactory = objectiveFactory;
+        this.seed = 0;
+    }
+
+    /**
+     * Set the base seed of the workers (worker i uses seed + i).
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @return The best solution found by the workers, null if there is no solution.
+     */
+    public RestoptSolution solve() throws Exception {
+        long t = System.currentTimeMillis();
+        RestoptProblem[] problems = new RestoptProblem[nbWorkers];
+        AbstractRestoptObjective[] objectives = new AbstractRestoptObjective[nbWorkers];
+        ParallelPortfolio portfolio = new ParallelPortfolio(false);
+        for (int i = 0; i < nbWorkers; i++) {
+            problems[i] = new RestoptProblem(problem);
+            objectives[i] = objectiveFactory.create(
+                    problems[i],
+                    WORKER_SEARCHES[i % WORKER_SEARCHES.length],
+                    WORKER_LNS[i % WORKER_LNS.length]
+            );
+            objectives[i].setSeed(seed + i);
+            objectives[i].setLNSNeighborhood(WORKER_LNS_NEIGHBORHOODS[i % WORKER_LNS_NEIGHBORHOODS.length]);
+            objectives[i].initObjective();
+            objectives[i].configureSearch();
+            Model model = problems[i].getModel();
+            model.setObjective(objectives[i].isMaximize(), objectives[i].getObjective());
+            if (timeLimit > 0) {
+                model.getSolver().addStopCriterion(new TimeCounter(model, (long) (timeLimit * 1e9)));
+            }
+            portfolio.addModel(model);
+        }
+        if (verbose) {
+            System.out.println(objectives[0].getInitialValueMessage());
+        }
+        int best = -1;
+        Solution bestSolution = null;
+        while (portfolio.solve()) {
+            Model bestModel = portfolio.getBestModel();
+            for (int i = 0; i < nbWorkers; i++) {
+                if (problems[i].getModel() == bestModel) {
+                    best = i;
+                }
+            }
+            bestSolution = new Solution(bestModel).record();
+            if (verbose) {
+                System.out.println("Portfolio worker " + best + " (" + WORKER_SEARCHES[best % WORKER_SEARCHES.length]
+                        + (WORKER_LNS[best % WORKER_LNS.length] ? ", LNS " + WORKER_LNS_NEIGHBORHOODS[best % WORKER_LNS_NEIGHBORHOODS.length] : "")
+                        + "): objective = "
+                        + bestSolution.getIntVal(objectives[best].getObjective()));
+            }
+        }
+        if (bestSolution == null) {
+            if (verbose) {
+                System.out.println("There is no solution satisfying the constraints");
+            }
+            return null;
+        }
+        AbstractRestoptObjective objective = objectives[best];
+        objective.optimalValue = bestSolution.getIntVal(objective.getObjective());
+        // Optimality is proven if a worker completed its search (the others are stopped)
+        for (int i = 0; i < nbWorkers; i++) {
+            Solver solver = problems[i].getModel().getSolver();
+            if (solver.getSearchState() == SearchState.TERMINATED) {
+                objective.provenOptimal = true;
+            }
+        }
+        objective.totalRuntime = System.currentTimeMillis() - t;
+        return new RestoptSolution(problems[best], objective, bestSolution);
+    }
+}
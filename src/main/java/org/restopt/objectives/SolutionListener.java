@@ -0,0 +1,10 @@
+package org.restopt.objectives;
+
+/**
+ * Listener notified of each solution found during the solving of an objective (during an optimization, each one
+ * improves the previous one). Called in the solving thread: long operations delay the search.
+ */
+public interface SolutionListener {
+
+    void onSolution(IncumbentSolution solution);
+}
@@ -0,0 +1,209 @@
+package org.restopt.search;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.lns.neighbors.IntNeighbor;
+import org.chocosolver.solver.variables.BoolVar;
+import org.restopt.RestoptProblem;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Spatially structured LNS neighborhood over the planning unit boolean views of a restopt problem: at each LNS
+ * iteration, a contiguous set of planning units (according to the problem's neighborhood index) is relaxed and all
+ * the other planning units are fixed to their value in the last solution. The relaxed area is grown by a breadth
+ * first traversal of the planning units, starting from:
+ * <ul>
+ *     <li>WINDOW: a random planning unit.</li>
+ *     <li>HABITAT_GROUP: all the planning units adjacent to a random habitat group, among the groups that are
+ *     adjacent to at least one planning unit (WINDOW if there is none).</li>
+ *     <li>COMPONENT: a random connected component of the restoration area of the last solution, and its adjacent
+ *     planning units (WINDOW if the restoration area is empty).</li>
+ * </ul>
+ * The size of the relaxed area starts at initialSize planning units, grows each time the neighborhood fails to
+ * improve the solution (restrictLess), and is reset when a new solution is found.
+ */
+public class SpatialNeighborhood extends IntNeighbor {
+
+    public enum Type {
+        WINDOW, HABITAT_GROUP, COMPONENT
+    }
+
+    private final Type type;
+    private final NeighborhoodIndex index;
+    // Habitat groups adjacent to at least one planning unit
+    private final int[] borderGroups;
+    private final int[] planningUnits;
+    // Index of the decision variable of each cell, -1 if the cell is not a planning unit
+    private final int[] cellToVar;
+    private final int initialSize;
+    private final Random random;
+
+    private int size;
+    private final boolean[] relaxed;
+    private final int[] queue;
+    private final boolean[] visited;
+
+    /**
+     * @param problem      The restopt problem.
+     * @param decisionVars The boolean views over the available planning units of the problem (same order).
+     * @param type         The way the relaxed area is selected.
+     * @param initialSize  The initial number of relaxed planning units.
+     * @param seed         The seed of the random selection.
+     */
+    public SpatialNeighborhood(RestoptProblem problem, BoolVar[] decisionVars, Type type, int initialSize, long seed) {
+        super(decisionVars);
+        this.type = type;
+        this.index = problem.getNeighborhoodIndex();
+        this.planningUnits = problem.getAvailablePlanningUnits();
+        this.cellToVar = new int[index.getNbCells()];
+        Arrays.fill(cellToVar, -1);
+        for (int i = 0; i < planningUnits.length; i++) {
+            cellToVar[planningUnits[i]] = i;
+        }
+        this.borderGroups = IntStream.range(0, problem.getGrid().getNbGroups())
+                .filter(group -> IntStream.range(index.getStart(group), index.getEnd(group))
+                        .anyMatch(p -> cellToVar[index.getTarget(p)] >= 0))
+                .toArray();
+        this.initialSize = Math.max(1, initialSize);
+        this.size = this.initialSize;
+        this.random = new Random(seed);
+        this.relaxed = new boolean[decisionVars.length];
+        this.queue = new int[decisionVars.length];
+        this.visited = new boolean[index.getNbCells()];
+    }
+
+    @Override
+    public void recordSolution() {
+        super.recordSolution();
+        size = initialSize;
+    }
+
+    @Override
+    public void fixSomeVariables() throws ContradictionException {
+        selectRelaxed();
+        for (int i = 0; i < relaxed.length; i++) {
+            if (!relaxed[i]) {
+                freeze(i);
+            }
+        }
+    }
+
+    @Override
+    public void restrictLess() {
+        size = (int) Math.min((long) relaxed.length, Math.max(size + 1, (long) (size * 1.5)));
+    }
+
+    @Override
+    public boolean isSearchComplete() {
+        return size >= relaxed.length;
+    }
+
+    /**
+     * Select the planning units to relax (in relaxed).
+     */
+    private void selectRelaxed() {
+        Arrays.fill(relaxed, false);
+        Arrays.fill(visited, false);
+        if (relaxed.length == 0) {
+            return;
+        }
+        int head = 0;
+        int tail = 0;
+        Type t = type;
+        if (t == Type.HABITAT_GROUP && borderGroups.length == 0) {
+            t = Type.WINDOW;
+        }
+        if (t == Type.COMPONENT) {
+            tail = selectComponent();
+            if (tail == 0) {
+                t = Type.WINDOW;
+            }
+        }
+        if (t == Type.WINDOW) {
+            int start = planningUnits[random.nextInt(planningUnits.length)];
+            visited[start] = true;
+            queue[tail++] = start;
+        } else if (t == Type.HABITAT_GROUP) {
+            int group = borderGroups[random.nextInt(borderGroups.length)];
+            visited[group] = true;
+            for (int p = index.getStart(group); p < index.getEnd(group); p++) {
+                int j = index.getTarget(p);
+                if (cellToVar[j] >= 0 && !visited[j]) {
+                    visited[j] = true;
+                    queue[tail++] = j;
+                }
+            }
+        }
+        // The starting planning units are always relaxed, then the area is grown up to the size of the neighborhood
+        int nbStart = tail;
+        int nbRelaxed = 0;
+        while (head < tail && (head < nbStart || nbRelaxed < size)) {
+            int cell = queue[head++];
+            relaxed[cellToVar[cell]] = true;
+            nbRelaxed++;
+            for (int p = index.getStart(cell); p < index.getEnd(cell); p++) {
+                int j = index.getTarget(p);
+                if (cellToVar[j] >= 0 && !visited[j]) {
+                    visited[j] = true;
+                    queue[tail++] = j;
+                }
+            }
+        }
+    }
+
+    /**
+     * Put the planning units of a random connected component of the last solution's restoration area, and their
+     * adjacent planning units, at the beginning of the queue.
+     *
+     * @return The number of planning units put in the queue (0 if the restoration area is empty).
+     */
+    private int selectComponent() {
+        int nbSelected = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == 1) {
+                nbSelected++;
+            }
+        }
+        if (nbSelected == 0) {
+            return 0;
+        }
+        // Random planning unit of the restoration area
+        int k = random.nextInt(nbSelected);
+        int start = -1;
+        for (int i = 0; i < values.length && start < 0; i++) {
+            if (values[i] == 1 && k-- == 0) {
+                start = planningUnits[i];
+            }
+        }
+        // Its connected component in the restoration area
+        int tail = 0;
+        visited[start] = true;
+        queue[tail++] = start;
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            for (int p = index.getStart(cell); p < index.getEnd(cell); p++) {
+                int j = index.getTarget(p);
+                if (cellToVar[j] >= 0 && !visited[j] && values[cellToVar[j]] == 1) {
+                    visited[j] = true;
+                    queue[tail++] = j;
+                }
+            }
+        }
+        // Its adjacent planning units
+        int componentSize = tail;
+        for (int head = 0; head < componentSize; head++) {
+            int cell = queue[head];
+            for (int p = index.getStart(cell); p < index.getEnd(cell); p++) {
+                int j = index.getTarget(p);
+                if (cellToVar[j] >= 0 && !visited[j]) {
+                    visited[j] = true;
+                    queue[tail++] = j;
+                }
+            }
+        }
+        return tail;
+    }
+}
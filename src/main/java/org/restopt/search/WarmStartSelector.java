@@ -0,0 +1,39 @@
+package org.restopt.search;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.selectors.variables.VariableSelector;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * Input order variable selector which is only active during the first dive of the search: it stops selecting
+ * variables as soon as a solution is found or a failure occurs. Used as the first strategy of a sequencer, it guides
+ * the first dive towards a known restoration plan, after which the next strategy of the sequencer takes over.
+ */
+public class WarmStartSelector implements VariableSelector<IntVar>, IMonitorSolution, IMonitorContradiction {
+
+    private boolean active = true;
+
+    @Override
+    public IntVar getVariable(IntVar[] variables) {
+        if (active) {
+            for (IntVar var : variables) {
+                if (!var.isInstantiated()) {
+                    return var;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void onSolution() {
+        active = false;
+    }
+
+    @Override
+    public void onContradiction(ContradictionException cex) {
+        active = false;
+    }
+}
@@ -0,0 +1,42 @@
+package org.restopt.telemetry;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Write the telemetry records as CSV lines (columns: type, then TelemetryRecord.FIELDS, empty when a field is not
+ * defined for the record type). The writer is flushed after each record.
+ */
+public class CsvTelemetrySink implements TelemetrySink {
+
+    private final Writer writer;
+
+    public CsvTelemetrySink(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write("type," + String.join(",", TelemetryRecord.FIELDS) + "\n");
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void accept(TelemetryRecord record) throws IOException {
+        StringBuilder line = new StringBuilder(record.getType());
+        for (String key : TelemetryRecord.FIELDS) {
+            line.append(',');
+            Object value = record.get(key);
+            if (value != null) {
+                String s = String.valueOf(value);
+                if (s.contains(",") || s.contains("\"")) {
+                    s = "\"" + s.replace("\"", "\"\"") + "\"";
+                }
+                line.append(s);
+            }
+        }
+        writer.write(line.append('\n').toString());
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
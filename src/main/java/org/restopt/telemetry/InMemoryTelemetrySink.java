@@ -0,0 +1,31 @@
+package org.restopt.telemetry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keep the telemetry records in memory.
+ */
+public class InMemoryTelemetrySink implements TelemetrySink {
+
+    private final List<TelemetryRecord> records = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void accept(TelemetryRecord record) {
+        records.add(record);
+    }
+
+    public List<TelemetryRecord> getRecords() {
+        synchronized (records) {
+            return new ArrayList<>(records);
+        }
+    }
+
+    public List<TelemetryRecord> getRecords(String type) {
+        synchronized (records) {
+            return records.stream().filter(r -> r.getType().equals(type)).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.restopt.telemetry;
+
+/**
+ * Propagator reporting its calls and running time to a PropagatorStats (when set, the default is no stats).
+ */
+public interface InstrumentedPropagator {
+
+    void setStats(PropagatorStats stats);
+
+    /**
+     * @return The name under which the statistics of this propagator are aggregated.
+     */
+    String getStatsName();
+}
@@ -0,0 +1,80 @@
+package org.restopt.telemetry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Write the telemetry records as JSON lines (one object per record, with a "type" attribute). The writer is flushed
+ * after each record.
+ */
+public class JsonLinesTelemetrySink implements TelemetrySink {
+
+    private final Writer writer;
+
+    public JsonLinesTelemetrySink(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public synchronized void accept(TelemetryRecord record) throws IOException {
+        StringBuilder line = new StringBuilder("{\"type\":");
+        appendString(line, record.getType());
+        for (Map.Entry<String, Object> field : record.getFields().entrySet()) {
+            line.append(',');
+            appendString(line, field.getKey());
+            line.append(':');
+            Object value = field.getValue();
+            if (value == null) {
+                line.append("null");
+            } else if (value instanceof Boolean
+                    || (value instanceof Number && !isNonFinite((Number) value))) {
+                line.append(value);
+            } else {
+                appendString(line, String.valueOf(value));
+            }
+        }
+        writer.write(line.append("}\n").toString());
+        writer.flush();
+    }
+
+    private static boolean isNonFinite(Number n) {
+        return (n instanceof Double || n instanceof Float) && !Double.isFinite(n.doubleValue());
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,43 @@
+package org.restopt.telemetry;
+
+/**
+ * Number of calls and cumulative running time of the propagators of a given kind. A model is solved by a single
+ * thread, so the counters are not synchronized.
+ */
+public class PropagatorStats {
+
+    private final String name;
+    private long nbCalls;
+    private long time;
+
+    public PropagatorStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return The start timestamp to give to stop().
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(long start) {
+        nbCalls++;
+        time += System.nanoTime() - start;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getNbCalls() {
+        return nbCalls;
+    }
+
+    /**
+     * @return The cumulative running time of the propagators (in ns).
+     */
+    public long getTime() {
+        return time;
+    }
+}
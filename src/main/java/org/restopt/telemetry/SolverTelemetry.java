@@ -0,0 +1,190 @@
+package org.restopt.telemetry;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.objective.IObjectiveManager;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structured instrumentation of a solving run:
+ * <ul>
+ *     <li>Number of calls and cumulative time of the restopt propagators (MESH, IIC, compactness, no new patch),
+ *     aggregated by propagator kind.</li>
+ *     <li>Incumbent objective trajectory: for each solution, the elapsed time, objective value, best bounds, relative
+ *     bound gap, number of nodes, fails and restarts.</li>
+ *     <li>Summary at the end of the run: search statistics, time to first solution and optimality proof.</li>
+ * </ul>
+ * Records are sent to the sinks as they are produced. Attach a telemetry to an objective with
+ * AbstractRestoptObjective.enableTelemetry(...).
+ */
+public class SolverTelemetry {
+
+    private final List<TelemetrySink> sinks;
+    private final Map<String, PropagatorStats> propagatorStats;
+    private final List<TelemetryRecord> trajectory;
+
+    private Solver solver;
+    private IMonitorSolution monitor;
+    private IntVar objective;
+    private long startTime;
+    private long firstSolutionTime;
+
+    public SolverTelemetry(TelemetrySink... sinks) {
+        this.sinks = new ArrayList<>(Arrays.asList(sinks));
+        this.propagatorStats = new LinkedHashMap<>();
+        this.trajectory = new ArrayList<>();
+        this.firstSolutionTime = -1;
+    }
+
+    public void addSink(TelemetrySink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Instrument the restopt propagators of a model and monitor its solutions until finish() is called. Must be called
+     * once the constraints are posted, before solving.
+     *
+     * @param model     The model to monitor.
+     * @param objective The objective variable (may be null for satisfaction problems).
+     */
+    public void attach(Model model, IntVar objective) {
+        this.solver = model.getSolver();
+        this.objective = objective;
+        for (Constraint c : model.getCstrs()) {
+            for (Propagator<?> p : c.getPropagators()) {
+                if (p instanceof InstrumentedPropagator) {
+                    InstrumentedPropagator ip = (InstrumentedPropagator) p;
+                    ip.setStats(propagatorStats.computeIfAbsent(ip.getStatsName(), PropagatorStats::new));
+                }
+            }
+        }
+        monitor = this::onSolution;
+        solver.plugMonitor(monitor);
+        startTime = System.nanoTime();
+    }
+
+    private long elapsed() {
+        return (System.nanoTime() - startTime) / 1000000;
+    }
+
+    private void onSolution() {
+        long t = elapsed();
+        if (firstSolutionTime < 0) {
+            firstSolutionTime = t;
+        }
+        TelemetryRecord record = new TelemetryRecord(TelemetryRecord.TYPE_SOLUTION).put(TelemetryRecord.KEY_TIME, t);
+        if (objective != null) {
+            int value = objective.getValue();
+            record.put(TelemetryRecord.KEY_OBJECTIVE, value);
+            IObjectiveManager<?> manager = solver.getObjectiveManager();
+            if (manager.getPolicy() != ResolutionPolicy.SATISFACTION) {
+                record.put(TelemetryRecord.KEY_BEST_LB, manager.getBestLB())
+                        .put(TelemetryRecord.KEY_BEST_UB, manager.getBestUB())
+                        .put(TelemetryRecord.KEY_GAP, getGap(manager, value));
+            }
+        }
+        record.put(TelemetryRecord.KEY_NODES, solver.getNodeCount())
+                .put(TelemetryRecord.KEY_FAILS, solver.getFailCount())
+                .put(TelemetryRecord.KEY_RESTARTS, solver.getRestartCount());
+        trajectory.add(record);
+        emit(record);
+    }
+
+    /**
+     * @param manager The objective manager of a solver.
+     * @param value   The value of the incumbent solution.
+     * @return The gap between the best bounds of the objective, relative to the incumbent value, NaN if the solver is
+     * not optimizing.
+     */
+    public static double getGap(IObjectiveManager<?> manager, int value) {
+        if (manager.getPolicy() == ResolutionPolicy.SATISFACTION) {
+            return Double.NaN;
+        }
+        double lb = manager.getBestLB().doubleValue();
+        double ub = manager.getBestUB().doubleValue();
+        return (ub - lb) / Math.max(1, Math.abs(value));
+    }
+
+    /**
+     * Stop monitoring the solutions of the model given to attach(), if it was not already done.
+     */
+    public void detach() {
+        if (monitor != null) {
+            solver.unplugMonitor(monitor);
+            monitor = null;
+        }
+    }
+
+    /**
+     * Stop monitoring the solutions, and emit the propagator statistics and the summary of the run. Must be called
+     * once the solving is over.
+     *
+     * @param provenOptimal True if the optimality of the best solution was proven.
+     */
+    public void finish(boolean provenOptimal) {
+        detach();
+        long t = elapsed();
+        for (PropagatorStats stats : propagatorStats.values()) {
+            emit(new TelemetryRecord(TelemetryRecord.TYPE_PROPAGATOR)
+                    .put(TelemetryRecord.KEY_TIME, t)
+                    .put(TelemetryRecord.KEY_NAME, stats.getName())
+                    .put(TelemetryRecord.KEY_CALLS, stats.getNbCalls())
+                    .put(TelemetryRecord.KEY_PROPAGATION_TIME, stats.getTime() / 1e6)
+            );
+        }
+        emit(new TelemetryRecord(TelemetryRecord.TYPE_SUMMARY)
+                .put(TelemetryRecord.KEY_TIME, t)
+                .put(TelemetryRecord.KEY_NODES, solver.getNodeCount())
+                .put(TelemetryRecord.KEY_FAILS, solver.getFailCount())
+                .put(TelemetryRecord.KEY_RESTARTS, solver.getRestartCount())
+                .put(TelemetryRecord.KEY_SOLUTIONS, trajectory.size())
+                .put(TelemetryRecord.KEY_FIRST_SOLUTION_TIME, firstSolutionTime)
+                .put(TelemetryRecord.KEY_OPTIMALITY_PROVEN, provenOptimal)
+        );
+    }
+
+    private void emit(TelemetryRecord record) {
+        for (TelemetrySink sink : sinks) {
+            try {
+                sink.accept(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @return The statistics of the instrumented propagators, by propagator kind.
+     */
+    public Collection<PropagatorStats> getPropagatorStats() {
+        return Collections.unmodifiableCollection(propagatorStats.values());
+    }
+
+    /**
+     * @return The solution records, in the order they were found.
+     */
+    public List<TelemetryRecord> getTrajectory() {
+        return Collections.unmodifiableList(trajectory);
+    }
+
+    /**
+     * @return The time to the first solution (in ms), -1 if no solution was found.
+     */
+    public long getFirstSolutionTime() {
+        return firstSolutionTime;
+    }
+}
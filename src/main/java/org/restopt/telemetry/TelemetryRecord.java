@@ -0,0 +1,62 @@
+package org.restopt.telemetry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A telemetry record: a type and an ordered set of fields. The possible fields are listed in FIELDS.
+ */
+public class TelemetryRecord {
+
+    public static final String TYPE_SOLUTION = "solution";
+    public static final String TYPE_PROPAGATOR = "propagator";
+    public static final String TYPE_SUMMARY = "summary";
+
+    public static final String KEY_TIME = "time_ms";
+    public static final String KEY_NAME = "name";
+    public static final String KEY_CALLS = "calls";
+    public static final String KEY_PROPAGATION_TIME = "propagation_time_ms";
+    public static final String KEY_OBJECTIVE = "objective";
+    public static final String KEY_BEST_LB = "best_lb";
+    public static final String KEY_BEST_UB = "best_ub";
+    public static final String KEY_GAP = "gap";
+    public static final String KEY_NODES = "nodes";
+    public static final String KEY_FAILS = "fails";
+    public static final String KEY_RESTARTS = "restarts";
+    public static final String KEY_SOLUTIONS = "solutions";
+    public static final String KEY_FIRST_SOLUTION_TIME = "first_solution_time_ms";
+    public static final String KEY_OPTIMALITY_PROVEN = "optimality_proven";
+
+    public static final List<String> FIELDS = Collections.unmodifiableList(Arrays.asList(
+            KEY_TIME, KEY_NAME, KEY_CALLS, KEY_PROPAGATION_TIME, KEY_OBJECTIVE, KEY_BEST_LB, KEY_BEST_UB, KEY_GAP,
+            KEY_NODES, KEY_FAILS, KEY_RESTARTS, KEY_SOLUTIONS, KEY_FIRST_SOLUTION_TIME, KEY_OPTIMALITY_PROVEN
+    ));
+
+    private final String type;
+    private final Map<String, Object> fields;
+
+    public TelemetryRecord(String type) {
+        this.type = type;
+        this.fields = new LinkedHashMap<>();
+    }
+
+    public TelemetryRecord put(String key, Object value) {
+        fields.put(key, value);
+        return this;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Object get(String key) {
+        return fields.get(key);
+    }
+
+    public Map<String, Object> getFields() {
+        return Collections.unmodifiableMap(fields);
+    }
+}
@@ -0,0 +1,14 @@
+package org.restopt.telemetry;
+
+import java.io.IOException;
+
+/**
+ * Destination of the telemetry records.
+ */
+public interface TelemetrySink {
+
+    void accept(TelemetryRecord record) throws IOException;
+
+    default void close() throws IOException {
+    }
+}
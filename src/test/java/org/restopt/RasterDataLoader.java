@@ -20,7 +20,7 @@ public class RasterDataLoader extends DataLoader {
         this.width = rasterHabitat.getWidth();
         this.height = rasterHabitat.getHeight();
         this.noDataHabitat = rasterHabitat.getNoDataValue();
-        if (width * height != habitatData.length) {
+        if (width * height != getNbPixels()) {
             throw new RestoptException("Input width and height do not correspond to dataset size");
         }
     }
@@ -38,7 +38,7 @@ public class RasterDataLoader extends DataLoader {
         this.width = rasterHabitat.getWidth();
         this.height = rasterHabitat.getHeight();
         this.noDataHabitat = rasterHabitat.getNoDataValue();
-        if (width * height != habitatData.length) {
+        if (width * height != getNbPixels()) {
             throw new RestoptException("Input width and height do not correspond to dataset size");
         }
     }
@@ -52,7 +52,7 @@ public class SolutionExporter {
             completeData = new int[grid.getNbRows() * grid.getNbCols()];
             for (int i = 0; i < completeData.length; i++) {
                 if (grid.getDiscardSet().contains(i)) {
-                    if (restoptProblem.data.getHabitatData()[i] == 0) {
+                    if (restoptProblem.data.getHabitat(i) == 0) {
                         completeData[i] = 0;
                     } else {
                         completeData[i] = (int) noDataValue;
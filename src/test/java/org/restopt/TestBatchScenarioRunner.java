@@ -0,0 +1,52 @@
+package org.restopt;
+
+import org.restopt.exception.RestoptException;
+import org.restopt.objectives.EffectiveMeshSizeObjective;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestBatchScenarioRunner {
+
+    @Test
+    public void testBatchScenarioRunner() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+        BatchScenarioRunner runner = new BatchScenarioRunner(new PreprocessedLandscape(dataLoader, 2), 2);
+        for (int budget : new int[] {50, 100}) {
+            runner.addScenario(new BatchScenarioRunner.Scenario(
+                    "mesh_" + budget,
+                    p -> {
+                        p.postNbComponentsConstraint(1, 1);
+                        p.postCompactnessConstraint(6);
+                        p.postRestorableConstraint((int) (budget * 0.9 * 11), (int) (budget * 1.1 * 11), 0.7);
+                    },
+                    p -> p.maximizeMESH(3, 30, 0, false)
+            ));
+        }
+        runner.addScenario(new BatchScenarioRunner.Scenario(
+                "invalid",
+                p -> p.postMinIICConstraint(2, 1, 3), // IIC must be in [0, 1]
+                p -> p.maximizeMESH(3, 30, 0, false)
+        ));
+        List<BatchScenarioRunner.ScenarioResult> results = runner.run();
+        Assert.assertEquals(results.size(), 3);
+        Map<String, BatchScenarioRunner.ScenarioResult> byName = new HashMap<>();
+        for (BatchScenarioRunner.ScenarioResult result : results) {
+            byName.put(result.getScenario().getName(), result);
+        }
+        Assert.assertTrue(byName.get("mesh_50").isSuccess());
+        Assert.assertTrue(byName.get("mesh_100").isSuccess());
+        double mesh50 = Double.parseDouble(byName.get("mesh_50").getSolution().getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH));
+        double mesh100 = Double.parseDouble(byName.get("mesh_100").getSolution().getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH));
+        Assert.assertTrue(mesh50 <= mesh100);
+        Assert.assertFalse(byName.get("invalid").isSuccess());
+        Assert.assertTrue(byName.get("invalid").getError() instanceof RestoptException);
+    }
+}
@@ -1,6 +1,8 @@
 package org.restopt;
 
 import org.restopt.choco.LandscapeIndicesUtils;
+import org.restopt.objectives.IntegralIndexOfConnectivityObjective;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 public class TestKaalaUseCaseAgg {
@@ -19,6 +21,25 @@ public class TestKaalaUseCaseAgg {
         System.out.println(sol);
     }
 
+    @Test
+    public void testIIC() throws Exception {
+        int[] habitat = new int[] {
+                1, 1, 0, 0, 0, 0,
+                1, 0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0, 1,
+                0, 0, 0, 0, 1, 1,
+                0, 0, 0, 0, 1, 1
+        };
+        DataLoader data = new DataLoader(habitat, 0, -1.0, 6, 6);
+        RestoptProblem restoptProblem = new RestoptProblem(data, 0, 2);
+        RestoptSolution sol = restoptProblem.maximizeIIC(3, 2, 10, 0, true);
+        double initial = Double.parseDouble(sol.getCharacteristics().get(IntegralIndexOfConnectivityObjective.KEY_IIC_INITIAL));
+        double best = Double.parseDouble(sol.getCharacteristics().get(IntegralIndexOfConnectivityObjective.KEY_IIC));
+        Assert.assertTrue(initial < best);
+        Assert.assertEquals(best, 1.0);
+    }
+
     @Test
     public void testHiRes() throws Exception {
         String habitat = getClass().getClassLoader().getResource("example_data/kaala_use_case/habitat_hr.tif").getPath();
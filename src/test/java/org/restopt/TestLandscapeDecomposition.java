@@ -0,0 +1,95 @@
+package org.restopt;
+
+import org.restopt.DecompositionSolver.DecomposedSolution;
+import org.restopt.LandscapeDecomposition.Region;
+import org.restopt.objectives.EffectiveMeshSizeObjective;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class TestLandscapeDecomposition {
+
+    // The non accessible column splits the landscape into two independent regions
+    private static final int[] HABITAT = new int[] {
+            1, 0, 0, 0, 0, 0, 1,
+            1, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 1, 1,
+            1, 0, 0, 0, 0, 1, 1
+    };
+    private static final int[] ACCESSIBLE = new int[] {
+            0, 0, 0, 1, 0, 0, 0,
+            0, 0, 0, 1, 0, 0, 0,
+            0, 0, 0, 1, 0, 0, 0,
+            0, 0, 0, 1, 0, 0, 0,
+            0, 0, 0, 1, 0, 0, 0,
+            0, 0, 0, 1, 0, 0, 0
+    };
+
+    private DataLoader makeData(int[] accessible) throws Exception {
+        return new DataLoader(
+                HABITAT, accessible,
+                IntStream.range(0, HABITAT.length).mapToDouble(i -> 1).toArray(),
+                IntStream.range(0, HABITAT.length).map(i -> 1).toArray(),
+                7, 6, -1
+        );
+    }
+
+    @Test
+    public void testRegions() throws Exception {
+        PreprocessedLandscape landscape = new PreprocessedLandscape(makeData(ACCESSIBLE), 0);
+        LandscapeDecomposition decomposition = new LandscapeDecomposition(landscape);
+        Assert.assertTrue(decomposition.isDecomposable());
+        Assert.assertEquals(decomposition.getNbRegions(), 2);
+        // The regions partition the planning units
+        int[] pus = decomposition.getRegions().stream().flatMapToInt(r -> IntStream.of(r.getPlanningUnits())).sorted().toArray();
+        int[] expected = landscape.getAvailablePlanningUnits().clone();
+        Arrays.sort(expected);
+        Assert.assertEquals(pus, expected);
+        Region left = decomposition.getRegions().stream()
+                .filter(r -> IntStream.of(r.getPixels()).anyMatch(i -> i == 0))
+                .findFirst().get();
+        Assert.assertEquals(left.getData().getWidth(), 3);
+        Assert.assertEquals(left.getData().getHeight(), 6);
+        Assert.assertEquals(left.getRestorableArea(), 15.0);
+        Assert.assertEquals(left.makeLandscape().getAvailablePlanningUnits().length, 15);
+        for (int i = 0; i < left.getData().getNbPixels(); i++) {
+            Assert.assertEquals(left.toLandscapePixel(i), (i / 3) * 7 + i % 3);
+        }
+    }
+
+    @Test
+    public void testDecomposedSolve() throws Exception {
+        PreprocessedLandscape landscape = new PreprocessedLandscape(makeData(ACCESSIBLE), 0);
+        DecompositionSolver solver = new DecompositionSolver(landscape, 2);
+        DecomposedSolution decomposed = solver.solve(
+                (p, region) -> p.postRestorableConstraint(0, 4, 0.7),
+                p -> p.postRestorableConstraint(0, 8, 0.7),
+                p -> new EffectiveMeshSizeObjective(p, 30, false, true, 3).findOptimalSolution(1, 0).get(0)
+        );
+        Assert.assertTrue(decomposed.isDecomposed());
+        Assert.assertEquals(decomposed.getRegionSolutions().size(), 2);
+        Assert.assertEquals(decomposed.getRestorationPlanningUnitsCompleteIndex().length, 8);
+        // Left: the two habitat groups are connected (7 pixels), right: the two habitat groups are connected (9 pixels),
+        // the landscape area is 42 pixels
+        Assert.assertEquals(decomposed.getEffectiveMeshSize(), (7 * 7 + 9 * 9) / 42.0, 1e-6);
+    }
+
+    @Test
+    public void testMonolithicFallback() throws Exception {
+        int[] accessible = new int[HABITAT.length];
+        PreprocessedLandscape landscape = new PreprocessedLandscape(makeData(accessible), 0);
+        DecompositionSolver solver = new DecompositionSolver(landscape, 2);
+        Assert.assertFalse(solver.getDecomposition().isDecomposable());
+        DecomposedSolution sol = solver.solve(
+                null,
+                p -> p.postRestorableConstraint(0, 4, 0.7),
+                p -> p.maximizeMESH(3, 30, 0, false)
+        );
+        Assert.assertFalse(sol.isDecomposed());
+        Assert.assertNotNull(sol.getMonolithicSolution());
+    }
+}
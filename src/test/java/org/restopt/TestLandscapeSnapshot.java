@@ -0,0 +1,117 @@
+package org.restopt;
+
+import org.restopt.grid.regular.square.GroupedGrid;
+import org.restopt.objectives.EffectiveMeshSizeObjective;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+public class TestLandscapeSnapshot {
+
+    private RasterDataLoader loadData() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        return new RasterDataLoader(habitat, accessible, restorable, cell_area);
+    }
+
+    private void assertSameLandscape(PreprocessedLandscape actual, PreprocessedLandscape expected) throws Exception {
+        GroupedGrid g1 = actual.getGrid();
+        GroupedGrid g2 = expected.getGrid();
+        Assert.assertEquals(g1.getClass(), g2.getClass());
+        Assert.assertEquals(g1.getNbCells(), g2.getNbCells());
+        Assert.assertEquals(g1.getNbGroups(), g2.getNbGroups());
+        Assert.assertEquals(g1.getSizeCells(), g2.getSizeCells());
+        for (int i = 0; i < g1.getNbCells(); i++) {
+            Assert.assertEquals(g1.getCellPartialIndices(i), g2.getCellPartialIndices(i));
+        }
+        Assert.assertEquals(actual.getAvailablePlanningUnits(), expected.getAvailablePlanningUnits());
+        Assert.assertEquals(actual.getNbNonHabitatNonAccessiblePixels(), expected.getNbNonHabitatNonAccessiblePixels());
+        Assert.assertEquals(actual.getNeighborhoodIndex().getOffsets(), expected.getNeighborhoodIndex().getOffsets());
+        Assert.assertEquals(actual.getNeighborhoodIndex().getTargets(), expected.getNeighborhoodIndex().getTargets());
+        RasterConnectivityFinder h1 = actual.getHabitatGraph();
+        RasterConnectivityFinder h2 = expected.getHabitatGraph();
+        Assert.assertEquals(h1.getNBCC(), h2.getNBCC());
+        Assert.assertEquals(h1.getNpro(), h2.getNpro());
+        for (int cc = 0; cc < h1.getNBCC(); cc++) {
+            Assert.assertEquals(h1.getCC(cc), h2.getCC(cc));
+        }
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        RasterDataLoader data = loadData();
+        Path dir = Files.createTempDirectory("restopt_snapshots");
+        for (int aggregationFactor : new int[] {1, 2}) {
+            PreprocessedLandscape built = LandscapeSnapshot.load(dir, data, 2, aggregationFactor);
+            PreprocessedLandscape loaded = LandscapeSnapshot.load(dir, data, 2, aggregationFactor);
+            assertSameLandscape(loaded, built);
+        }
+        Assert.assertEquals(Files.list(dir).count(), 2);
+        // Same problem solved on the preprocessed and the restored landscapes
+        String[] meshValues = new String[2];
+        PreprocessedLandscape[] landscapes = new PreprocessedLandscape[] {
+                new PreprocessedLandscape(data, 2),
+                LandscapeSnapshot.load(dir, data, 2, 1)
+        };
+        for (int i = 0; i < 2; i++) {
+            RestoptProblem restoptProblem = new RestoptProblem(landscapes[i]);
+            restoptProblem.postNbComponentsConstraint(1, 1);
+            restoptProblem.postCompactnessConstraint(6);
+            restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+            RestoptSolution sol = restoptProblem.maximizeMESH(3, 30, 0, false);
+            meshValues[i] = sol.getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH);
+        }
+        Assert.assertEquals(meshValues[1], meshValues[0]);
+    }
+
+    @Test
+    public void testKey() throws Exception {
+        int[] habitat = new int[] {
+                1, 0, 0,
+                0, 0, 0,
+                0, 0, 1
+        };
+        DataLoader data = new DataLoader(habitat, 0, -1.0, 3, 3);
+        byte[] key = LandscapeSnapshot.computeKey(data, 0, 1);
+        Assert.assertEquals(LandscapeSnapshot.computeKey(new DataLoader(habitat.clone(), 0, -1.0, 3, 3), 0, 1), key);
+        Assert.assertNotEquals(LandscapeSnapshot.computeKey(data, 1, 1), key);
+        Assert.assertNotEquals(LandscapeSnapshot.computeKey(data, 0, 2), key);
+        habitat[4] = 1;
+        Assert.assertNotEquals(LandscapeSnapshot.computeKey(new DataLoader(habitat, 0, -1.0, 3, 3), 0, 1), key);
+    }
+
+    @Test
+    public void testInvalidSnapshot() throws Exception {
+        int[] habitat = IntStream.range(0, 16).map(i -> i % 5 == 0 ? 1 : 0).toArray();
+        DataLoader data = new DataLoader(habitat, 0, -1.0, 4, 4);
+        DataLoader other = new DataLoader(IntStream.range(0, 16).map(i -> i % 3 == 0 ? 1 : 0).toArray(), 0, -1.0, 4, 4);
+        Path dir = Files.createTempDirectory("restopt_snapshots");
+        Path file = dir.resolve("snapshot" + LandscapeSnapshot.EXTENSION);
+        PreprocessedLandscape landscape = new PreprocessedLandscape(data, 0);
+        LandscapeSnapshot.write(landscape, file);
+        assertSameLandscape(LandscapeSnapshot.read(file, data, 0, 1), landscape);
+        try {
+            LandscapeSnapshot.read(file, other, 0, 1);
+            Assert.fail();
+        } catch (IOException e) {}
+        Files.write(file, new byte[] {1, 2, 3});
+        try {
+            LandscapeSnapshot.read(file, data, 0, 1);
+            Assert.fail();
+        } catch (IOException e) {}
+        // A corrupted snapshot in the cache is rebuilt
+        Path cacheDir = Files.createTempDirectory("restopt_snapshots");
+        LandscapeSnapshot.load(cacheDir, data, 0, 1);
+        Path cached = Files.list(cacheDir).findFirst().get();
+        Files.write(cached, new byte[] {1, 2, 3});
+        PreprocessedLandscape rebuilt = LandscapeSnapshot.load(cacheDir, data, 0, 1);
+        Assert.assertTrue(Files.size(cached) > 3);
+        assertSameLandscape(rebuilt, landscape);
+    }
+}
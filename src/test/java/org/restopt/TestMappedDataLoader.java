@@ -0,0 +1,55 @@
+package org.restopt;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class TestMappedDataLoader {
+
+    @Test
+    public void testMappedDataLoader() throws Exception {
+        int width = 37;
+        int height = 23;
+        int n = width * height;
+        Random random = new Random(0);
+        int[] habitat = IntStream.range(0, n).map(i -> random.nextInt(4) - 1).toArray(); // -1, 0, 1, 2 (no data)
+        habitat[0] = -9999;
+        int[] accessible = IntStream.range(0, n).map(i -> random.nextInt(3)).toArray();
+        double[] restorable = IntStream.range(0, n).mapToDouble(i -> random.nextInt(100) / 4.0).toArray();
+        int[] cellArea = IntStream.range(0, n).map(i -> 1 + random.nextInt(60000)).toArray();
+        DataLoader data = new DataLoader(habitat, accessible, restorable, cellArea, width, height, 2);
+        Path file = Files.createTempFile("restopt", ".bin");
+        try {
+            MappedDataLoader.write(data, file);
+            Assert.assertEquals(Files.size(file), MappedDataLoader.HEADER_SIZE + 8L * n);
+            MappedDataLoader mapped = new MappedDataLoader(file);
+            Assert.assertEquals(mapped.getWidth(), width);
+            Assert.assertEquals(mapped.getHeight(), height);
+            Assert.assertEquals(mapped.getNoDataValue(), 2.0);
+            Assert.assertEquals(mapped.getNbPixels(), n);
+            for (int i = 0; i < n; i++) {
+                if (habitat[i] == 2 || habitat[i] == -9999) {
+                    Assert.assertEquals(mapped.getHabitat(i), Byte.MIN_VALUE);
+                } else {
+                    Assert.assertEquals(mapped.getHabitat(i), habitat[i]);
+                }
+                Assert.assertEquals(mapped.getAccessible(i), accessible[i]);
+                Assert.assertEquals(mapped.getRestorable(i), restorable[i]);
+                Assert.assertEquals(mapped.getCellArea(i), cellArea[i]);
+            }
+            Assert.assertEquals(mapped.getCellAreaData(), cellArea);
+            // Same classification of the pixels
+            RasterClassification expected = new RasterClassification(data, 1);
+            RasterClassification actual = new RasterClassification(mapped, 1);
+            Assert.assertEquals(actual.getDiscardedPixels(), expected.getDiscardedPixels());
+            Assert.assertEquals(actual.getPlanningUnitPixels(), expected.getPlanningUnitPixels());
+            Assert.assertEquals(actual.getNbHabitatPixels(), expected.getNbHabitatPixels());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
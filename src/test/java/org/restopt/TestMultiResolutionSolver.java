@@ -0,0 +1,73 @@
+package org.restopt;
+
+import org.restopt.exception.RestoptException;
+import org.restopt.objectives.EffectiveMeshSizeObjective;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class TestMultiResolutionSolver {
+
+    @Test
+    public void testCoarseToFine() throws Exception {
+        int[] habitat = new int[] {
+                1, 1, 0, 0, 0, 0, 0, 0,
+                1, 1, 0, 0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0, 0, 1, 1,
+                0, 0, 0, 0, 0, 0, 1, 1
+        };
+        DataLoader data = new DataLoader(habitat, 0, -1.0, 8, 8);
+        MultiResolutionSolver solver = new MultiResolutionSolver(data, 0, new int[] {2, 1}, 1);
+        RestoptSolution sol = solver.solve(
+                p -> {
+                    p.postNbComponentsConstraint(1, 1);
+                    p.postRestorableConstraint(0, 16, 0.7);
+                },
+                p -> new EffectiveMeshSizeObjective(p, 30, false, true, 3)
+        );
+        Assert.assertNotNull(sol);
+        List<RestoptSolution> levels = solver.getLevelSolutions();
+        Assert.assertEquals(levels.size(), 2);
+        Assert.assertSame(levels.get(1), sol);
+        Assert.assertEquals(sol.getProblem().getLandscape().getAggregationFactor(), 1);
+        // The coarse solution is feasible at the fine level and is used as a warm start
+        double coarse = Double.parseDouble(levels.get(0).getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH));
+        double fine = Double.parseDouble(sol.getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH));
+        Assert.assertTrue(fine >= coarse);
+        // The fine solution is within one pixel of the coarse solution
+        int[] coarsePixels = levels.get(0).getRestorationPlanningUnitsCompleteIndex();
+        for (int i : sol.getRestorationPlanningUnitsCompleteIndex()) {
+            int row = i / 8;
+            int col = i % 8;
+            Assert.assertTrue(IntStream.of(coarsePixels).anyMatch(j -> Math.max(Math.abs(j / 8 - row), Math.abs(j % 8 - col)) <= 1));
+        }
+    }
+
+    @Test
+    public void testAllowedArea() throws Exception {
+        int[] habitat = new int[] {
+                1, 0, 0, 0,
+                0, 0, 0, 0,
+                0, 0, 0, 1
+        };
+        DataLoader data = new DataLoader(habitat, 0, -1.0, 4, 3);
+        RestoptProblem problem = new RestoptProblem(data, 0);
+        problem.postAllowedAreaConstraint(new int[] {1, 2, 5});
+        RestoptSolution sol = problem.maximizeNbPUS(10, 0, false);
+        int[] pixels = sol.getRestorationPlanningUnitsCompleteIndex();
+        Assert.assertEquals(pixels, new int[] {1, 2, 5});
+    }
+
+    @Test(expectedExceptions = RestoptException.class)
+    public void testInvalidFactors() throws Exception {
+        int[] habitat = new int[] {1, 0, 0, 0};
+        DataLoader data = new DataLoader(habitat, 0, -1.0, 2, 2);
+        new MultiResolutionSolver(data, 0, new int[] {1, 2}, 1);
+    }
+}
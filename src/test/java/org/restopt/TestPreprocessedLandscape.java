@@ -0,0 +1,45 @@
+package org.restopt;
+
+import org.restopt.objectives.EffectiveMeshSizeObjective;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TestPreprocessedLandscape {
+
+    @Test
+    public void testSharedLandscape() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+        PreprocessedLandscape landscape = new PreprocessedLandscape(dataLoader, 2);
+        // Build and solve several problems concurrently from the same landscape
+        List<String> meshValues = IntStream.range(0, 4).parallel().mapToObj(i -> {
+            try {
+                RestoptProblem restoptProblem = new RestoptProblem(landscape);
+                Assert.assertSame(restoptProblem.getGrid(), landscape.getGrid());
+                restoptProblem.postNbComponentsConstraint(1, 1);
+                restoptProblem.postCompactnessConstraint(6);
+                restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+                RestoptSolution sol = restoptProblem.maximizeMESH(3, 30, 0, false);
+                return sol.getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }).collect(Collectors.toList());
+        RestoptProblem reference = new RestoptProblem(dataLoader, 2);
+        reference.postNbComponentsConstraint(1, 1);
+        reference.postCompactnessConstraint(6);
+        reference.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+        String referenceMesh = reference.maximizeMESH(3, 30, 0, false)
+                .getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH);
+        for (String mesh : meshValues) {
+            Assert.assertEquals(mesh, referenceMesh);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.restopt;
+
+import org.chocosolver.util.tools.ArrayUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class TestRasterClassification {
+
+    @Test
+    public void testRasterClassification() throws Exception {
+        int width = 97;
+        int height = 53;
+        int n = width * height;
+        Random random = new Random(0);
+        int[] habitat = IntStream.range(0, n).map(i -> random.nextInt(4) - 1).toArray(); // -1, 0, 1, 2 (no data)
+        int[] accessible = IntStream.range(0, n).map(i -> random.nextInt(3)).toArray();
+        double[] restorable = new double[n];
+        int[] cellArea = IntStream.range(0, n).map(i -> 1).toArray();
+        DataLoader data = new DataLoader(habitat, accessible, restorable, cellArea, width, height, 2);
+        int accessibleVal = 1;
+        int[] outPixels = IntStream.range(0, n)
+                .filter(i -> habitat[i] <= -1 || habitat[i] == 2)
+                .toArray();
+        int[] nonHabitatNonAccessiblePixels = IntStream.range(0, n)
+                .filter(i -> habitat[i] == 0 && accessible[i] != accessibleVal)
+                .toArray();
+        int[] discarded = ArrayUtils.concat(outPixels, nonHabitatNonAccessiblePixels);
+        Arrays.sort(discarded);
+        int[] planningUnits = IntStream.range(0, n)
+                .filter(i -> accessible[i] == accessibleVal && habitat[i] == 0)
+                .toArray();
+        for (boolean parallel : new boolean[] {false, true}) {
+            RasterClassification classification = new RasterClassification(data, accessibleVal, parallel);
+            Assert.assertEquals(classification.getDiscardedPixels(), discarded);
+            Assert.assertEquals(classification.getPlanningUnitPixels(), planningUnits);
+            Assert.assertEquals(classification.getNbOutPixels(), outPixels.length);
+            Assert.assertEquals(classification.getNbNonHabitatNonAccessiblePixels(), nonHabitatNonAccessiblePixels.length);
+            Assert.assertEquals(classification.getNbHabitatPixels(), IntStream.of(habitat).filter(v -> v == 1).count());
+            Assert.assertEquals(classification.getNbNonHabitatPixels(), IntStream.of(habitat).filter(v -> v == 0).count());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.restopt;
+
+import org.restopt.grid.neighborhood.Neighborhoods;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+public class TestRasterConnectivityFinder {
+
+    @Test
+    public void testRasterConnectivityFinder() {
+        int[] data = new int[] {
+                1, 1, 0, 0,
+                0, 1, 0, 1,
+                0, 0, 0, 1,
+                1, 0, 2, 1
+        };
+        RasterConnectivityFinder finder = new RasterConnectivityFinder(4, 4, data, 1, Neighborhoods.FOUR_CONNECTED);
+        Assert.assertEquals(finder.getNbNodes(), 7);
+        Assert.assertEquals(finder.getNBCC(), 3);
+        Assert.assertEquals(finder.getNodesRasterIdx(), new int[] {0, 1, 5, 7, 11, 12, 15});
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == 1) {
+                Assert.assertEquals(finder.getRasterIdx(finder.getGraphIdx(i)), i);
+            } else {
+                Assert.assertEquals(finder.getGraphIdx(i), -1);
+            }
+        }
+        int[][] ccs = new int[finder.getNBCC()][];
+        for (int cc = 0; cc < finder.getNBCC(); cc++) {
+            ccs[cc] = finder.getCC(cc);
+            Arrays.sort(ccs[cc]);
+        }
+        Arrays.sort(ccs, (a, b) -> Integer.compare(a[0], b[0]));
+        Assert.assertEquals(ccs[0], new int[] {0, 1, 5});
+        Assert.assertEquals(ccs[1], new int[] {7, 11, 15});
+        Assert.assertEquals(ccs[2], new int[] {12});
+    }
+}
@@ -0,0 +1,42 @@
+package org.restopt;
+
+import org.restopt.choco.ConnectivityFinderSpatialGraph;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class TestRestoptSolution {
+
+    @Test
+    public void testLazyCharacteristics() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+        RestoptProblem restoptProblem = new RestoptProblem(dataLoader, 2);
+        restoptProblem.postNbComponentsConstraint(1, 3);
+        restoptProblem.postCompactnessConstraint(8);
+        restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+        List<RestoptSolution> sols = restoptProblem.findSolutions(5, 30, false);
+        Assert.assertTrue(sols.size() > 0);
+        for (RestoptSolution sol : sols) {
+            // The metrics computed on the neighborhood index are the same as the ones computed on the graphs
+            ConnectivityFinderSpatialGraph cfRestore = new ConnectivityFinderSpatialGraph(sol.getRestorationGraph());
+            cfRestore.findAllCC();
+            Assert.assertEquals(sol.getNbComponents(), cfRestore.getNBCC());
+            ConnectivityFinderSpatialGraph cfHabitat = new ConnectivityFinderSpatialGraph(sol.getHabitatGraph());
+            cfHabitat.findAllCC();
+            Assert.assertEquals(sol.getNbPatches(), cfHabitat.getNBCC());
+            Assert.assertTrue(sol.getNbComponents() >= 1 && sol.getNbComponents() <= 3);
+            Assert.assertTrue(sol.getDiameter() <= 8 + 1e-6);
+            Assert.assertEquals(sol.getNbPlanningUnits(), sol.getRestorationPlanningUnits().length);
+            // Typed values and string characteristics agree
+            Assert.assertEquals(sol.getCharacteristics().get(RestoptSolution.KEY_NB_COMPONENTS), String.valueOf(sol.getNbComponents()));
+            Assert.assertEquals(sol.getCharacteristics().get(RestoptSolution.KEY_NB_PATCHES), String.valueOf(sol.getNbPatches()));
+            Assert.assertEquals(sol.getCharacteristics().get(RestoptSolution.KEY_DIAMETER), String.valueOf(sol.getDiameter()));
+            Assert.assertSame(sol.getCharacteristics(), sol.getCharacteristics());
+        }
+    }
+}
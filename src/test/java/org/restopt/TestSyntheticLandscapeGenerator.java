@@ -0,0 +1,50 @@
+package org.restopt;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.stream.IntStream;
+
+public class TestSyntheticLandscapeGenerator {
+
+    @Test
+    public void testSyntheticLandscapeGenerator() throws Exception {
+        SyntheticLandscapeGenerator generator = new SyntheticLandscapeGenerator(80, 120, 7)
+                .setNbPatches(30)
+                .setPatchSizeRange(5, 50)
+                .setAccessibility(0.7, 8)
+                .setCellArea(4)
+                .setRestorableFractionRange(0.25, 0.75);
+        DataLoader data = generator.generate();
+        Assert.assertEquals(data.getWidth(), 120);
+        Assert.assertEquals(data.getHeight(), 80);
+        int n = data.getNbPixels();
+        int nbHabitat = (int) IntStream.range(0, n).filter(i -> data.getHabitat(i) == 1).count();
+        Assert.assertTrue(nbHabitat >= 5 && nbHabitat <= 30 * 50);
+        for (int i = 0; i < n; i++) {
+            Assert.assertTrue(data.getHabitat(i) == 0 || data.getHabitat(i) == 1);
+            Assert.assertTrue(data.getAccessible(i) == 0 || data.getAccessible(i) == 1);
+            Assert.assertEquals(data.getCellArea(i), 4);
+            if (data.getHabitat(i) == 1) {
+                Assert.assertEquals(data.getRestorable(i), 0.0);
+            } else {
+                Assert.assertTrue(data.getRestorable(i) >= 1 && data.getRestorable(i) <= 3);
+            }
+        }
+        // Accessibility is constant over 8x8 blocks
+        for (int row = 0; row < 80; row++) {
+            for (int col = 0; col < 120; col++) {
+                int blockCorner = (row / 8) * 8 * 120 + (col / 8) * 8;
+                Assert.assertEquals(data.getAccessible(row * 120 + col), data.getAccessible(blockCorner));
+            }
+        }
+        // Deterministic
+        DataLoader other = generator.generate();
+        Assert.assertEquals(other.getHabitatData(), data.getHabitatData());
+        Assert.assertEquals(other.getAccessibleData(), data.getAccessibleData());
+        Assert.assertEquals(other.getRestorableData(), data.getRestorableData());
+        // Patches can merge, but never more patches than generated
+        RestoptProblem problem = new RestoptProblem(data, 1);
+        Assert.assertTrue(problem.getGrid().getNbGroups() >= 1 && problem.getGrid().getNbGroups() <= 30);
+    }
+}
@@ -0,0 +1,106 @@
+package org.restopt.choco;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.setDataStructures.SetFactory;
+import org.restopt.RasterDataLoader;
+import org.restopt.RestoptProblem;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestPropEffectiveMeshSizeIncremental {
+
+    /**
+     * Path graph 0 - 1 - 2 - 3 - 4
+     */
+    private static final int[][] PATH = new int[][] {
+            {1}, {0, 2}, {1, 3}, {2, 4}, {3}
+    };
+
+    @Test
+    public void testDecrementalConnectivityFinder() {
+        IEnvironment env = new Model().getEnvironment();
+        DecrementalConnectivityFinder cc = new DecrementalConnectivityFinder(env, PATH, new int[] {1, 1, 1, 1, 1});
+        cc.init(SetFactory.makeConstantSet(new int[] {0, 1, 2, 3, 4}));
+        Assert.assertEquals(cc.getNBCC(), 1);
+        Assert.assertEquals(cc.getSumSquaredAttributes(), 25);
+        env.worldPush();
+        cc.removeNode(2);
+        cc.update();
+        Assert.assertEquals(cc.getNBCC(), 2);
+        Assert.assertEquals(cc.getSumSquaredAttributes(), 8);
+        Assert.assertNotEquals(cc.getNodeCC(0), cc.getNodeCC(4));
+        Assert.assertEquals(cc.getNodeCC(0), cc.getNodeCC(1));
+        env.worldPush();
+        cc.removeNode(0);
+        cc.removeNode(4);
+        cc.update();
+        Assert.assertEquals(cc.getNBCC(), 2);
+        Assert.assertEquals(cc.getSumSquaredAttributes(), 2);
+        env.worldPop();
+        Assert.assertEquals(cc.getNBCC(), 2);
+        Assert.assertEquals(cc.getSumSquaredAttributes(), 8);
+        env.worldPop();
+        Assert.assertEquals(cc.getNBCC(), 1);
+        Assert.assertEquals(cc.getSumSquaredAttributes(), 25);
+        Assert.assertEquals(cc.getNodeCC(0), cc.getNodeCC(4));
+    }
+
+    @Test
+    public void testIncrementalConnectivityFinder() {
+        IEnvironment env = new Model().getEnvironment();
+        IncrementalConnectivityFinder cc = new IncrementalConnectivityFinder(env, PATH, new int[] {1, 2, 1, 2, 1});
+        cc.init(SetFactory.makeConstantSet(new int[] {0, 4}));
+        Assert.assertEquals(cc.getNBCC(), 2);
+        Assert.assertEquals(cc.getSumSquaredAttributes(), 2);
+        env.worldPush();
+        cc.addNode(1);
+        cc.addNode(3);
+        Assert.assertEquals(cc.getNBCC(), 2);
+        Assert.assertEquals(cc.getSumSquaredAttributes(), 18);
+        env.worldPush();
+        cc.addNode(2);
+        Assert.assertEquals(cc.getNBCC(), 1);
+        Assert.assertEquals(cc.getSumSquaredAttributes(), 49);
+        Assert.assertEquals(cc.find(0), cc.find(4));
+        Assert.assertEquals(cc.getAttributeCC(cc.find(0)), 7);
+        env.worldPop();
+        Assert.assertEquals(cc.getNBCC(), 2);
+        Assert.assertFalse(cc.contains(2));
+        env.worldPop();
+        Assert.assertEquals(cc.getSumSquaredAttributes(), 2);
+        Assert.assertFalse(cc.contains(1));
+    }
+
+    @Test
+    public void testSameOptimumAsPropEffectiveMeshSize() throws Exception {
+        int[] optimum = new int[2];
+        for (int k = 0; k < 2; k++) {
+            String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+            String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+            String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+            String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+            RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+            RestoptProblem restoptProblem = new RestoptProblem(dataLoader, 2);
+            restoptProblem.postNbComponentsConstraint(1, 1);
+            restoptProblem.postCompactnessConstraint(6);
+            restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+            Model model = restoptProblem.getModel();
+            IntVar mesh = model.intVar(0, restoptProblem.getLandscapeArea() * 1000);
+            int[] sizeCells = restoptProblem.getGrid().getSizeCells();
+            int landscapeArea = restoptProblem.getLandscapeArea();
+            if (k == 0) {
+                model.post(new Constraint("MESH", new PropEffectiveMeshSize(restoptProblem.getHabitatGraphVar(), mesh, sizeCells, landscapeArea, 3, true)));
+            } else {
+                model.post(new Constraint("MESH", new PropEffectiveMeshSizeIncremental(restoptProblem.getHabitatGraphVar(), mesh, sizeCells, landscapeArea, 3, true)));
+            }
+            Solution sol = model.getSolver().findOptimalSolution(mesh, true);
+            Assert.assertNotNull(sol);
+            optimum[k] = sol.getIntVal(mesh);
+        }
+        Assert.assertEquals(optimum[1], optimum[0]);
+    }
+}
@@ -0,0 +1,99 @@
+package org.restopt.choco;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.IntVar;
+import org.restopt.RasterDataLoader;
+import org.restopt.RestoptProblem;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.stream.IntStream;
+
+public class TestPropIICIncremental {
+
+    @Test
+    public void testClusterEvaluator() {
+        // Components {0, 1}, {3} and {5}, the threshold neighborhood links each node to nodes at distance <= 2
+        // in the path 0 - 1 - 2 - 3 - 4 - 5 - 6 - 7, nodes 2, 4, 6 and 7 are not in the graph
+        int[][] neighs = new int[][] {
+                {1, 2}, {0, 2, 3}, {0, 1, 3, 4}, {1, 2, 4, 5}, {2, 3, 5, 6}, {3, 4, 6, 7}, {4, 5, 7}, {5, 6}
+        };
+        boolean[] in = new boolean[] {true, true, false, true, false, true, false, false};
+        int[] cc = new int[] {0, 0, -1, 3, -1, 5, -1, -1};
+        int[] area = new int[] {2, 0, 0, 1, 0, 3, 0, 0};
+        IICClusterEvaluator evaluator = new IICClusterEvaluator(NeighborhoodIndex.of(neighs));
+        long c = evaluator.evaluate(5, i -> in[i], i -> cc[i], i -> area[i]);
+        // Landscape graph: {0, 1} - {3} - {5}
+        long expected = 2 * 2 + 1 + 3 * 3 + 2 * (2 * 1 / 2) + 2 * (1 * 3 / 2) + 2 * (2 * 3 / 3);
+        Assert.assertEquals(c, expected);
+        // Same result whatever the starting node
+        Assert.assertEquals(evaluator.evaluate(1, i -> in[i], i -> cc[i], i -> area[i]), expected);
+        // Isolate {5}
+        in[3] = false;
+        Assert.assertEquals(evaluator.evaluate(5, i -> in[i], i -> cc[i], i -> area[i]), 9);
+        Assert.assertEquals(evaluator.evaluate(0, i -> in[i], i -> cc[i], i -> area[i]), 4);
+    }
+
+    @Test
+    public void testParallelClusterEvaluator() {
+        // Checkerboard on a 30x30 grid: every selected cell is a component, linked to the cells at distance 2
+        int side = 30;
+        int n = side * side;
+        int[][] neighs = new int[n][];
+        for (int i = 0; i < n; i++) {
+            int row = i / side;
+            int col = i % side;
+            neighs[i] = IntStream.range(0, n)
+                    .filter(j -> j != i && Math.abs(j / side - row) + Math.abs(j % side - col) <= 2)
+                    .toArray();
+        }
+        boolean[] in = new boolean[n];
+        int[] area = new int[n];
+        for (int i = 0; i < n; i++) {
+            in[i] = (i / side + i % side) % 2 == 0;
+            area[i] = 1 + i % 3;
+        }
+        NeighborhoodIndex index = NeighborhoodIndex.of(neighs);
+        IICClusterEvaluator sequential = new IICClusterEvaluator(index);
+        IICClusterEvaluator parallel = new IICClusterEvaluator(index, 4);
+        long expected = sequential.evaluate(0, i -> in[i], i -> i, i -> area[i]);
+        Assert.assertTrue(expected > 0);
+        Assert.assertEquals(parallel.evaluate(0, i -> in[i], i -> i, i -> area[i]), expected);
+        Assert.assertEquals(parallel.evaluate(side + 1, i -> in[i], i -> i, i -> area[i]), expected);
+    }
+
+    @Test
+    public void testSameValuesAsPropIIC() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+        RestoptProblem restoptProblem = new RestoptProblem(dataLoader, 2);
+        restoptProblem.postNbComponentsConstraint(1, 1);
+        restoptProblem.postCompactnessConstraint(6);
+        restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+        Model model = restoptProblem.getModel();
+        IntVar iic = model.intVar(0, 1000);
+        IntVar iicIncr = model.intVar(0, 1000);
+        model.post(new Constraint("IIC", new PropIIC(
+                restoptProblem.getHabitatGraphVar(), iic, restoptProblem.getGrid(),
+                restoptProblem.getLandscapeArea(), 3, 3, false
+        )));
+        model.post(new Constraint("IIC_incremental", new PropIICIncremental(
+                restoptProblem.getHabitatGraphVar(), iicIncr, restoptProblem.getGrid(),
+                restoptProblem.getLandscapeArea(), 3, restoptProblem.getThresholdNeighborhoodIndex(3), 3, false
+        )));
+        Solver solver = model.getSolver();
+        solver.limitSolution(20);
+        int nbSolutions = 0;
+        while (solver.solve()) {
+            Assert.assertEquals(iicIncr.getValue(), iic.getValue());
+            nbSolutions++;
+        }
+        Assert.assertTrue(nbSolutions > 0);
+    }
+}
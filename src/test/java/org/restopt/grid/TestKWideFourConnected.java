@@ -1,10 +1,21 @@
 package org.restopt.grid;
 
 import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetFactory;
+import org.restopt.RasterConnectivityFinder;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+import org.restopt.grid.neighborhood.Neighborhoods;
+import org.restopt.grid.neighborhood.regular.square.DiskStencil;
 import org.restopt.grid.neighborhood.regular.square.KWideFourConnected;
+import org.restopt.grid.neighborhood.regular.square.partial.grouped.PartialGroupedKWideFourConnected;
+import org.restopt.grid.regular.square.PartialRegularGroupedGrid;
 import org.restopt.grid.regular.square.RegularSquareGrid;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
 public class TestKWideFourConnected {
 
     @Test
@@ -24,4 +35,104 @@ public class TestKWideFourConnected {
             System.out.println();
         }
     }
+
+    @Test
+    public void testDiskStencil() {
+        // Every cell of a small grid, so that the stencil is clipped on all the borders
+        RegularSquareGrid grid = new RegularSquareGrid(7, 9);
+        for (int k = 1; k <= 5; k++) {
+            Assert.assertSame(DiskStencil.of(k), DiskStencil.of(k));
+            KWideFourConnected<RegularSquareGrid> neigh = Neighborhoods.K_WIDE_FOUR_CONNECTED(k);
+            for (int i = 0; i < grid.getNbCells(); i++) {
+                int[] c = grid.getCoordinatesFromIndex(i);
+                int[] expected = KWideFourConnected.discreteDisk(c[1], c[0], k, grid).toArray();
+                Assert.assertEquals(neigh.getNeighbors(grid, i), expected);
+            }
+        }
+    }
+
+    @Test
+    public void testPartialGroupedStencil() {
+        int width = 10;
+        int height = 8;
+        int[] data = new int[] { // 1 values are out, 2 are groups
+                2, 2, 0, 0, 0, 0, 0, 0, 0, 1,
+                0, 2, 0, 1, 1, 0, 2, 2, 0, 0,
+                0, 0, 0, 1, 0, 0, 0, 2, 0, 0,
+                1, 1, 0, 0, 0, 2, 0, 0, 0, 0,
+                0, 0, 0, 2, 2, 2, 0, 1, 0, 2,
+                0, 2, 0, 0, 0, 0, 0, 1, 0, 2,
+                0, 2, 0, 0, 1, 0, 0, 0, 0, 0,
+                0, 0, 0, 0, 1, 0, 0, 0, 2, 2
+        };
+        int[] out = IntStream.range(0, data.length).filter(i -> data[i] == 1).toArray();
+        RasterConnectivityFinder g = new RasterConnectivityFinder(height, width, data, 2, Neighborhoods.FOUR_CONNECTED);
+        PartialRegularGroupedGrid grid = new PartialRegularGroupedGrid(height, width, out, g);
+        RegularSquareGrid compGrid = new RegularSquareGrid(height, width);
+        PartialGroupedKWideFourConnected.Workspace ws = new PartialGroupedKWideFourConnected.Workspace();
+        for (int k = 1; k <= 4; k++) {
+            PartialGroupedKWideFourConnected<PartialRegularGroupedGrid> neigh =
+                    Neighborhoods.PARTIAL_GROUPED_K_WIDE_FOUR_CONNECTED(k);
+            for (int groupedIdx = 0; groupedIdx < grid.getNbCells(); groupedIdx++) {
+                // Reference: union of the discrete disks of the cells of the grouped cell
+                int[] points = groupedIdx < grid.getNbGroups()
+                        ? IntStream.of(grid.getGroup(groupedIdx).toArray()).map(grid::getCompleteIndex).toArray()
+                        : new int[] {grid.getUngroupedCompleteIndex(groupedIdx)};
+                ISet expected = SetFactory.makeRangeSet();
+                for (int i : points) {
+                    int[] c = compGrid.getCoordinatesFromIndex(i);
+                    for (int j : KWideFourConnected.discreteDisk(c[1], c[0], k, compGrid)) {
+                        if (!grid.getDiscardSet().contains(j) && grid.getGroupIndexFromCompleteIndex(j) != groupedIdx) {
+                            expected.add(grid.getGroupIndexFromCompleteIndex(j));
+                        }
+                    }
+                }
+                Assert.assertEquals(neigh.getNeighbors(grid, groupedIdx), expected.toArray());
+                int n = neigh.getNeighbors(grid, groupedIdx, ws);
+                Assert.assertEquals(Arrays.copyOf(ws.getNeighbors(), n), expected.toArray());
+            }
+        }
+    }
+
+    @Test
+    public void testPartialGroupedLargeNeighborhoodFreshThread() throws Exception {
+        // Cells with more neighbors than the initial workspace buffer, enumerated on a fresh thread
+        int width = 15;
+        int height = 15;
+        int[] data = new int[width * height];
+        data[7 * width + 7] = 2;
+        RasterConnectivityFinder g = new RasterConnectivityFinder(height, width, data, 2, Neighborhoods.FOUR_CONNECTED);
+        PartialRegularGroupedGrid grid = new PartialRegularGroupedGrid(height, width, new int[0], g);
+        RegularSquareGrid compGrid = new RegularSquareGrid(height, width);
+        int k = 4;
+        Throwable[] error = new Throwable[1];
+        Thread thread = new Thread(() -> {
+            try {
+                PartialGroupedKWideFourConnected<PartialRegularGroupedGrid> neigh =
+                        Neighborhoods.PARTIAL_GROUPED_K_WIDE_FOUR_CONNECTED(k);
+                NeighborhoodIndex index = NeighborhoodIndex.build(neigh, grid);
+                for (int groupedIdx = 0; groupedIdx < grid.getNbCells(); groupedIdx++) {
+                    int i = groupedIdx < grid.getNbGroups()
+                            ? grid.getCompleteIndex(grid.getGroup(groupedIdx).min())
+                            : grid.getUngroupedCompleteIndex(groupedIdx);
+                    int[] c = compGrid.getCoordinatesFromIndex(i);
+                    ISet expected = SetFactory.makeRangeSet();
+                    for (int j : KWideFourConnected.discreteDisk(c[1], c[0], k, compGrid)) {
+                        expected.add(grid.getGroupIndexFromCompleteIndex(j));
+                    }
+                    expected.remove(groupedIdx);
+                    Assert.assertEquals(neigh.getNeighbors(grid, groupedIdx), expected.toArray());
+                    Assert.assertEquals(index.getNeighbors(groupedIdx), expected.toArray());
+                }
+                Assert.assertTrue(index.getDegree(grid.getGroupIndexFromCompleteIndex(4 * width + 4)) > 16);
+            } catch (Throwable t) {
+                error[0] = t;
+            }
+        });
+        thread.start();
+        thread.join();
+        if (error[0] != null) {
+            throw new AssertionError(error[0]);
+        }
+    }
 }
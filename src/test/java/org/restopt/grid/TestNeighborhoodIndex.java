@@ -0,0 +1,121 @@
+package org.restopt.grid;
+
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.restopt.RasterConnectivityFinder;
+import org.restopt.grid.neighborhood.INeighborhood;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+import org.restopt.grid.neighborhood.Neighborhoods;
+import org.restopt.grid.regular.square.PartialRegularGroupedGrid;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class TestNeighborhoodIndex {
+
+    @Test
+    public void testNeighborhoodIndex() {
+        int width = 10;
+        int height = 10;
+        int[] data = new int[] { // 1 values are out, 2 are groups
+                1, 1, 1, 2, 2, 0, 0, 0, 0, 0,
+                1, 0, 0, 2, 2, 0, 0, 1, 1, 0,
+                0, 0, 0, 2, 1, 0, 0, 0, 0, 0,
+                0, 0, 0, 1, 1, 1, 0, 0, 2, 0,
+                0, 0, 0, 2, 2, 0, 0, 0, 0, 0,
+                0, 0, 0, 2, 2, 0, 0, 2, 2, 0,
+                0, 0, 1, 2, 2, 0, 1, 1, 1, 0,
+                0, 0, 0, 0, 0, 0, 1, 1, 1, 0,
+                0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0, 0, 0, 0, 0, 0
+        };
+        PartialRegularGroupedGrid grid = makeGrid(height, width, data);
+        for (int k = 2; k <= 4; k++) {
+            INeighborhood<PartialRegularGroupedGrid> neigh = Neighborhoods.PARTIAL_GROUPED_K_WIDE_FOUR_CONNECTED(k);
+            NeighborhoodIndex index = NeighborhoodIndex.build(neigh, grid);
+            Assert.assertEquals(index.getNbCells(), grid.getNbCells());
+            int nbTargets = 0;
+            for (int i = 0; i < grid.getNbCells(); i++) {
+                int[] expected = neigh.getNeighbors(grid, i);
+                int[] actual = index.getNeighbors(i);
+                Arrays.sort(expected);
+                Arrays.sort(actual);
+                Assert.assertEquals(actual, expected);
+                Assert.assertEquals(index.getDegree(i), expected.length);
+                nbTargets += expected.length;
+            }
+            Assert.assertEquals(index.getNbTargets(), nbTargets);
+        }
+    }
+
+    @Test
+    public void testPartialGraph() {
+        int width = 6;
+        int height = 5;
+        int[] data = new int[] { // 1 values are out, 2 are groups
+                2, 2, 0, 0, 1, 0,
+                0, 2, 0, 2, 0, 0,
+                1, 0, 0, 2, 2, 0,
+                0, 0, 1, 0, 0, 0,
+                0, 2, 0, 0, 0, 2
+        };
+        PartialRegularGroupedGrid grid = makeGrid(height, width, data);
+        INeighborhood<PartialRegularGroupedGrid> neigh = Neighborhoods.PARTIAL_GROUPED_FOUR_CONNECTED;
+        NeighborhoodIndex index = NeighborhoodIndex.build(neigh, grid);
+        int[] cells = IntStream.range(0, grid.getNbCells()).filter(i -> i % 3 != 1).toArray();
+        UndirectedGraph expected = neigh.getPartialGraph(grid, cells, SetType.BIPARTITESET, SetType.BIPARTITESET);
+        UndirectedGraph actual = index.getPartialGraph(cells, SetType.BIPARTITESET, SetType.BIPARTITESET);
+        for (int i = 0; i < grid.getNbCells(); i++) {
+            Assert.assertEquals(actual.containsNode(i), expected.containsNode(i));
+            if (expected.containsNode(i)) {
+                int[] expectedNeighs = expected.getNeighborsOf(i).toArray();
+                int[] actualNeighs = actual.getNeighborsOf(i).toArray();
+                Arrays.sort(expectedNeighs);
+                Arrays.sort(actualNeighs);
+                Assert.assertEquals(actualNeighs, expectedNeighs);
+            }
+        }
+    }
+
+    /**
+     * Footprint of the CSR index of the threshold neighborhood used by IIC on grids of increasing size: it is the size
+     * of the offsets and targets arrays, far below the one of a dense nbCells x nbCells matrix, and it grows linearly
+     * with the number of cells.
+     */
+    @Test
+    public void testMemoryFootprint() {
+        int k = 3;
+        long previous = 0;
+        for (int side = 25; side <= 200; side *= 2) {
+            int[] data = new int[side * side];
+            // A few square habitat patches, everything else is a planning unit
+            for (int row = 0; row < side; row++) {
+                for (int col = 0; col < side; col++) {
+                    if (row % 10 < 3 && col % 10 < 3) {
+                        data[row * side + col] = 2;
+                    }
+                }
+            }
+            PartialRegularGroupedGrid grid = makeGrid(side, side, data);
+            NeighborhoodIndex index = NeighborhoodIndex.build(Neighborhoods.PARTIAL_GROUPED_K_WIDE_FOUR_CONNECTED(k), grid);
+            Assert.assertEquals(index.getMemoryFootprint(), 4L * (grid.getNbCells() + 1 + index.getNbTargets()));
+            long dense = 4L * grid.getNbCells() * grid.getNbCells();
+            Assert.assertTrue(index.getMemoryFootprint() < dense);
+            if (previous > 0) {
+                // Four times more cells: the footprint must not grow quadratically
+                Assert.assertTrue(index.getMemoryFootprint() < 8 * previous);
+            }
+            previous = index.getMemoryFootprint();
+        }
+    }
+
+    private PartialRegularGroupedGrid makeGrid(int height, int width, int[] data) {
+        int[] out = IntStream.range(0, data.length).filter(i -> data[i] == 1).toArray();
+        RasterConnectivityFinder g = new RasterConnectivityFinder(
+                height, width, data, 2, Neighborhoods.FOUR_CONNECTED
+        );
+        return new PartialRegularGroupedGrid(height, width, out, g);
+    }
+}
@@ -0,0 +1,104 @@
+package org.restopt.grid;
+
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetFactory;
+import org.restopt.RasterConnectivityFinder;
+import org.restopt.grid.neighborhood.NeighborhoodIndex;
+import org.restopt.grid.neighborhood.Neighborhoods;
+import org.restopt.grid.neighborhood.regular.square.KWideFourConnected;
+import org.restopt.grid.regular.square.PartialRegularGroupedAggGrid;
+import org.restopt.grid.regular.square.RegularSquareGrid;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class TestPartialGroupedAggGrid {
+
+    @Test
+    public void testPartialGroupedAggGrid() {
+        int width = 5;
+        int height = 4;
+        int[] data = new int[] { // 1 values are out, 2 are groups
+                2, 2, 0, 0, 1,
+                0, 1, 0, 0, 0,
+                0, 0, 2, 0, 0,
+                1, 0, 0, 0, 2
+        };
+        int[] out = IntStream.range(0, data.length).filter(i -> data[i] == 1).toArray();
+        RasterConnectivityFinder g = new RasterConnectivityFinder(
+                height, width, data, 2, Neighborhoods.FOUR_CONNECTED
+        );
+        PartialRegularGroupedAggGrid grid = new PartialRegularGroupedAggGrid(height, width, out, g, 2);
+        Assert.assertEquals(grid.getNbGroups(), 3);
+        // 2x2 aggregates: {5}, {2, 3, 7, 8}, {9}, {10, 11, 16}, {13, 17, 18}, {14}
+        Assert.assertEquals(grid.getNbAggregates(), 6);
+        Assert.assertEquals(grid.getNbCells(), 9);
+        int[][] expected = new int[][] {{5}, {2, 3, 7, 8}, {9}, {10, 11, 16}, {13, 17, 18}, {14}};
+        int nbUngrouped = 0;
+        for (int a = 0; a < grid.getNbAggregates(); a++) {
+            int aggregateIdx = grid.getNbGroups() + a;
+            int[] complete = grid.getAggregateCompleteIndices(aggregateIdx);
+            Arrays.sort(complete);
+            Assert.assertEquals(complete, expected[a]);
+            Assert.assertEquals(grid.getSizeCells()[aggregateIdx], expected[a].length);
+            for (int i : grid.getAggregatePartialIndices(aggregateIdx)) {
+                Assert.assertEquals(grid.getGroupIndexFromPartialIndex(i), aggregateIdx);
+            }
+            for (int i : expected[a]) {
+                Assert.assertEquals(grid.getGroupIndexFromCompleteIndex(i), aggregateIdx);
+            }
+            nbUngrouped += expected[a].length;
+        }
+        Assert.assertEquals(nbUngrouped + 4, grid.getNbUngroupedCells());
+        for (int i : new int[] {0, 1, 12, 19}) {
+            int group = grid.getGroupIndexFromCompleteIndex(i);
+            Assert.assertTrue(group < grid.getNbGroups());
+            Assert.assertTrue(grid.getGroup(group).contains(grid.getPartialIndex(i)));
+        }
+        try {
+            grid.getAggregatePartialIndices(0);
+            Assert.fail();
+        } catch (RuntimeException e) {}
+    }
+
+    @Test
+    public void testKWideNeighborhood() {
+        int width = 7;
+        int height = 6;
+        int[] data = new int[] { // 1 values are out, 2 are groups
+                2, 2, 0, 0, 1, 0, 0,
+                0, 1, 0, 0, 0, 0, 2,
+                0, 0, 2, 0, 0, 0, 2,
+                1, 0, 0, 0, 2, 0, 0,
+                0, 0, 0, 1, 0, 0, 0,
+                0, 2, 0, 0, 0, 0, 1
+        };
+        int[] out = IntStream.range(0, data.length).filter(i -> data[i] == 1).toArray();
+        RasterConnectivityFinder g = new RasterConnectivityFinder(
+                height, width, data, 2, Neighborhoods.FOUR_CONNECTED
+        );
+        PartialRegularGroupedAggGrid grid = new PartialRegularGroupedAggGrid(height, width, out, g, 2);
+        RegularSquareGrid compGrid = new RegularSquareGrid(height, width);
+        for (int k = 1; k <= 3; k++) {
+            NeighborhoodIndex index = NeighborhoodIndex.build(Neighborhoods.PARTIAL_GROUPED_K_WIDE_FOUR_CONNECTED(k), grid);
+            Assert.assertEquals(index.getNbCells(), grid.getNbCells());
+            for (int cell = 0; cell < grid.getNbCells(); cell++) {
+                // Reference: grouped cells of the pixels in the k-wide disk of any pixel of the cell
+                ISet expected = SetFactory.makeRangeSet();
+                for (int p : grid.getCellPartialIndices(cell)) {
+                    int[] c = compGrid.getCoordinatesFromIndex(grid.getCompleteIndex(p));
+                    for (int j : KWideFourConnected.discreteDisk(c[1], c[0], k, compGrid)) {
+                        if (grid.getPartialIndex(j) >= 0 && grid.getGroupIndexFromCompleteIndex(j) != cell) {
+                            expected.add(grid.getGroupIndexFromCompleteIndex(j));
+                        }
+                    }
+                }
+                int[] actual = index.getNeighbors(cell);
+                Arrays.sort(actual);
+                Assert.assertEquals(actual, expected.toArray());
+            }
+        }
+    }
+}
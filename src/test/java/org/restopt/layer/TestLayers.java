@@ -0,0 +1,56 @@
+package org.restopt.layer;
+
+import org.restopt.DataLoader;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class TestLayers {
+
+    @Test
+    public void testPack() {
+        int n = 1000;
+        Random random = new Random(0);
+        int[] binary = IntStream.range(0, n).map(i -> random.nextInt(2)).toArray();
+        int[] small = IntStream.range(0, n).map(i -> random.nextInt(4) - 1).toArray();
+        int[] medium = IntStream.range(0, n).map(i -> random.nextInt(20000) - 10000).toArray();
+        int[] large = IntStream.range(0, n).map(i -> random.nextInt()).toArray();
+        int[][] values = new int[][] {binary, small, medium, large};
+        Class<?>[] expectedTypes = new Class<?>[] {BitLayer.class, ByteLayer.class, ShortLayer.class, IntArrayLayer.class};
+        long[] expectedFootprints = new long[] {8 * 16, n, 2 * n, 4 * n};
+        for (int k = 0; k < values.length; k++) {
+            IntLayer layer = Layers.pack(values[k]);
+            Assert.assertEquals(layer.getClass(), expectedTypes[k]);
+            Assert.assertEquals(layer.size(), n);
+            Assert.assertEquals(layer.getMemoryFootprint(), expectedFootprints[k]);
+            Assert.assertEquals(layer.toArray(), values[k]);
+        }
+        double[] restorable = IntStream.range(0, n).mapToDouble(i -> random.nextInt(1000) / 8.0).toArray();
+        DoubleLayer restorableLayer = Layers.pack(restorable);
+        Assert.assertEquals(restorableLayer.toArray(), restorable);
+        Assert.assertEquals(restorableLayer.getMemoryFootprint(), 4 * n);
+    }
+
+    @Test
+    public void testDataLoaderFootprint() throws Exception {
+        int width = 100;
+        int height = 50;
+        int n = width * height;
+        Random random = new Random(0);
+        int[] habitat = IntStream.range(0, n).map(i -> random.nextInt(3) - 1).toArray();
+        int[] accessible = IntStream.range(0, n).map(i -> random.nextInt(2)).toArray();
+        double[] restorable = IntStream.range(0, n).mapToDouble(i -> random.nextDouble()).toArray();
+        int[] cellArea = IntStream.range(0, n).map(i -> 1).toArray();
+        DataLoader data = new DataLoader(habitat, accessible, restorable, cellArea, width, height, -1);
+        // Unpacked: int[] + int[] + double[] + int[] = 20 bytes per pixel, packed: 1 + 1/8 + 4 + 1/8 bytes per pixel
+        Assert.assertTrue(data.getMemoryFootprint() * 3 < 20L * n);
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(data.getHabitat(i), habitat[i]);
+            Assert.assertEquals(data.getAccessible(i), accessible[i]);
+            Assert.assertEquals(data.getRestorable(i), (float) restorable[i], 0);
+            Assert.assertEquals(data.getCellArea(i), 1);
+        }
+    }
+}
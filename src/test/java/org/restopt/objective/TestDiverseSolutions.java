@@ -0,0 +1,88 @@
+package org.restopt.objective;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.SetVar;
+import org.restopt.RasterDataLoader;
+import org.restopt.RestoptProblem;
+import org.restopt.RestoptSolution;
+import org.restopt.choco.PropMinDistance;
+import org.restopt.objectives.EffectiveMeshSizeObjective;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TestDiverseSolutions {
+
+    @Test
+    public void testDiverseSolutions() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+        RestoptProblem restoptProblem = new RestoptProblem(dataLoader, 2);
+        restoptProblem.postNbComponentsConstraint(1, 1);
+        restoptProblem.postCompactnessConstraint(6);
+        restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+        int minDistance = 10;
+        List<RestoptSolution> sols = restoptProblem.maximizeMESHDiverse(5, 3, 60, 0.2, minDistance, false);
+        Assert.assertTrue(sols.size() > 1);
+        double best = Double.parseDouble(sols.get(0).getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH_BEST));
+        Assert.assertEquals(Double.parseDouble(sols.get(0).getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH)), best);
+        BitSet[] bitsets = new BitSet[sols.size()];
+        for (int i = 0; i < sols.size(); i++) {
+            double mesh = Double.parseDouble(sols.get(i).getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH));
+            Assert.assertTrue(mesh >= 0.8 * best - 1e-3);
+            bitsets[i] = PropMinDistance.toBitSet(sols.get(i).getRestorationPlanningUnits());
+            for (int j = 0; j < i; j++) {
+                Assert.assertTrue(PropMinDistance.hammingDistance(bitsets[i], bitsets[j]) >= minDistance);
+            }
+        }
+    }
+
+    @Test
+    public void testDistinctSolutionsWithoutMinDistance() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+        RestoptProblem restoptProblem = new RestoptProblem(dataLoader, 2);
+        restoptProblem.postNbComponentsConstraint(1, 1);
+        restoptProblem.postCompactnessConstraint(6);
+        restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+        EffectiveMeshSizeObjective obj = new EffectiveMeshSizeObjective(restoptProblem, 60, false, true, 3);
+        List<RestoptSolution> sols = obj.findDiverseOptimalSolutions(5, 0.2, 0, 0);
+        Assert.assertTrue(sols.size() > 1);
+        Set<BitSet> distinct = new HashSet<>();
+        for (RestoptSolution sol : sols) {
+            Assert.assertTrue(distinct.add(PropMinDistance.toBitSet(sol.getRestorationPlanningUnits())));
+        }
+    }
+
+    @Test
+    public void testDistances() {
+        BitSet a = PropMinDistance.toBitSet(new int[] {1, 2, 3, 4});
+        BitSet b = PropMinDistance.toBitSet(new int[] {3, 4, 5});
+        Assert.assertEquals(PropMinDistance.hammingDistance(a, b), 3);
+        Assert.assertEquals(PropMinDistance.jaccardDistance(a, b), 1 - 2.0 / 5, 1e-9);
+        Assert.assertEquals(PropMinDistance.jaccardDistance(new BitSet(), new BitSet()), 0.0);
+    }
+
+    @Test
+    public void testPropagationFixPoint() {
+        // Fixing the elements for the tight reference {0} gives {1}, which is too close to the reference {1, 7}
+        Model model = new Model();
+        SetVar set = model.setVar("x", new int[0], new int[] {0, 1});
+        PropMinDistance prop = new PropMinDistance(set, 2, 0);
+        prop.addReference(PropMinDistance.toBitSet(new int[] {1, 7}));
+        prop.addReference(PropMinDistance.toBitSet(new int[] {0}));
+        new Constraint("minDistance", prop).post();
+        Assert.assertFalse(model.getSolver().solve());
+    }
+}
@@ -0,0 +1,48 @@
+package org.restopt.objective;
+
+import org.restopt.RasterDataLoader;
+import org.restopt.RestoptProblem;
+import org.restopt.RestoptSolution;
+import org.restopt.objectives.EffectiveMeshSizeObjective;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestPortfolio {
+
+    private RestoptProblem exampleProblem() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+        RestoptProblem restoptProblem = new RestoptProblem(dataLoader, 2);
+        restoptProblem.postNbComponentsConstraint(1, 1);
+        restoptProblem.postCompactnessConstraint(6);
+        restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+        return restoptProblem;
+    }
+
+    @Test
+    public void testCopy() throws Exception {
+        RestoptProblem restoptProblem = exampleProblem();
+        RestoptProblem copy = new RestoptProblem(restoptProblem);
+        Assert.assertNotSame(copy.getModel(), restoptProblem.getModel());
+        Assert.assertSame(copy.getGrid(), restoptProblem.getGrid());
+        Assert.assertEquals(copy.getModel().getNbCstrs(), restoptProblem.getModel().getNbCstrs());
+        Assert.assertEquals(copy.getModel().getNbVars(), restoptProblem.getModel().getNbVars());
+        Assert.assertNotNull(copy.minRestore);
+    }
+
+    @Test
+    public void testMaximizeMESHPortfolio() throws Exception {
+        RestoptSolution ref = exampleProblem().maximizeMESH(3, 30, 0, false);
+        RestoptSolution sol = exampleProblem().maximizeMESHPortfolio(3, 30, 4, true);
+        Assert.assertNotNull(sol);
+        sol.printSolutionInfos();
+        Assert.assertEquals(sol.getCharacteristics().get(RestoptSolution.KEY_OPTIMALITY_PROVEN), "true");
+        Assert.assertEquals(
+                sol.getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH),
+                ref.getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH)
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package org.restopt.objective;
+
+import org.restopt.RasterDataLoader;
+import org.restopt.RestoptProblem;
+import org.restopt.RestoptSolution;
+import org.restopt.objectives.EffectiveMeshSizeObjective;
+import org.restopt.objectives.IncumbentSolution;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestSolutionListener {
+
+    @Test
+    public void testSolutionListener() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+        RestoptProblem restoptProblem = new RestoptProblem(dataLoader, 2);
+        restoptProblem.postNbComponentsConstraint(1, 1);
+        restoptProblem.postCompactnessConstraint(6);
+        restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+        EffectiveMeshSizeObjective obj = new EffectiveMeshSizeObjective(restoptProblem, 30, false, true, 3, "", false);
+        List<IncumbentSolution> incumbents = new ArrayList<>();
+        obj.addSolutionListener(incumbents::add);
+        RestoptSolution sol = obj.findOptimalSolution(1, 0).get(0);
+        Assert.assertTrue(incumbents.size() > 0);
+        for (int i = 1; i < incumbents.size(); i++) {
+            Assert.assertTrue(incumbents.get(i).getObjectiveValue() > incumbents.get(i - 1).getObjectiveValue());
+            Assert.assertTrue(incumbents.get(i).getTime() >= incumbents.get(i - 1).getTime());
+        }
+        IncumbentSolution last = incumbents.get(incumbents.size() - 1);
+        Assert.assertEquals(
+                last.toRestoptSolution().getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH),
+                sol.getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH)
+        );
+        Assert.assertEquals(last.toRestoptSolution().getRestorationPlanningUnits(), sol.getRestorationPlanningUnits());
+    }
+}
@@ -0,0 +1,40 @@
+package org.restopt.objective;
+
+import org.restopt.RasterDataLoader;
+import org.restopt.RestoptProblem;
+import org.restopt.RestoptSolution;
+import org.restopt.exception.RestoptException;
+import org.restopt.objectives.EffectiveMeshSizeObjective;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestSpatialLNS {
+
+    @Test
+    public void testSpatialLNS() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+        for (String neighborhood : new String[] {"WINDOW", "HABITAT_GROUP", "COMPONENT", "SPATIAL"}) {
+            RestoptProblem restoptProblem = new RestoptProblem(dataLoader, 2);
+            restoptProblem.postNbComponentsConstraint(1, 1);
+            restoptProblem.postCompactnessConstraint(6);
+            restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+            EffectiveMeshSizeObjective obj = new EffectiveMeshSizeObjective(restoptProblem, 5, false, true, 3, "DOM_OVER_W_DEG", true);
+            obj.setSeed(0);
+            obj.setLNSNeighborhood(neighborhood);
+            RestoptSolution sol = obj.findOptimalSolution(1, 0).get(0);
+            double initial = Double.parseDouble(sol.getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH_INITIAL));
+            double mesh = Double.parseDouble(sol.getCharacteristics().get(EffectiveMeshSizeObjective.KEY_MESH));
+            Assert.assertTrue(initial < mesh);
+            Assert.assertEquals(sol.getNbComponents(), 1);
+        }
+    }
+
+    @Test(expectedExceptions = RestoptException.class)
+    public void testUnknownNeighborhood() throws Exception {
+        new EffectiveMeshSizeObjective(null, 5, false, true, 3).setLNSNeighborhood("UNKNOWN");
+    }
+}
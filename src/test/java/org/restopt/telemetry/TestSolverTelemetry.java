@@ -0,0 +1,64 @@
+package org.restopt.telemetry;
+
+import org.restopt.RasterDataLoader;
+import org.restopt.RestoptProblem;
+import org.restopt.objectives.EffectiveMeshSizeObjective;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class TestSolverTelemetry {
+
+    @Test
+    public void testSolverTelemetry() throws Exception {
+        String habitat = getClass().getClassLoader().getResource("example_data/habitat.tif").getPath();
+        String restorable = getClass().getClassLoader().getResource("example_data/restorable.tif").getPath();
+        String accessible = getClass().getClassLoader().getResource("example_data/accessible.tif").getPath();
+        String cell_area = getClass().getClassLoader().getResource("example_data/cell_area.tif").getPath();
+        RasterDataLoader dataLoader = new RasterDataLoader(habitat, accessible, restorable, cell_area);
+        RestoptProblem restoptProblem = new RestoptProblem(dataLoader, 2);
+        restoptProblem.postNbComponentsConstraint(1, 1);
+        restoptProblem.postCompactnessConstraint(6);
+        restoptProblem.postRestorableConstraint(90 * 11, 110 * 11, 0.7);
+        EffectiveMeshSizeObjective obj = new EffectiveMeshSizeObjective(restoptProblem, 30, false, true, 3, "", false);
+        InMemoryTelemetrySink memory = new InMemoryTelemetrySink();
+        StringWriter csv = new StringWriter();
+        StringWriter json = new StringWriter();
+        SolverTelemetry telemetry = obj.enableTelemetry(memory, new CsvTelemetrySink(csv), new JsonLinesTelemetrySink(json));
+        obj.findOptimalSolution(1, 0);
+        // Objective trajectory
+        List<TelemetryRecord> solutions = memory.getRecords(TelemetryRecord.TYPE_SOLUTION);
+        Assert.assertTrue(solutions.size() > 0);
+        Assert.assertEquals(solutions, telemetry.getTrajectory());
+        Assert.assertTrue(telemetry.getFirstSolutionTime() >= 0);
+        int previous = Integer.MIN_VALUE;
+        for (TelemetryRecord r : solutions) {
+            int value = (int) r.get(TelemetryRecord.KEY_OBJECTIVE);
+            Assert.assertTrue(value > previous);
+            previous = value;
+        }
+        // Propagators
+        Map<String, PropagatorStats> stats = telemetry.getPropagatorStats().stream()
+                .collect(Collectors.toMap(PropagatorStats::getName, s -> s));
+        Assert.assertTrue(stats.get("MESH").getNbCalls() > 0);
+        Assert.assertTrue(stats.get("COMPACTNESS").getNbCalls() > 0);
+        Assert.assertEquals(memory.getRecords(TelemetryRecord.TYPE_PROPAGATOR).size(), stats.size());
+        // Summary
+        List<TelemetryRecord> summary = memory.getRecords(TelemetryRecord.TYPE_SUMMARY);
+        Assert.assertEquals(summary.size(), 1);
+        Assert.assertEquals(summary.get(0).get(TelemetryRecord.KEY_OPTIMALITY_PROVEN), true);
+        Assert.assertEquals(summary.get(0).get(TelemetryRecord.KEY_SOLUTIONS), solutions.size());
+        // CSV and JSON lines sinks
+        int nbRecords = memory.getRecords().size();
+        String[] csvLines = csv.toString().split("\n");
+        Assert.assertEquals(csvLines.length, nbRecords + 1);
+        Assert.assertTrue(csvLines[0].startsWith("type,"));
+        String[] jsonLines = json.toString().split("\n");
+        Assert.assertEquals(jsonLines.length, nbRecords);
+        Assert.assertTrue(jsonLines[jsonLines.length - 1].startsWith("{\"type\":\"summary\""));
+    }
+}